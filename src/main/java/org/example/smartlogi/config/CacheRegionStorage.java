@@ -0,0 +1,108 @@
+package org.example.smartlogi.config;
+
+import org.example.smartlogi.dto.CacheRegionStats;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stockage d'une région du cache de second niveau : LRU borné, durée de vie par entrée
+ * (0 = illimitée) et compteurs de succès / échecs pour le ratio de hits.
+ */
+final class CacheRegionStorage implements DomainDataStorageAccess {
+
+    private final String region;
+    private final int tailleMax;
+    private final long ttlMillis;
+    private final Map<Object, Entree> entrees;
+    private final LongAdder succes = new LongAdder();
+    private final LongAdder echecs = new LongAdder();
+    private final LongAdder ecritures = new LongAdder();
+
+    CacheRegionStorage(String region, int tailleMax, long ttlMillis) {
+        this.region = region;
+        this.tailleMax = tailleMax;
+        this.ttlMillis = ttlMillis;
+        this.entrees = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Entree> eldest) {
+                return size() > tailleMax;
+            }
+        };
+    }
+
+    @Override
+    public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+        Object valeur = lire(key);
+        if (valeur != null) {
+            succes.increment();
+        } else {
+            echecs.increment();
+        }
+        return valeur;
+    }
+
+    @Override
+    public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+        long expireA = ttlMillis > 0 ? System.currentTimeMillis() + ttlMillis : Long.MAX_VALUE;
+        synchronized (entrees) {
+            entrees.put(key, new Entree(value, expireA));
+        }
+        ecritures.increment();
+    }
+
+    @Override
+    public boolean contains(Object key) {
+        return lire(key) != null;
+    }
+
+    @Override
+    public void evictData() {
+        synchronized (entrees) {
+            entrees.clear();
+        }
+    }
+
+    @Override
+    public void evictData(Object key) {
+        synchronized (entrees) {
+            entrees.remove(key);
+        }
+    }
+
+    @Override
+    public void release() {
+        evictData();
+    }
+
+    CacheRegionStats stats() {
+        int taille;
+        synchronized (entrees) {
+            taille = entrees.size();
+        }
+        long hits = succes.sum();
+        long misses = echecs.sum();
+        return new CacheRegionStats(region, taille, tailleMax, ttlMillis / 1000, hits, misses, ecritures.sum(),
+                hits + misses > 0 ? (double) hits / (hits + misses) : 0);
+    }
+
+    private Object lire(Object key) {
+        synchronized (entrees) {
+            Entree entree = entrees.get(key);
+            if (entree == null) {
+                return null;
+            }
+            if (entree.expireA() <= System.currentTimeMillis()) {
+                entrees.remove(key);
+                return null;
+            }
+            return entree.valeur();
+        }
+    }
+
+    private record Entree(Object valeur, long expireA) {
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.smartlogi.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moteur de la base principale, lu une seule fois dans les métadonnées JDBC au démarrage.
+ * Les composants qui ont un chemin SQL propre à PostgreSQL (et un repli portable pour H2)
+ * l'injectent au lieu d'ouvrir une connexion pour le redemander.
+ */
+@Component
+@Slf4j
+public class DatabasePlatform {
+
+    private final boolean postgres;
+
+    public DatabasePlatform(JdbcTemplate jdbcTemplate) {
+        String produit = jdbcTemplate.execute((ConnectionCallback<String>) con ->
+                con.getMetaData().getDatabaseProductName());
+        this.postgres = "PostgreSQL".equalsIgnoreCase(produit);
+        log.info("Base de données détectée : {}", produit);
+    }
+
+    public boolean isPostgres() {
+        return postgres;
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.smartlogi.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Cache de second niveau et cache de requêtes pour les données de référence (Zone, Produit,
+ * Role, Permission). Politique par région : colis.cache.regions.&lt;region&gt;.taille-max / ttl-secondes,
+ * à défaut colis.cache.taille-max / ttl-secondes.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    @Bean
+    public ReferenceCacheRegionFactory referenceCacheRegionFactory(Environment environment) {
+        int tailleDefaut = environment.getProperty("colis.cache.taille-max", Integer.class, 1000);
+        long ttlDefaut = environment.getProperty("colis.cache.ttl-secondes", Long.class, 3600L);
+        return new ReferenceCacheRegionFactory(region -> new ReferenceCacheRegionFactory.Politique(
+                environment.getProperty("colis.cache.regions." + region + ".taille-max", Integer.class, tailleDefaut),
+                environment.getProperty("colis.cache.regions." + region + ".ttl-secondes", Long.class, ttlDefaut)));
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer cacheSecondNiveauCustomizer(ReferenceCacheRegionFactory regionFactory) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, regionFactory);
+        };
+    }
+}
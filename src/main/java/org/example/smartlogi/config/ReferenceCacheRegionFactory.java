@@ -0,0 +1,76 @@
+package org.example.smartlogi.config;
+
+import org.example.smartlogi.dto.CacheRegionStats;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Fabrique de régions du cache de second niveau, en mémoire locale à l'instance.
+ * Chaque région reçoit sa politique (taille max, durée de vie) ; la région des timestamps
+ * n'est jamais évincée, Hibernate s'en sert pour invalider le cache de requêtes.
+ */
+public class ReferenceCacheRegionFactory extends RegionFactoryTemplate {
+
+    private final Function<String, Politique> politiques;
+    private final Map<String, CacheRegionStorage> regions = new ConcurrentHashMap<>();
+
+    public ReferenceCacheRegionFactory(Function<String, Politique> politiques) {
+        this.politiques = politiques;
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+                                                                    DomainDataRegionBuildingContext buildingContext) {
+        return creer(regionConfig.getRegionName());
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName,
+                                                                  SessionFactoryImplementor sessionFactory) {
+        return creer(regionName);
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName,
+                                                                SessionFactoryImplementor sessionFactory) {
+        return regions.computeIfAbsent(regionName, nom -> new CacheRegionStorage(nom, Integer.MAX_VALUE, 0));
+    }
+
+    private CacheRegionStorage creer(String regionName) {
+        return regions.computeIfAbsent(regionName, nom -> {
+            Politique politique = politiques.apply(nom);
+            return new CacheRegionStorage(nom, politique.tailleMax(), politique.ttlSecondes() * 1000);
+        });
+    }
+
+    public List<CacheRegionStats> statistiques() {
+        return regions.values().stream()
+                .map(CacheRegionStorage::stats)
+                .sorted(Comparator.comparing(CacheRegionStats::region))
+                .toList();
+    }
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, Map<String, Object> configValues) {
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        regions.values().forEach(CacheRegionStorage::release);
+        regions.clear();
+    }
+
+    public record Politique(int tailleMax, long ttlSecondes) {
+    }
+}
@@ -0,0 +1,119 @@
+package org.example.smartlogi.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Aiguille les transactions readOnly vers le réplica et tout le reste vers le primaire.
+ * Doit être enveloppée dans un LazyConnectionDataSourceProxy : la connexion n'est alors prise
+ * qu'au premier ordre SQL, quand le caractère readOnly de la transaction est connu.
+ * "Lire ses écritures" : après le commit d'une transaction d'écriture, les lectures du même
+ * utilisateur restent sur le primaire pendant une fenêtre couvrant le retard mesuré du réplica.
+ * Si ce retard dépasse le maximum toléré, toutes les lectures repassent sur le primaire.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Cible { PRIMAIRE, REPLICA }
+
+    private final DataSource replica;
+    private final long fenetreMinMillis;
+    private final long retardMaxMillis;
+    private final String requeteRetard;
+
+    // utilisateur -> instant jusqu'auquel ses lectures restent sur le primaire
+    private final Map<String, Long> ecrituresRecentes = new ConcurrentHashMap<>();
+    private volatile long retardMillis;
+
+    /**
+     * @param requeteRetard requête renvoyant le retard du réplica en millisecondes (vide : retard ignoré)
+     */
+    public ReplicaRoutingDataSource(DataSource primaire, DataSource replica, long fenetreMinMillis,
+                                    long retardMaxMillis, String requeteRetard) {
+        this.replica = replica;
+        this.fenetreMinMillis = fenetreMinMillis;
+        this.retardMaxMillis = retardMaxMillis;
+        this.requeteRetard = requeteRetard;
+        setTargetDataSources(Map.of(Cible.PRIMAIRE, primaire, Cible.REPLICA, replica));
+        setDefaultTargetDataSource(primaire);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                memoriserEcriture();
+            }
+            return Cible.PRIMAIRE;
+        }
+        if (retardMillis > retardMaxMillis) {
+            return Cible.PRIMAIRE;
+        }
+        String utilisateur = utilisateurCourant();
+        if (utilisateur != null) {
+            Long jusqua = ecrituresRecentes.get(utilisateur);
+            if (jusqua != null) {
+                if (jusqua > System.currentTimeMillis()) {
+                    return Cible.PRIMAIRE;
+                }
+                ecrituresRecentes.remove(utilisateur, jusqua);
+            }
+        }
+        return Cible.REPLICA;
+    }
+
+    private void memoriserEcriture() {
+        String utilisateur = utilisateurCourant();
+        if (utilisateur == null) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                long fenetre = Math.max(fenetreMinMillis, 2 * Math.min(retardMillis, retardMaxMillis));
+                ecrituresRecentes.merge(utilisateur, System.currentTimeMillis() + fenetre, Math::max);
+            }
+        });
+    }
+
+    /**
+     * Mesure le retard de réplication ; en cas d'échec le réplica est considéré comme indisponible.
+     */
+    @Scheduled(fixedDelayString = "${spring.datasource.replica.mesure-retard-ms:5000}")
+    public void mesurerRetard() {
+        long maintenant = System.currentTimeMillis();
+        ecrituresRecentes.values().removeIf(jusqua -> jusqua <= maintenant);
+        if (requeteRetard == null || requeteRetard.isBlank()) {
+            return;
+        }
+        try {
+            Number retard = new JdbcTemplate(replica).queryForObject(requeteRetard, Number.class);
+            retardMillis = retard != null ? retard.longValue() : 0;
+        } catch (RuntimeException e) {
+            log.warn("Retard du réplica illisible, lectures redirigées vers le primaire : {}", e.getMessage());
+            retardMillis = Long.MAX_VALUE;
+        }
+    }
+
+    public long retardMillis() {
+        return retardMillis;
+    }
+
+    private static String utilisateurCourant() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken) ? authentication.getName() : null;
+    }
+}
@@ -4,8 +4,12 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.example.smartlogi.dto.HistoriqueWriterStats;
+import org.example.smartlogi.dto.PasswordHashingStats;
 import org.example.smartlogi.dto.PermissionDTO;
 import org.example.smartlogi.dto.RoleDTO;
+import org.example.smartlogi.security.service.PasswordHashingService;
+import org.example.smartlogi.service.HistoriqueWriter;
 import org.example.smartlogi.service.PermissionService;
 import org.example.smartlogi.service.RoleService;
 import org.springframework.http.HttpStatus;
@@ -25,6 +29,8 @@ public class AdminController {
 
     private final PermissionService permissionService;
     private final RoleService roleService;
+    private final HistoriqueWriter historiqueWriter;
+    private final PasswordHashingService passwordHashingService;
 
     @GetMapping("/permissions")
     @Operation(summary = "Lister toutes les permissions")
@@ -124,4 +130,17 @@ public class AdminController {
         Set<PermissionDTO> permissions = roleService.getPermissions(roleId);
         return ResponseEntity.ok(permissions);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/historique-writer")
+    @Operation(summary = "Métriques du writer d'historique", description = "Profondeur de file et latence des flushs")
+    public ResponseEntity<HistoriqueWriterStats> getHistoriqueWriterStats() {
+        return ResponseEntity.ok(historiqueWriter.stats());
+    }
+
+    @GetMapping("/hachage-mots-de-passe")
+    @Operation(summary = "Métriques du hachage des mots de passe",
+            description = "Coût BCrypt, latence de hachage, attente en file et logins refusés")
+    public ResponseEntity<PasswordHashingStats> getPasswordHashingStats() {
+        return ResponseEntity.ok(passwordHashingService.stats());
+    }
+}
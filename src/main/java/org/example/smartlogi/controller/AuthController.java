@@ -9,8 +9,10 @@ import org.example.smartlogi.entity.Role;
 import org.example.smartlogi.entity.User;
 import org.example.smartlogi.repository.RoleRepository;
 import org.example.smartlogi.security.jwt.JwtUtil;
+import org.example.smartlogi.security.service.PasswordHashingService;
 import org.example.smartlogi.service.UserService;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -19,6 +21,9 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
 @RestController
 @RequestMapping("/auth")
 @RequiredArgsConstructor
@@ -28,12 +33,27 @@ public class AuthController {
     private final JwtUtil jwtUtil;
     private final UserService userService;
     private final RoleRepository roleRepository;
+    private final PasswordHashingService passwordHashingService;
 
     @Value("${jwt.expiration}")
     private Long jwtExpiration;
 
+    /**
+     * Le hachage BCrypt s'exécute sur le pool borné de PasswordHashingService : le thread Tomcat
+     * est libéré pendant l'attente ; file pleine, réponse 503 avec Retry-After.
+     */
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest loginRequest) {
+    public CompletableFuture<ResponseEntity<AuthResponse>> login(@Valid @RequestBody LoginRequest loginRequest) {
+        try {
+            return passwordHashingService.soumettre(() -> authentifier(loginRequest));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString(passwordHashingService.retryAfterSecondes()))
+                    .build());
+        }
+    }
+
+    private ResponseEntity<AuthResponse> authentifier(LoginRequest loginRequest) {
         try {
             Authentication authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(
@@ -0,0 +1,30 @@
+package org.example.smartlogi.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.example.smartlogi.config.ReferenceCacheRegionFactory;
+import org.example.smartlogi.dto.CacheRegionStats;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/cache")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('MANAGER')")
+@Tag(name = "Cache", description = "Cache de second niveau des données de référence")
+public class CacheController {
+
+    private final ReferenceCacheRegionFactory regionFactory;
+
+    @GetMapping("/stats")
+    @Operation(summary = "Statistiques du cache", description = "Taille, politique et ratio de hits par région")
+    public ResponseEntity<List<CacheRegionStats>> stats() {
+        return ResponseEntity.ok(regionFactory.statistiques());
+    }
+}
@@ -5,6 +5,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.example.smartlogi.dto.ClientExpediteurDTO;
+import org.example.smartlogi.dto.CursorPage;
 import org.example.smartlogi.service.ClientExpediteurService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -29,6 +30,16 @@ public class ClientExpediteurController {
         return ResponseEntity.ok(clients);
     }
 
+    @GetMapping("/curseur")
+    @PreAuthorize("hasRole('MANAGER')")
+    @Operation(summary = "Lister les clients expéditeurs (pagination par curseur)")
+    public ResponseEntity<CursorPage<ClientExpediteurDTO>> findAllByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+        return ResponseEntity.ok(clientService.findAll(cursor, size, withTotal));
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('MANAGER')")
     @Operation(summary = "Récupérer un client par ID")
@@ -5,16 +5,29 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.example.smartlogi.dto.*;
+import org.example.smartlogi.enums.FormatExport;
+import org.example.smartlogi.service.ColisBatchService;
+import org.example.smartlogi.service.ColisEvenementService;
+import org.example.smartlogi.service.ColisExportService;
+import org.example.smartlogi.service.ColisRechercheService;
+import org.example.smartlogi.service.ColisScanService;
 import org.example.smartlogi.service.ColisService;
+import org.example.smartlogi.service.IdempotenceService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/colis")
@@ -23,18 +36,36 @@ import java.util.List;
 public class ColisController {
 
     private final ColisService colisService;
+    private final ColisBatchService colisBatchService;
+    private final ColisExportService colisExportService;
+    private final ColisRechercheService colisRechercheService;
+    private final ColisEvenementService colisEvenementService;
+    private final ColisScanService colisScanService;
+    private final IdempotenceService idempotenceService;
 
     @PostMapping
     @PreAuthorize("hasAnyRole('MANAGER', 'CLIENT')")
     @Operation(summary = "Créer un colis", description = "Créer un nouveau colis avec ses produits")
     public ResponseEntity<ColisDetailDTO> create(
             @Valid @RequestBody CreateColisRequest request,
+            @RequestHeader(value = IdempotenceService.EN_TETE, required = false) String idempotencyKey,
             Authentication authentication) {
 
         String role = authentication.getAuthorities().iterator().next().getAuthority();
 
-        ColisDetailDTO created = colisService.create(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+        return idempotenceService.executer(idempotencyKey, "colis-creation:" + authentication.getName(), request,
+                ColisDetailDTO.class, () -> {
+                    ColisDetailDTO created = colisService.create(request);
+                    return ResponseEntity.status(HttpStatus.CREATED).body(created);
+                });
+    }
+
+    @PostMapping("/batch")
+    @PreAuthorize("hasAnyRole('MANAGER', 'CLIENT')")
+    @Operation(summary = "Créer des colis en masse", description = "Créer un lot de colis (imports partenaires) avec un résultat par élément")
+    public ResponseEntity<ColisBatchResponse> createBatch(@RequestBody List<CreateColisRequest> requests) {
+        ColisBatchResponse response = colisBatchService.createBatch(requests);
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping("/{id}")
@@ -113,13 +144,102 @@ public class ColisController {
     }
 
     @GetMapping("/page")
-    @PreAuthorize("hasRole('MANAGER')")
+    @PreAuthorize("hasAnyRole('MANAGER', 'DELIVERY_PERSON', 'CLIENT')")
     @Operation(summary = "Lister les colis (paginé)")
-    public ResponseEntity<Page<ColisDTO>> findAllPaginated(Pageable pageable) {
-        Page<ColisDTO> page = colisService.findAll(pageable);
+    public ResponseEntity<Page<ColisDTO>> findAllPaginated(Pageable pageable, Authentication authentication) {
+        String username = authentication.getName();
+        String role = authentication.getAuthorities().iterator().next().getAuthority();
+
+        Page<ColisDTO> page;
+
+        if (role.equals("ROLE_MANAGER")) {
+            page = colisService.findAll(pageable);
+        } else if (role.equals("ROLE_DELIVERY_PERSON")) {
+            page = colisService.findByLivreurUsername(username, pageable);
+        } else {
+            page = colisService.findByClientUsername(username, pageable);
+        }
+
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping("/curseur")
+    @PreAuthorize("hasAnyRole('MANAGER', 'DELIVERY_PERSON', 'CLIENT')")
+    @Operation(summary = "Lister les colis (pagination par curseur)",
+            description = "Du plus récent au plus ancien ; renvoyer nextCursor pour obtenir la page suivante")
+    public ResponseEntity<CursorPage<ColisDTO>> findAllByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean withTotal,
+            Authentication authentication) {
+        String username = authentication.getName();
+        String role = authentication.getAuthorities().iterator().next().getAuthority();
+
+        CursorPage<ColisDTO> page;
+
+        if (role.equals("ROLE_MANAGER")) {
+            page = colisService.findAll(cursor, size, withTotal);
+        } else if (role.equals("ROLE_DELIVERY_PERSON")) {
+            page = colisService.findByLivreurUsername(username, cursor, size);
+        } else {
+            page = colisService.findByClientUsername(username, cursor, size);
+        }
+
         return ResponseEntity.ok(page);
     }
 
+    @GetMapping("/recherche")
+    @PreAuthorize("hasRole('MANAGER')")
+    @Operation(summary = "Rechercher des colis",
+            description = "Recherche tolérante aux fautes sur numéro de suivi, ville et description, triée par pertinence")
+    public ResponseEntity<Page<ColisRechercheResultat>> rechercher(@RequestParam String q, Pageable pageable) {
+        return ResponseEntity.ok(colisRechercheService.rechercher(q, pageable));
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('MANAGER')")
+    @Operation(summary = "Exporter les colis", description = "Export en flux au format ndjson (défaut) ou csv")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "ndjson") String format) {
+        FormatExport formatExport = FormatExport.fromString(format);
+        StreamingResponseBody body = out -> colisExportService.exporter(formatExport, out);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(formatExport.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"colis." + formatExport.name().toLowerCase() + "\"")
+                .body(body);
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('MANAGER', 'DELIVERY_PERSON', 'CLIENT')")
+    @Operation(summary = "Flux des changements de statut (SSE)",
+            description = "Changements de statut et assignations visibles par l'appelant ; reprise via Last-Event-ID")
+    public ResponseEntity<SseEmitter> events(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            Authentication authentication) {
+
+        if (colisEvenementService.complet()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .build();
+        }
+
+        String username = authentication.getName();
+        String role = authentication.getAuthorities().iterator().next().getAuthority();
+
+        Optional<SseEmitter> emitter;
+        if (role.equals("ROLE_MANAGER")) {
+            emitter = Optional.of(colisEvenementService.abonnerTout(lastEventId));
+        } else if (role.equals("ROLE_DELIVERY_PERSON")) {
+            emitter = colisEvenementService.abonnerLivreur(username, lastEventId);
+        } else {
+            emitter = colisEvenementService.abonnerClient(username, lastEventId);
+        }
+
+        return emitter.map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.FORBIDDEN).build());
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAuthority('COLIS_DELETE')")
     @Operation(summary = "Supprimer un colis")
@@ -170,19 +290,31 @@ public class ColisController {
             @PathVariable Long id,
             @RequestParam String statut,
             @RequestParam(required = false) String commentaire,
+            @RequestParam(required = false) Long version,
+            @RequestHeader(value = IdempotenceService.EN_TETE, required = false) String idempotencyKey,
             Authentication authentication) {
 
         String username = authentication.getName();
         String role = authentication.getAuthorities().iterator().next().getAuthority();
 
-        if (role.equals("ROLE_DELIVERY_PERSON")) {
-            if (!colisService.isAssignedToDeliveryPerson(id, username)) {
-                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-            }
-        }
+        return idempotenceService.executer(idempotencyKey, "colis-statut:" + username,
+                Arrays.asList(id, statut, commentaire, version), ColisDTO.class, () -> {
+                    if (role.equals("ROLE_DELIVERY_PERSON")) {
+                        if (!colisService.isAssignedToDeliveryPerson(id, username)) {
+                            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+                        }
+                    }
+
+                    ColisDTO dto = colisService.changerStatut(id, statut, commentaire, version);
+                    return ResponseEntity.ok(dto);
+                });
+    }
 
-        ColisDTO dto = colisService.changerStatut(id, statut, commentaire);
-        return ResponseEntity.ok(dto);
+    @PostMapping("/scan")
+    @PreAuthorize("hasRole('MANAGER')")
+    @Operation(summary = "Scan hub en masse", description = "Passer une liste de colis (numéros de suivi) au même statut, avec un résultat par colis")
+    public ResponseEntity<ColisBatchResponse> scanner(@Valid @RequestBody ScanStatutRequest request) {
+        return ResponseEntity.ok(colisScanService.scanner(request));
     }
 
     @PatchMapping("/{colisId}/assigner-livreur/{livreurId}")
@@ -190,8 +322,9 @@ public class ColisController {
     @Operation(summary = "Assigner un livreur")
     public ResponseEntity<ColisDTO> assignerLivreur(
             @PathVariable Long colisId,
-            @PathVariable Long livreurId) {
-        ColisDTO dto = colisService.assignerLivreur(colisId, livreurId);
+            @PathVariable Long livreurId,
+            @RequestParam(required = false) Long version) {
+        ColisDTO dto = colisService.assignerLivreur(colisId, livreurId, version);
         return ResponseEntity.ok(dto);
     }
 
@@ -0,0 +1,28 @@
+package org.example.smartlogi.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.example.smartlogi.dto.DashboardDTO;
+import org.example.smartlogi.service.DashboardService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('MANAGER')")
+@Tag(name = "Tableau de bord", description = "Répartition des colis par statut, zone et priorité")
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+
+    @GetMapping
+    @Operation(summary = "Tableau de bord", description = "Compteurs en mémoire ; source=base force une agrégation en base")
+    public ResponseEntity<DashboardDTO> tableauDeBord(@RequestParam(required = false) String source) {
+        return ResponseEntity.ok("base".equalsIgnoreCase(source)
+                ? dashboardService.agreger()
+                : dashboardService.tableauDeBord());
+    }
+}
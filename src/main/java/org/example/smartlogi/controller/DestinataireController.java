@@ -4,6 +4,7 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.example.smartlogi.dto.CursorPage;
 import org.example.smartlogi.dto.DestinataireDTO;
 import org.example.smartlogi.service.DestinataireService;
 import org.springframework.http.HttpStatus;
@@ -29,6 +30,16 @@ public class DestinataireController {
         return ResponseEntity.ok(destinataires);
     }
 
+    @GetMapping("/curseur")
+    @PreAuthorize("hasAnyRole('MANAGER', 'CLIENT')")
+    @Operation(summary = "Lister les destinataires (pagination par curseur)")
+    public ResponseEntity<CursorPage<DestinataireDTO>> findAllByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+        return ResponseEntity.ok(destinataireService.findAll(cursor, size, withTotal));
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('MANAGER', 'CLIENT')")
     @Operation(summary = "Récupérer un destinataire par ID")
@@ -0,0 +1,33 @@
+package org.example.smartlogi.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.example.smartlogi.dto.DispatchResultat;
+import org.example.smartlogi.dto.DispatchStats;
+import org.example.smartlogi.service.DispatchService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/dispatch")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('MANAGER')")
+@Tag(name = "Dispatch", description = "Assignation automatique des colis aux livreurs")
+public class DispatchController {
+
+    private final DispatchService dispatchService;
+
+    @PostMapping
+    @Operation(summary = "Lancer un dispatch", description = "Assigne un lot de colis non assignés aux livreurs de leur zone")
+    public ResponseEntity<DispatchResultat> executer() {
+        return ResponseEntity.ok(dispatchService.executer());
+    }
+
+    @GetMapping("/stats")
+    @Operation(summary = "Métriques du dispatch", description = "Durée des exécutions et assignations par seconde")
+    public ResponseEntity<DispatchStats> stats() {
+        return ResponseEntity.ok(dispatchService.stats());
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.smartlogi.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.example.smartlogi.dto.CursorPage;
+import org.example.smartlogi.dto.HistoriqueLivraisonDTO;
+import org.example.smartlogi.service.HistoriqueLivraisonService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/historique")
+@RequiredArgsConstructor
+@Tag(name = "Historique", description = "API de consultation de l'historique de livraison")
+public class HistoriqueLivraisonController {
+
+    private final HistoriqueLivraisonService historiqueLivraisonService;
+
+    @GetMapping("/curseur")
+    @PreAuthorize("hasRole('MANAGER')")
+    @Operation(summary = "Lister l'historique (pagination par curseur)",
+            description = "Du plus récent au plus ancien, éventuellement filtré sur un colis")
+    public ResponseEntity<CursorPage<HistoriqueLivraisonDTO>> findAllByCursor(
+            @RequestParam(required = false) Long colisId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+        return ResponseEntity.ok(historiqueLivraisonService.findAll(colisId, cursor, size, withTotal));
+    }
+}
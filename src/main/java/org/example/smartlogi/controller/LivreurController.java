@@ -4,11 +4,15 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.example.smartlogi.dto.CursorPage;
 import org.example.smartlogi.dto.LivreurDTO;
+import org.example.smartlogi.dto.TourneeDTO;
 import org.example.smartlogi.service.LivreurService;
+import org.example.smartlogi.service.TourneeService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -20,6 +24,7 @@ import java.util.List;
 public class LivreurController {
 
     private final LivreurService livreurService;
+    private final TourneeService tourneeService;
 
     @GetMapping
     @PreAuthorize("hasAuthority('LIVREUR_READ')")
@@ -29,6 +34,39 @@ public class LivreurController {
         return ResponseEntity.ok(livreurs);
     }
 
+    @GetMapping("/curseur")
+    @PreAuthorize("hasAuthority('LIVREUR_READ')")
+    @Operation(summary = "Lister les livreurs (pagination par curseur)")
+    public ResponseEntity<CursorPage<LivreurDTO>> findAllByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+        return ResponseEntity.ok(livreurService.findAll(cursor, size, withTotal));
+    }
+
+    @GetMapping("/{id}/tournee")
+    @PreAuthorize("hasRole('MANAGER')")
+    @Operation(summary = "Tournée d'un livreur", description = "Ordre de passage optimisé des colis en cours")
+    public ResponseEntity<TourneeDTO> tournee(@PathVariable Long id) {
+        return ResponseEntity.ok(tourneeService.calculer(id));
+    }
+
+    @GetMapping("/moi/tournee")
+    @PreAuthorize("hasRole('DELIVERY_PERSON')")
+    @Operation(summary = "Ma tournée", description = "Ordre de passage optimisé des colis du livreur connecté")
+    public ResponseEntity<TourneeDTO> maTournee(Authentication authentication) {
+        return tourneeService.calculerPourUtilisateur(authentication.getName())
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.FORBIDDEN).build());
+    }
+
+    @GetMapping("/tournees")
+    @PreAuthorize("hasRole('MANAGER')")
+    @Operation(summary = "Vague de tournées", description = "Tournées de tous les livreurs ayant des colis en cours, calculées en parallèle")
+    public ResponseEntity<List<TourneeDTO>> tournees() {
+        return ResponseEntity.ok(tourneeService.calculerVague());
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('MANAGER')")
     @Operation(summary = "Récupérer un livreur par ID")
@@ -4,6 +4,7 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.example.smartlogi.dto.CursorPage;
 import org.example.smartlogi.dto.ProduitDTO;
 import org.example.smartlogi.service.ProduitService;
 import org.springframework.http.HttpStatus;
@@ -29,6 +30,16 @@ public class ProduitController {
         return ResponseEntity.ok(produits);
     }
 
+    @GetMapping("/curseur")
+    @PreAuthorize("hasAuthority('PRODUIT_READ')")
+    @Operation(summary = "Lister les produits (pagination par curseur)")
+    public ResponseEntity<CursorPage<ProduitDTO>> findAllByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+        return ResponseEntity.ok(produitService.findAll(cursor, size, withTotal));
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('MANAGER', 'CLIENT')")
     @Operation(summary = "Récupérer un produit par ID")
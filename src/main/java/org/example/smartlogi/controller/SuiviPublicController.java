@@ -0,0 +1,55 @@
+package org.example.smartlogi.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.example.smartlogi.dto.SuiviPublicDTO;
+import org.example.smartlogi.security.service.PublicRateLimiter;
+import org.example.smartlogi.service.SuiviPublicService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/api/public/suivi")
+@RequiredArgsConstructor
+@Tag(name = "Suivi public", description = "Suivi d'un colis par numéro, sans authentification")
+public class SuiviPublicController {
+
+    private final SuiviPublicService suiviPublicService;
+    private final PublicRateLimiter rateLimiter;
+
+    @GetMapping("/{numeroSuivi}")
+    @Operation(summary = "Suivre un colis", description = "Réponse 304 si l'ETag fourni (If-None-Match) est à jour")
+    public ResponseEntity<SuiviPublicDTO> suivre(
+            @PathVariable String numeroSuivi,
+            HttpServletRequest request,
+            WebRequest webRequest) {
+
+        if (!rateLimiter.autoriser(request.getRemoteAddr())) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "60")
+                    .build();
+        }
+
+        return suiviPublicService.trouver(numeroSuivi)
+                .map(entree -> {
+                    if (webRequest.checkNotModified(entree.etag())) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                                .eTag(entree.etag())
+                                .<SuiviPublicDTO>build();
+                    }
+                    return ResponseEntity.ok()
+                            .eTag(entree.etag())
+                            .cacheControl(CacheControl.maxAge(30, TimeUnit.SECONDS).cachePublic())
+                            .body(entree.vue());
+                })
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
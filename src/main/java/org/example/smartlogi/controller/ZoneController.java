@@ -4,6 +4,7 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.example.smartlogi.dto.CursorPage;
 import org.example.smartlogi.dto.ZoneDTO;
 import org.example.smartlogi.service.ZoneService;
 import org.springframework.http.HttpStatus;
@@ -29,6 +30,16 @@ public class ZoneController {
         return ResponseEntity.ok(zones);
     }
 
+    @GetMapping("/curseur")
+    @PreAuthorize("hasAuthority('ZONE_READ')")
+    @Operation(summary = "Lister les zones (pagination par curseur)")
+    public ResponseEntity<CursorPage<ZoneDTO>> findAllByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+        return ResponseEntity.ok(zoneService.findAll(cursor, size, withTotal));
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('MANAGER')")
     @Operation(summary = "Récupérer une zone par ID")
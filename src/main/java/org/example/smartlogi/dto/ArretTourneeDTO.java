@@ -0,0 +1,38 @@
+package org.example.smartlogi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArretTourneeDTO {
+
+    private int ordre;
+
+    private Long colisId;
+
+    private String numeroSuivi;
+
+    private String priorite;
+
+    private String destinataire;
+
+    private String adresse;
+
+    private Double latitude;
+
+    private Double longitude;
+
+    // Null pour les arrêts sans coordonnées, placés en fin de tournée
+    private LocalDateTime arriveeEstimee;
+
+    private LocalDateTime dateLivraisonPrevue;
+
+    private boolean enRetard;
+}
@@ -0,0 +1,16 @@
+package org.example.smartlogi.dto;
+
+/**
+ * État d'une région du cache de second niveau Hibernate.
+ */
+public record CacheRegionStats(
+        String region,
+        int taille,
+        int tailleMax,
+        long ttlSecondes,
+        long hits,
+        long misses,
+        long ecritures,
+        double ratioHits
+) {
+}
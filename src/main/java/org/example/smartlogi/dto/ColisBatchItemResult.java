@@ -0,0 +1,19 @@
+package org.example.smartlogi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ColisBatchItemResult {
+
+    private int index;
+    private boolean succes;
+    private Long colisId;
+    private String numeroSuivi;
+    private String erreur;
+}
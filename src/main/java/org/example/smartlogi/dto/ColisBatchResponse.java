@@ -0,0 +1,23 @@
+package org.example.smartlogi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ColisBatchResponse {
+
+    private int total;
+    private int succes;
+    private int echecs;
+
+    @Builder.Default
+    private List<ColisBatchItemResult> resultats = new ArrayList<>();
+}
@@ -63,4 +63,6 @@ public class ColisDTO {
     private String destinataireNom;
     private String zoneDestinationNom;
     private String livreurAssigneNom;
+
+    private Long version;
 }
\ No newline at end of file
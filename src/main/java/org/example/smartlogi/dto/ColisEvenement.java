@@ -0,0 +1,25 @@
+package org.example.smartlogi.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.example.smartlogi.enums.TypeEvenementColis;
+
+import java.time.LocalDateTime;
+
+/**
+ * Événement diffusé sur le flux SSE des colis. La séquence sert d'identifiant de reprise (Last-Event-ID).
+ * livreurPrecedentId est renseigné quand une assignation retire le colis à un autre livreur.
+ */
+public record ColisEvenement(
+        @JsonIgnore long sequence,
+        TypeEvenementColis type,
+        Long colisId,
+        String numeroSuivi,
+        String statut,
+        String commentaire,
+        Long livreurId,
+        Long livreurPrecedentId,
+        Long clientExpediteurId,
+        Long version,
+        LocalDateTime date
+) {
+}
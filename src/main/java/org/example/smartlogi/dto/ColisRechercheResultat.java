@@ -0,0 +1,16 @@
+package org.example.smartlogi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ColisRechercheResultat {
+
+    // Score de pertinence (plus élevé = plus pertinent)
+    private double score;
+
+    private ColisDTO colis;
+}
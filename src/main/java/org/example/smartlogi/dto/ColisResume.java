@@ -0,0 +1,31 @@
+package org.example.smartlogi.dto;
+
+import org.example.smartlogi.enums.PrioriteColis;
+import org.example.smartlogi.enums.StatutColis;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Projection en lecture seule des listes de colis (construite directement par JPQL, sans entité managée).
+ */
+public record ColisResume(
+        Long id,
+        String numeroSuivi,
+        StatutColis statut,
+        PrioriteColis priorite,
+        BigDecimal poidsTotal,
+        LocalDateTime dateLivraisonPrevue,
+        LocalDateTime dateLivraisonEffective,
+        LocalDateTime dateCreation,
+        Long clientExpediteurId,
+        String clientExpediteurNom,
+        Long destinataireId,
+        String destinataireNom,
+        Long zoneId,
+        String zoneNom,
+        Long livreurId,
+        String livreurNom,
+        Long version
+) {
+}
@@ -0,0 +1,30 @@
+package org.example.smartlogi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Page obtenue par pagination par clé (keyset) : nextCursor est un jeton opaque
+ * à renvoyer tel quel pour obtenir la page suivante.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> content;
+
+    private int size;
+
+    private String nextCursor;
+
+    private boolean hasNext;
+
+    // Estimation du nombre total de lignes (uniquement si demandée)
+    private Long approximateTotal;
+}
@@ -0,0 +1,19 @@
+package org.example.smartlogi.dto;
+
+import org.example.smartlogi.enums.PrioriteColis;
+import org.example.smartlogi.enums.StatutColis;
+
+import java.math.BigDecimal;
+
+/**
+ * Une case de la matrice statut x zone x priorité du tableau de bord (construite par JPQL).
+ */
+public record DashboardCellule(
+        StatutColis statut,
+        Long zoneId,
+        String zoneNom,
+        PrioriteColis priorite,
+        Long nombre,
+        BigDecimal poids
+) {
+}
@@ -0,0 +1,31 @@
+package org.example.smartlogi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardDTO {
+
+    private LocalDateTime genereLe;
+
+    // memoire (compteurs vivants) ou base (requête d'agrégation)
+    private String source;
+
+    private long totalColis;
+
+    private BigDecimal poidsTotal;
+
+    private Map<String, Long> parStatut;
+
+    private List<DashboardCellule> cellules;
+}
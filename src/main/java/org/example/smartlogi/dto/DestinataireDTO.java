@@ -1,6 +1,8 @@
 package org.example.smartlogi.dto;
 
 import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
@@ -35,6 +37,14 @@ public class DestinataireDTO {
     @NotBlank(message = "L'adresse est obligatoire")
     private String adresse;
 
+    @DecimalMin(value = "-90.0", message = "La latitude doit être comprise entre -90 et 90")
+    @DecimalMax(value = "90.0", message = "La latitude doit être comprise entre -90 et 90")
+    private Double latitude;
+
+    @DecimalMin(value = "-180.0", message = "La longitude doit être comprise entre -180 et 180")
+    @DecimalMax(value = "180.0", message = "La longitude doit être comprise entre -180 et 180")
+    private Double longitude;
+
     private LocalDateTime createdAt;
 
     private LocalDateTime updatedAt;
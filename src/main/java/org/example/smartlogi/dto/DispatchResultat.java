@@ -0,0 +1,34 @@
+package org.example.smartlogi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DispatchResultat {
+
+    private LocalDateTime date;
+
+    // EQUILIBRAGE ou REMPLISSAGE
+    private String mode;
+
+    private int candidats;
+
+    private int assignations;
+
+    // Colis pris entre-temps par une assignation manuelle
+    private int conflits;
+
+    // Colis restés sans livreur (aucun livreur disponible dans la zone ou lot plein)
+    private int nonAssignes;
+
+    private long dureeMs;
+
+    private double assignationsParSeconde;
+}
@@ -0,0 +1,21 @@
+package org.example.smartlogi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DispatchStats {
+
+    private long executions;
+
+    private long totalAssignations;
+
+    private long dureeMaxMs;
+
+    private DispatchResultat dernierResultat;
+}
@@ -0,0 +1,33 @@
+package org.example.smartlogi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HistoriqueWriterStats {
+
+    // sync ou write-behind
+    private String mode;
+
+    private int profondeurFile;
+
+    private int capaciteFile;
+
+    private long lignesEcrites;
+
+    private long lots;
+
+    private long echecs;
+
+    // Lignes écrites hors file (file pleine ou writer arrêté)
+    private long ecrituresDirectes;
+
+    private double derniereLatenceFlushMs;
+
+    private double latenceFlushMaxMs;
+}
@@ -7,6 +7,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
@@ -40,5 +41,9 @@ public class LivreurDTO {
 
     private Boolean actif = true;
 
+    // Lecture seule : charge active du livreur
+    private Integer chargeColis;
+    private BigDecimal chargePoids;
+
     private LocalDateTime createdAt;
 }
\ No newline at end of file
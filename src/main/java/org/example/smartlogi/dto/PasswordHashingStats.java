@@ -0,0 +1,38 @@
+package org.example.smartlogi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PasswordHashingStats {
+
+    private int coutBcrypt;
+
+    private int threads;
+
+    private int actifs;
+
+    private int profondeurFile;
+
+    private int capaciteFile;
+
+    private long hachages;
+
+    private double latenceHachageMoyenneMs;
+
+    private double latenceHachageMaxMs;
+
+    private long taches;
+
+    private double attenteFileMoyenneMs;
+
+    private double attenteFileMaxMs;
+
+    // Logins refusés en 503 (file pleine)
+    private long rejets;
+}
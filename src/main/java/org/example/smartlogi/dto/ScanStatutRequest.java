@@ -0,0 +1,23 @@
+package org.example.smartlogi.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScanStatutRequest {
+
+    @NotEmpty(message = "La liste des numéros de suivi ne peut pas être vide")
+    private List<String> numerosSuivi;
+
+    @NotBlank(message = "Le statut cible est obligatoire")
+    private String statut;
+
+    private String commentaire;
+}
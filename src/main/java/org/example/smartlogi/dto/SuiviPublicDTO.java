@@ -0,0 +1,21 @@
+package org.example.smartlogi.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Vue de suivi publique : uniquement ce qu'un destinataire peut voir, sans données personnelles.
+ */
+public record SuiviPublicDTO(
+        String numeroSuivi,
+        String statut,
+        String statutLibelle,
+        String zone,
+        LocalDateTime dateLivraisonPrevue,
+        LocalDateTime dateLivraisonEffective,
+        List<Etape> etapes
+) {
+
+    public record Etape(String statut, String libelle, LocalDateTime date) {
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.smartlogi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TourneeDTO {
+
+    private Long livreurId;
+
+    private LocalDateTime depart;
+
+    private double distanceKm;
+
+    private double dureeMinutes;
+
+    private int arretsSansCoordonnees;
+
+    private long calculMs;
+
+    private List<ArretTourneeDTO> arrets;
+}
@@ -15,15 +15,32 @@ import java.util.List;
 
 @Entity
 @Table(name = "colis")
+@NamedEntityGraph(
+        name = Colis.GRAPH_ASSOCIATIONS,
+        attributeNodes = {
+                @NamedAttributeNode("clientExpediteur"),
+                @NamedAttributeNode("destinataire"),
+                @NamedAttributeNode("zone"),
+                @NamedAttributeNode("livreur")
+        }
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Colis {
 
+    // Associations lues par ColisMapper (listes et détail)
+    public static final String GRAPH_ASSOCIATIONS = "Colis.associations";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Verrouillage optimiste : incrémentée à chaque changement de statut
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @Column(name = "numero_suivi", nullable = false, unique = true, length = 50)
     private String numeroSuivi;
 
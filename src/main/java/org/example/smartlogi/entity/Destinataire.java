@@ -35,6 +35,12 @@ public class Destinataire {
     @Column(name = "adresse", nullable = false, columnDefinition = "TEXT")
     private String adresse;
 
+    @Column(name = "latitude")
+    private Double latitude;
+
+    @Column(name = "longitude")
+    private Double longitude;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
@@ -38,6 +39,13 @@ public class Livreur {
     @Column(name = "actif")
     private Boolean actif = true;
 
+    // Charge active (colis non livrés), modifiée uniquement par UPDATE incrémental (LivreurRepository.ajusterCharge)
+    @Column(name = "charge_colis", insertable = false, updatable = false)
+    private Integer chargeColis;
+
+    @Column(name = "charge_poids", precision = 12, scale = 2, insertable = false, updatable = false)
+    private BigDecimal chargePoids;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
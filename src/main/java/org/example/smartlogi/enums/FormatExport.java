@@ -0,0 +1,25 @@
+package org.example.smartlogi.enums;
+
+public enum FormatExport {
+    NDJSON("application/x-ndjson"),
+    CSV("text/csv");
+
+    private final String contentType;
+
+    FormatExport(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public static FormatExport fromString(String format) {
+        for (FormatExport value : values()) {
+            if (value.name().equalsIgnoreCase(format)) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Format d'export invalide: " + format);
+    }
+}
@@ -0,0 +1,8 @@
+package org.example.smartlogi.enums;
+
+public enum ModeDispatch {
+    // Le colis va au livreur le moins chargé (en proportion de sa capacité)
+    EQUILIBRAGE,
+    // Best fit : le colis va au livreur qu'il remplit le plus, pour limiter le nombre de tournées
+    REMPLISSAGE
+}
@@ -1,5 +1,11 @@
 package org.example.smartlogi.enums;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 public enum StatutColis {
     CREE("Créé"),
     EN_PREPARATION("En préparation"),
@@ -8,6 +14,24 @@ public enum StatutColis {
     EN_TRANSIT("En transit"),
     LIVRE("Livré");
 
+    // Table des transitions autorisées : statut -> statuts suivants possibles
+    private static final Map<StatutColis, Set<StatutColis>> SUIVANTS = new EnumMap<>(StatutColis.class);
+    private static final Map<StatutColis, Set<StatutColis>> PREDECESSEURS = new EnumMap<>(StatutColis.class);
+
+    static {
+        SUIVANTS.put(CREE, EnumSet.of(EN_PREPARATION, COLLECTE, EN_TRANSIT));
+        SUIVANTS.put(EN_PREPARATION, EnumSet.of(COLLECTE, EN_TRANSIT));
+        SUIVANTS.put(COLLECTE, EnumSet.of(EN_STOCK, EN_TRANSIT));
+        SUIVANTS.put(EN_STOCK, EnumSet.of(EN_TRANSIT));
+        SUIVANTS.put(EN_TRANSIT, EnumSet.of(EN_STOCK, LIVRE));
+        SUIVANTS.put(LIVRE, EnumSet.noneOf(StatutColis.class));
+
+        for (StatutColis statut : values()) {
+            PREDECESSEURS.put(statut, EnumSet.noneOf(StatutColis.class));
+        }
+        SUIVANTS.forEach((depuis, vers) -> vers.forEach(suivant -> PREDECESSEURS.get(suivant).add(depuis)));
+    }
+
     private final String libelle;
 
     StatutColis(String libelle) {
@@ -17,4 +41,15 @@ public enum StatutColis {
     public String getLibelle() {
         return libelle;
     }
-}
\ No newline at end of file
+
+    public boolean peutPasserA(StatutColis suivant) {
+        return SUIVANTS.get(this).contains(suivant);
+    }
+
+    /**
+     * Statuts à partir desquels on peut atteindre ce statut.
+     */
+    public Set<StatutColis> predecesseurs() {
+        return Collections.unmodifiableSet(PREDECESSEURS.get(this));
+    }
+}
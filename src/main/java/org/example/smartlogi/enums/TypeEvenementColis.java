@@ -0,0 +1,6 @@
+package org.example.smartlogi.enums;
+
+public enum TypeEvenementColis {
+    CHANGEMENT_STATUT,
+    ASSIGNATION
+}
@@ -1,17 +1,48 @@
 package org.example.smartlogi.enums;
 
+import java.math.BigDecimal;
+
 public enum TypeVehicule {
-    VOITURE("Voiture"),
-    CAMIONNETTE("Camionnette"),
-    MOTO("Moto");
+    VOITURE("Voiture", new BigDecimal("300"), 60),
+    CAMIONNETTE("Camionnette", new BigDecimal("1200"), 150),
+    MOTO("Moto", new BigDecimal("30"), 20);
 
     private final String libelle;
+    private final BigDecimal poidsMax;
+    private final int colisMax;
 
-    TypeVehicule(String libelle) {
+    TypeVehicule(String libelle, BigDecimal poidsMax, int colisMax) {
         this.libelle = libelle;
+        this.poidsMax = poidsMax;
+        this.colisMax = colisMax;
     }
 
     public String getLibelle() {
         return libelle;
     }
-}
\ No newline at end of file
+
+    // Capacité de chargement en kg
+    public BigDecimal getPoidsMax() {
+        return poidsMax;
+    }
+
+    public int getColisMax() {
+        return colisMax;
+    }
+
+    /**
+     * Livreur.vehicule est un texte libre : on accepte le nom ou le libellé, sans casse.
+     * Valeur inconnue : VOITURE.
+     */
+    public static TypeVehicule depuis(String vehicule) {
+        if (vehicule != null) {
+            String valeur = vehicule.trim();
+            for (TypeVehicule type : values()) {
+                if (type.name().equalsIgnoreCase(valeur) || type.libelle.equalsIgnoreCase(valeur)) {
+                    return type;
+                }
+            }
+        }
+        return VOITURE;
+    }
+}
@@ -2,6 +2,7 @@ package org.example.smartlogi.mapper;
 
 import org.example.smartlogi.dto.ColisDTO;
 import org.example.smartlogi.dto.ColisDetailDTO;
+import org.example.smartlogi.dto.ColisResume;
 import org.example.smartlogi.entity.Colis;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -62,4 +63,18 @@ public interface ColisMapper {
     ColisDetailDTO toDetailDTO(Colis entity);
 
     List<ColisDTO> toDTOList(List<Colis> entities);
+
+    @Mapping(source = "zoneId", target = "zoneDestinationId")
+    @Mapping(source = "zoneNom", target = "zoneDestinationNom")
+    @Mapping(source = "livreurId", target = "livreurAssigneId")
+    @Mapping(source = "livreurNom", target = "livreurAssigneNom")
+    @Mapping(source = "dateLivraisonEffective", target = "dateLivraisonReelle")
+    @Mapping(source = "dateCreation", target = "createdAt")
+    @Mapping(target = "prixTotal", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "adresseLivraison", ignore = true)
+    @Mapping(target = "commentaire", ignore = true)
+    ColisDTO toDTO(ColisResume resume);
+
+    List<ColisDTO> resumesToDTOList(List<ColisResume> resumes);
 }
\ No newline at end of file
@@ -0,0 +1,50 @@
+package org.example.smartlogi.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.example.smartlogi.config.DatabasePlatform;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Nombre approximatif de lignes d'une table pour les listes paginées par clé.
+ * Sous PostgreSQL on lit l'estimation du planificateur (pg_class.reltuples) de la table résolue
+ * par le search_path ; pour une table partitionnée (relkind 'p', reltuples à -1 ou 0) on somme
+ * celles de ses partitions. Ailleurs (H2) ou si une table n'a jamais été analysée on retombe
+ * sur un COUNT(*).
+ */
+@Component
+@RequiredArgsConstructor
+public class ApproximateRowCounter {
+
+    private static final Set<String> TABLES = Set.of(
+            "colis", "historique_livraison", "zone", "produit",
+            "destinataire", "client_expediteur", "livreur");
+
+    private static final String ESTIMATION = "SELECT CASE WHEN c.relkind = 'p' THEN " +
+            "(SELECT CASE WHEN MIN(e.reltuples) < 0 THEN -1 ELSE SUM(e.reltuples) END " +
+            "FROM pg_inherits i JOIN pg_class e ON e.oid = i.inhrelid WHERE i.inhparent = c.oid) " +
+            "ELSE c.reltuples END FROM pg_class c WHERE c.oid = to_regclass(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabasePlatform databasePlatform;
+
+    public long estimer(String table) {
+        if (!TABLES.contains(table)) {
+            throw new IllegalArgumentException("Table non supportée: " + table);
+        }
+
+        if (databasePlatform.isPostgres()) {
+            Double estimation = jdbcTemplate.query(ESTIMATION,
+                    rs -> rs.next() ? rs.getObject(1, Double.class) : null, table);
+            if (estimation != null && estimation >= 0) {
+                return Math.round(estimation);
+            }
+        }
+
+        Long total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+        return total != null ? total : 0L;
+    }
+
+}
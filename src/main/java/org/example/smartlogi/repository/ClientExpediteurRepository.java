@@ -1,7 +1,10 @@
 package org.example.smartlogi.repository;
 
 import org.example.smartlogi.entity.ClientExpediteur;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,9 +15,15 @@ public interface ClientExpediteurRepository extends JpaRepository<ClientExpedite
 
     Optional<ClientExpediteur> findByEmail(String email);
 
+    @Query("SELECT c.id FROM ClientExpediteur c WHERE c.email = :email")
+    Optional<Long> findIdByEmail(@Param("email") String email);
+
     Optional<ClientExpediteur> findByTelephone(String telephone);
 
     List<ClientExpediteur> findByNomContainingIgnoreCase(String nom);
 
     boolean existsByEmail(String email);
-}
\ No newline at end of file
+
+    // Pagination par clé sur l'id
+    List<ClientExpediteur> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+}
@@ -1,27 +1,62 @@
 package org.example.smartlogi.repository;
 
+import jakarta.persistence.QueryHint;
+import org.example.smartlogi.dto.ColisResume;
+import org.example.smartlogi.dto.DashboardCellule;
 import org.example.smartlogi.entity.*;
 import org.example.smartlogi.enums.PrioriteColis;
 import org.example.smartlogi.enums.StatutColis;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ColisRepository extends JpaRepository<Colis, Long> {
 
+    String SELECT_RESUME = "SELECT new org.example.smartlogi.dto.ColisResume(" +
+            "c.id, c.numeroSuivi, c.statut, c.priorite, c.poidsTotal, " +
+            "c.dateLivraisonPrevue, c.dateLivraisonEffective, c.dateCreation, " +
+            "ce.id, ce.nom, d.id, d.nom, z.id, z.nom, l.id, l.nom, c.version) " +
+            "FROM Colis c JOIN c.clientExpediteur ce JOIN c.destinataire d JOIN c.zone z LEFT JOIN c.livreur l ";
+
+    // Pagination par clé : du plus récent au plus ancien, (date_creation, id) départage les ex-aequo
+    String APRES_CURSEUR = "(c.dateCreation, c.id) < (:date, :id) ";
+    String ORDRE_CURSEUR = "ORDER BY c.dateCreation DESC, c.id DESC";
+
+    @Override
+    @EntityGraph(Colis.GRAPH_ASSOCIATIONS)
+    List<Colis> findAll();
+
+    @Override
+    @EntityGraph(Colis.GRAPH_ASSOCIATIONS)
+    Page<Colis> findAll(Pageable pageable);
+
+    @EntityGraph(Colis.GRAPH_ASSOCIATIONS)
+    Optional<Colis> findWithAssociationsById(Long id);
+
+    @EntityGraph(Colis.GRAPH_ASSOCIATIONS)
     Optional<Colis> findByNumeroSuivi(String numeroSuivi);
 
     boolean existsByNumeroSuivi(String numeroSuivi);
 
+    @Query("SELECT c.numeroSuivi FROM Colis c WHERE c.numeroSuivi IN :numeros")
+    List<String> findNumerosSuiviExistants(@Param("numeros") Collection<String> numeros);
+
+    @EntityGraph(Colis.GRAPH_ASSOCIATIONS)
     List<Colis> findByStatut(StatutColis statut);
 
     List<Colis> findByPriorite(PrioriteColis priorite);
@@ -32,16 +67,29 @@ public interface ColisRepository extends JpaRepository<Colis, Long> {
     // RECHERCHES PAR RELATIONS
     // ========================================
 
+    @EntityGraph(Colis.GRAPH_ASSOCIATIONS)
     List<Colis> findByClientExpediteur(ClientExpediteur clientExpediteur);
 
     List<Colis> findByDestinataire(Destinataire destinataire);
 
+    @EntityGraph(Colis.GRAPH_ASSOCIATIONS)
     List<Colis> findByLivreur(Livreur livreur);
 
     List<Colis> findByLivreurIsNull();
 
+    @EntityGraph(Colis.GRAPH_ASSOCIATIONS)
     List<Colis> findByZone(Zone zone);
 
+    @EntityGraph(Colis.GRAPH_ASSOCIATIONS)
+    List<Colis> findByLivreurId(Long livreurId);
+
+    @EntityGraph(Colis.GRAPH_ASSOCIATIONS)
+    List<Colis> findByClientExpediteurId(Long clientExpediteurId);
+
+    boolean existsByIdAndLivreurId(Long id, Long livreurId);
+
+    boolean existsByIdAndClientExpediteurId(Long id, Long clientExpediteurId);
+
     // ========================================
     // RECHERCHES COMBINÉES
     // ========================================
@@ -66,28 +114,132 @@ public interface ColisRepository extends JpaRepository<Colis, Long> {
     // PAGINATION
     // ========================================
 
+    @EntityGraph(Colis.GRAPH_ASSOCIATIONS)
     Page<Colis> findByStatut(StatutColis statut, Pageable pageable);
 
+    @EntityGraph(Colis.GRAPH_ASSOCIATIONS)
     Page<Colis> findByZone(Zone zone, Pageable pageable);
 
+    @EntityGraph(Colis.GRAPH_ASSOCIATIONS)
     Page<Colis> findByClientExpediteur(ClientExpediteur clientExpediteur, Pageable pageable);
 
+    @EntityGraph(Colis.GRAPH_ASSOCIATIONS)
+    Page<Colis> findByLivreurId(Long livreurId, Pageable pageable);
+
+    @EntityGraph(Colis.GRAPH_ASSOCIATIONS)
+    Page<Colis> findByClientExpediteurId(Long clientExpediteurId, Pageable pageable);
+
     // ========================================
     // QUERIES PERSONNALISÉES
     // ========================================
 
+    @EntityGraph(Colis.GRAPH_ASSOCIATIONS)
     @Query("SELECT c FROM Colis c WHERE c.dateLivraisonPrevue < :now AND c.statut <> 'LIVRE'")
     List<Colis> findColisEnRetard(@Param("now") LocalDateTime now);
 
+    // ========================================
+    // PROJECTIONS (listes en lecture seule)
+    // ========================================
+
+    @Query(SELECT_RESUME)
+    List<ColisResume> findAllResumes();
+
+    @Query(value = SELECT_RESUME, countQuery = "SELECT COUNT(c) FROM Colis c")
+    Page<ColisResume> findAllResumes(Pageable pageable);
+
+    @Query(SELECT_RESUME + "WHERE c.id = :id")
+    Optional<ColisResume> findResumeById(@Param("id") Long id);
+
+    @Query(SELECT_RESUME + "WHERE c.numeroSuivi = :numeroSuivi")
+    Optional<ColisResume> findResumeByNumeroSuivi(@Param("numeroSuivi") String numeroSuivi);
+
+    @Query(SELECT_RESUME + "WHERE c.id IN :ids")
+    List<ColisResume> findResumesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(SELECT_RESUME + "WHERE c.statut = :statut")
+    List<ColisResume> findResumesByStatut(@Param("statut") StatutColis statut);
+
+    @Query(SELECT_RESUME + "WHERE z.id = :zoneId")
+    List<ColisResume> findResumesByZoneId(@Param("zoneId") Long zoneId);
+
+    @Query(SELECT_RESUME + "WHERE c.dateLivraisonPrevue < :now AND c.statut <> 'LIVRE'")
+    List<ColisResume> findResumesEnRetard(@Param("now") LocalDateTime now);
+
+    @Query(SELECT_RESUME + "WHERE ce.id = :clientId")
+    List<ColisResume> findResumesByClientExpediteurId(@Param("clientId") Long clientId);
+
+    @Query(value = SELECT_RESUME + "WHERE ce.id = :clientId",
+            countQuery = "SELECT COUNT(c) FROM Colis c WHERE c.clientExpediteur.id = :clientId")
+    Page<ColisResume> findResumesByClientExpediteurId(@Param("clientId") Long clientId, Pageable pageable);
+
+    @Query(SELECT_RESUME + "WHERE l.id = :livreurId")
+    List<ColisResume> findResumesByLivreurId(@Param("livreurId") Long livreurId);
+
+    @Query(value = SELECT_RESUME + "WHERE l.id = :livreurId",
+            countQuery = "SELECT COUNT(c) FROM Colis c WHERE c.livreur.id = :livreurId")
+    Page<ColisResume> findResumesByLivreurId(@Param("livreurId") Long livreurId, Pageable pageable);
+
+    // ========================================
+    // PAGINATION PAR CLÉ (keyset)
+    // ========================================
+
+    @Query(SELECT_RESUME + ORDRE_CURSEUR)
+    List<ColisResume> findResumesPremierePage(Limit limit);
+
+    @Query(SELECT_RESUME + "WHERE " + APRES_CURSEUR + ORDRE_CURSEUR)
+    List<ColisResume> findResumesApres(@Param("date") LocalDateTime date, @Param("id") Long id, Limit limit);
+
+    @Query(SELECT_RESUME + "WHERE l.id = :livreurId " + ORDRE_CURSEUR)
+    List<ColisResume> findResumesPremierePageByLivreurId(@Param("livreurId") Long livreurId, Limit limit);
+
+    @Query(SELECT_RESUME + "WHERE l.id = :livreurId AND " + APRES_CURSEUR + ORDRE_CURSEUR)
+    List<ColisResume> findResumesApresByLivreurId(@Param("livreurId") Long livreurId,
+                                                  @Param("date") LocalDateTime date, @Param("id") Long id,
+                                                  Limit limit);
+
+    @Query(SELECT_RESUME + "WHERE ce.id = :clientId " + ORDRE_CURSEUR)
+    List<ColisResume> findResumesPremierePageByClientExpediteurId(@Param("clientId") Long clientId, Limit limit);
+
+    @Query(SELECT_RESUME + "WHERE ce.id = :clientId AND " + APRES_CURSEUR + ORDRE_CURSEUR)
+    List<ColisResume> findResumesApresByClientExpediteurId(@Param("clientId") Long clientId,
+                                                           @Param("date") LocalDateTime date, @Param("id") Long id,
+                                                           Limit limit);
+
+    // ========================================
+    // TRANSITIONS DE STATUT (voir ColisTransitionRepository)
+    // ========================================
+
+    @Query("SELECT c.statut FROM Colis c WHERE c.id = :id")
+    Optional<StatutColis> findStatutById(@Param("id") Long id);
+
+    // ========================================
+    // EXPORT (parcours en flux, curseur JDBC en avant seulement)
+    // ========================================
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query(SELECT_RESUME + "ORDER BY c.id")
+    Stream<ColisResume> streamAllResumes();
+
     @Query("SELECT c FROM Colis c WHERE c.priorite IN ('URGENTE', 'TRES_URGENTE') AND c.livreur IS NULL")
     List<Colis> findColisPrioritairesNonAssignes();
 
-    @Query("SELECT SUM(c.poidsTotal) FROM Colis c WHERE c.livreur = :livreur")
+    // Colis non livrés uniquement ; la valeur courante est tenue dans livreur.charge_poids
+    @Query("SELECT SUM(c.poidsTotal) FROM Colis c WHERE c.livreur = :livreur " +
+            "AND c.statut <> org.example.smartlogi.enums.StatutColis.LIVRE")
     BigDecimal calculerPoidsTotalParLivreur(@Param("livreur") Livreur livreur);
 
     @Query("SELECT SUM(c.poidsTotal) FROM Colis c WHERE c.zone = :zone")
     BigDecimal calculerPoidsTotalParZone(@Param("zone") Zone zone);
 
+    @Query("SELECT new org.example.smartlogi.dto.DashboardCellule(c.statut, z.id, z.nom, c.priorite, " +
+            "COUNT(c), SUM(c.poidsTotal)) FROM Colis c LEFT JOIN c.zone z " +
+            "GROUP BY c.statut, z.id, z.nom, c.priorite")
+    List<DashboardCellule> agregerParStatutZonePriorite();
+
     Long countByStatut(StatutColis statut);
 
     Long countByZone(Zone zone);
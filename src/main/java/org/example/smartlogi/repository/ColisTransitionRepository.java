@@ -0,0 +1,167 @@
+package org.example.smartlogi.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.example.smartlogi.config.DatabasePlatform;
+import org.example.smartlogi.enums.StatutColis;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Transitions de statut d'un colis : un UPDATE conditionné par les statuts prédécesseurs
+ * (et la version attendue si fournie) qui rend l'état de la ligne avant modification.
+ * Sous PostgreSQL c'est une seule instruction (UPDATE … FROM (SELECT … FOR UPDATE) … RETURNING) ;
+ * ailleurs (H2) la ligne est d'abord lue et verrouillée, puis mise à jour.
+ * Deux transitions valides concurrentes s'enchaînent donc sans échec, chacune connaissant
+ * le statut exact qu'elle a remplacé (utile aux compteurs du tableau de bord).
+ */
+@Component
+@RequiredArgsConstructor
+public class ColisTransitionRepository {
+
+    private static final String TRANSITION_POSTGRES = "UPDATE colis c SET statut = ?, version = c.version + 1, " +
+            "livreur_id = COALESCE(?, c.livreur_id), " +
+            "date_livraison_effective = COALESCE(?, c.date_livraison_effective) " +
+            "FROM (SELECT id, statut, livreur_id FROM colis WHERE id = ? FOR UPDATE) avant " +
+            "WHERE c.id = avant.id AND c.statut IN (%s)%s " +
+            "RETURNING avant.statut, avant.livreur_id, c.poids_total";
+
+    private static final String VERROU = "SELECT statut, livreur_id, poids_total, version FROM colis " +
+            "WHERE id = ? FOR UPDATE";
+
+    private static final String TRANSITION = "UPDATE colis SET statut = ?, version = version + 1, " +
+            "livreur_id = COALESCE(?, livreur_id), " +
+            "date_livraison_effective = COALESCE(?, date_livraison_effective) WHERE id = ?";
+
+    private static final String ASSIGNATION_LOT_POSTGRES = "UPDATE colis c SET livreur_id = a.livreur_id, " +
+            "statut = 'EN_TRANSIT', version = c.version + 1 " +
+            "FROM (VALUES %s) AS a(id, livreur_id), " +
+            "(SELECT id, statut FROM colis WHERE id IN (%s) AND livreur_id IS NULL AND statut IN (%s) " +
+            "ORDER BY id FOR UPDATE) avant " +
+            "WHERE c.id = a.id AND c.id = avant.id RETURNING c.id, avant.statut";
+
+    private static final String VERROU_LOT = "SELECT id, statut FROM colis WHERE id IN (%s) " +
+            "AND livreur_id IS NULL AND statut IN (%s) ORDER BY id FOR UPDATE";
+
+    private static final String ASSIGNATION = "UPDATE colis SET livreur_id = ?, statut = 'EN_TRANSIT', " +
+            "version = version + 1 WHERE id = ?";
+
+    private static final RowMapper<EtatPrecedent> ETAT = (rs, i) -> new EtatPrecedent(
+            StatutColis.valueOf(rs.getString("statut")),
+            rs.getObject("livreur_id", Long.class),
+            rs.getBigDecimal("poids_total"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabasePlatform databasePlatform;
+
+    /**
+     * Passe le colis au statut cible (date de livraison effective renseignée pour LIVRE).
+     * Vide si le colis n'existe pas, n'est pas dans un statut prédécesseur ou a changé de version.
+     */
+    public Optional<EtatPrecedent> changerStatut(Long id, StatutColis statut, Collection<StatutColis> predecesseurs,
+                                                 Long version) {
+        LocalDateTime dateLivraison = statut == StatutColis.LIVRE ? LocalDateTime.now() : null;
+        return appliquer(id, statut, null, dateLivraison, predecesseurs, version);
+    }
+
+    /**
+     * Assigne le livreur et passe le colis EN_TRANSIT ; l'état rendu porte l'ancien livreur.
+     */
+    public Optional<EtatPrecedent> assignerLivreur(Long id, Long livreurId, Collection<StatutColis> predecesseurs,
+                                                   Long version) {
+        return appliquer(id, StatutColis.EN_TRANSIT, livreurId, null, predecesseurs, version);
+    }
+
+    /**
+     * Assignation d'un lot (dispatch) : seuls les colis encore sans livreur et dans un statut
+     * prédécesseur sont pris, verrouillés dans l'ordre des ids. Rend, pour chaque colis assigné,
+     * le statut qu'il avait au moment de l'UPDATE.
+     */
+    public Map<Long, StatutColis> assignerLot(Map<Long, Long> livreurParColis,
+                                              Collection<StatutColis> predecesseurs) {
+        Map<Long, StatutColis> anciens = new HashMap<>();
+        if (livreurParColis.isEmpty() || predecesseurs.isEmpty()) {
+            return anciens;
+        }
+        List<Long> ids = livreurParColis.keySet().stream().sorted().toList();
+        String marqueursIds = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        String marqueursStatuts = String.join(", ", Collections.nCopies(predecesseurs.size(), "?"));
+        List<Object> filtre = new ArrayList<>(ids);
+        predecesseurs.forEach(p -> filtre.add(p.name()));
+
+        if (databasePlatform.isPostgres()) {
+            List<Object> parametres = new ArrayList<>();
+            ids.forEach(id -> {
+                parametres.add(id);
+                parametres.add(livreurParColis.get(id));
+            });
+            parametres.addAll(filtre);
+            String sql = ASSIGNATION_LOT_POSTGRES.formatted(
+                    String.join(", ", Collections.nCopies(ids.size(), "(?, ?)")), marqueursIds, marqueursStatuts);
+            jdbcTemplate.query(sql, rs -> {
+                anciens.put(rs.getLong("id"), StatutColis.valueOf(rs.getString("statut")));
+            }, parametres.toArray());
+            return anciens;
+        }
+
+        jdbcTemplate.query(VERROU_LOT.formatted(marqueursIds, marqueursStatuts), rs -> {
+            anciens.put(rs.getLong("id"), StatutColis.valueOf(rs.getString("statut")));
+        }, filtre.toArray());
+        if (!anciens.isEmpty()) {
+            jdbcTemplate.batchUpdate(ASSIGNATION, anciens.keySet().stream()
+                    .map(id -> new Object[]{livreurParColis.get(id), id})
+                    .toList());
+        }
+        return anciens;
+    }
+
+    private Optional<EtatPrecedent> appliquer(Long id, StatutColis statut, Long livreurId, LocalDateTime dateLivraison,
+                                              Collection<StatutColis> predecesseurs, Long version) {
+        if (predecesseurs.isEmpty()) {
+            return Optional.empty();
+        }
+        Timestamp date = dateLivraison != null ? Timestamp.valueOf(dateLivraison) : null;
+
+        if (databasePlatform.isPostgres()) {
+            String sql = TRANSITION_POSTGRES.formatted(
+                    String.join(", ", Collections.nCopies(predecesseurs.size(), "?")),
+                    version != null ? " AND c.version = ?" : "");
+            List<Object> parametres = new ArrayList<>(List.of(statut.name()));
+            parametres.add(livreurId);
+            parametres.add(date);
+            parametres.add(id);
+            predecesseurs.forEach(p -> parametres.add(p.name()));
+            if (version != null) {
+                parametres.add(version);
+            }
+            return jdbcTemplate.query(sql, ETAT, parametres.toArray()).stream().findFirst();
+        }
+
+        Optional<EtatPrecedent> avant = jdbcTemplate.query(VERROU, rs ->
+                rs.next() && (version == null || version == rs.getLong("version"))
+                        ? Optional.of(ETAT.mapRow(rs, 0))
+                        : Optional.<EtatPrecedent>empty(), id);
+        if (avant == null || avant.isEmpty() || !predecesseurs.contains(avant.get().statut())) {
+            return Optional.empty();
+        }
+        jdbcTemplate.update(TRANSITION, statut.name(), livreurId, date, id);
+        return avant;
+    }
+
+    /**
+     * État du colis juste avant la transition.
+     */
+    public record EtatPrecedent(StatutColis statut, Long livreurId, BigDecimal poidsTotal) {
+    }
+}
@@ -1,6 +1,7 @@
 package org.example.smartlogi.repository;
 
 import org.example.smartlogi.entity.Destinataire;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -17,4 +18,7 @@ public interface DestinataireRepository extends JpaRepository<Destinataire, Long
     List<Destinataire> findByNomContainingIgnoreCase(String nom);
 
     List<Destinataire> findByAdresseContainingIgnoreCase(String ville);
-}
\ No newline at end of file
+
+    // Pagination par clé sur l'id
+    List<Destinataire> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+}
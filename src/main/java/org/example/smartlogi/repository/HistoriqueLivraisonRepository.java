@@ -3,6 +3,7 @@ package org.example.smartlogi.repository;
 import org.example.smartlogi.entity.Colis;
 import org.example.smartlogi.entity.HistoriqueLivraison;
 import org.example.smartlogi.enums.StatutColis;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -18,6 +19,8 @@ public interface HistoriqueLivraisonRepository extends JpaRepository<HistoriqueL
 
     List<HistoriqueLivraison> findByColisOrderByDateChangementDesc(Colis colis);
 
+    List<HistoriqueLivraison> findByColisIdOrderByDateChangementAscIdAsc(Long colisId);
+
     List<HistoriqueLivraison> findByColisAndStatut(Colis colis, StatutColis statut);
 
     List<HistoriqueLivraison> findByStatut(StatutColis statut);
@@ -29,5 +32,23 @@ public interface HistoriqueLivraisonRepository extends JpaRepository<HistoriqueL
     @Query("SELECT h FROM HistoriqueLivraison h WHERE h.colis = :colis ORDER BY h.dateChangement DESC")
     List<HistoriqueLivraison> findDernierChangement(@Param("colis") Colis colis);
 
+    // Pagination par clé : du plus récent au plus ancien sur (date_changement, id)
+    @Query("SELECT h FROM HistoriqueLivraison h ORDER BY h.dateChangement DESC, h.id DESC")
+    List<HistoriqueLivraison> findPremierePage(Limit limit);
+
+    @Query("SELECT h FROM HistoriqueLivraison h WHERE (h.dateChangement, h.id) < (:date, :id) " +
+            "ORDER BY h.dateChangement DESC, h.id DESC")
+    List<HistoriqueLivraison> findApres(@Param("date") LocalDateTime date, @Param("id") Long id, Limit limit);
+
+    @Query("SELECT h FROM HistoriqueLivraison h WHERE h.colis.id = :colisId " +
+            "ORDER BY h.dateChangement DESC, h.id DESC")
+    List<HistoriqueLivraison> findPremierePageByColisId(@Param("colisId") Long colisId, Limit limit);
+
+    @Query("SELECT h FROM HistoriqueLivraison h WHERE h.colis.id = :colisId " +
+            "AND (h.dateChangement, h.id) < (:date, :id) ORDER BY h.dateChangement DESC, h.id DESC")
+    List<HistoriqueLivraison> findApresByColisId(@Param("colisId") Long colisId,
+                                                 @Param("date") LocalDateTime date, @Param("id") Long id,
+                                                 Limit limit);
+
     void deleteByColis(Colis colis);
 }
\ No newline at end of file
@@ -2,11 +2,14 @@ package org.example.smartlogi.repository;
 
 import org.example.smartlogi.entity.Livreur;
 import org.example.smartlogi.entity.Zone;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,16 +18,27 @@ public interface LivreurRepository extends JpaRepository<Livreur, Long> {
 
     Optional<Livreur> findByTelephone(String telephone);
 
+    @Query("SELECT l.id FROM Livreur l WHERE l.telephone = :telephone")
+    Optional<Long> findIdByTelephone(@Param("telephone") String telephone);
+
     List<Livreur> findByZoneAssignee(Zone zone);
 
     List<Livreur> findByActif(Boolean actif);
 
     List<Livreur> findByZoneAssigneeAndActif(Zone zone, Boolean actif);
 
+    @Modifying
+    @Query("UPDATE Livreur l SET l.chargeColis = l.chargeColis + :colis, " +
+            "l.chargePoids = l.chargePoids + :poids WHERE l.id = :id")
+    int ajusterCharge(@Param("id") Long id, @Param("colis") int colis, @Param("poids") BigDecimal poids);
+
     List<Livreur> findByNomContainingIgnoreCase(String nom);
 
     List<Livreur> findByVehicule(String vehicule);
 
     @Query("SELECT COUNT(l) FROM Livreur l WHERE l.zoneAssignee = :zone AND l.actif = true")
     Long countLivreursActifsByZone(@Param("zone") Zone zone);
-}
\ No newline at end of file
+
+    // Pagination par clé sur l'id
+    List<Livreur> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+}
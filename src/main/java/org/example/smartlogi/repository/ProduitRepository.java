@@ -1,6 +1,7 @@
 package org.example.smartlogi.repository;
 
 import org.example.smartlogi.entity.Produit;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -14,4 +15,7 @@ public interface ProduitRepository extends JpaRepository<Produit, Long> {
     List<Produit> findByNomContainingIgnoreCase(String nom);
 
     List<Produit> findByCategorieOrderByPrixAsc(String categorie);
-}
\ No newline at end of file
+
+    // Pagination par clé sur l'id
+    List<Produit> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+}
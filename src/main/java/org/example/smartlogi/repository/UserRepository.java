@@ -2,8 +2,11 @@ package org.example.smartlogi.repository;
 
 import org.example.smartlogi.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +14,17 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+
+    @Query("SELECT l.id FROM User u JOIN u.livreur l WHERE u.username = :username")
+    Optional<Long> findLivreurIdByUsername(@Param("username") String username);
+
+    @Query("SELECT c.id FROM User u JOIN u.clientExpediteur c WHERE u.username = :username")
+    Optional<Long> findClientExpediteurIdByUsername(@Param("username") String username);
+
+    @Query("SELECT r.name FROM User u JOIN u.role r WHERE u.username = :username AND u.enabled = true")
+    Optional<String> findRoleActifByUsername(@Param("username") String username);
+
+    @Query("SELECT p.name FROM User u JOIN u.role r JOIN r.permissions p " +
+            "WHERE u.username = :username AND u.enabled = true")
+    List<String> findPermissionsActivesByUsername(@Param("username") String username);
 }
\ No newline at end of file
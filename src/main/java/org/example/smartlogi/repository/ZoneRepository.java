@@ -1,7 +1,11 @@
 package org.example.smartlogi.repository;
 
+import jakarta.persistence.QueryHint;
 import org.example.smartlogi.entity.Zone;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,11 +14,20 @@ import java.util.Optional;
 @Repository
 public interface ZoneRepository extends JpaRepository<Zone, Long> {
 
+    String REGION_REQUETES = "zone-requetes";
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = REGION_REQUETES)})
     Optional<Zone> findByNom(String nom);
 
     List<Zone> findByVille(String ville);
 
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = REGION_REQUETES)})
     Optional<Zone> findByCodePostal(String codePostal);
 
     boolean existsByNom(String nom);
-}
\ No newline at end of file
+
+    // Pagination par clé sur l'id
+    List<Zone> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+}
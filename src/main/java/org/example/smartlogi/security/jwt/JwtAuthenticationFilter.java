@@ -1,27 +1,47 @@
 package org.example.smartlogi.security.jwt;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.example.smartlogi.security.service.CustomUserDetailsService;
+import lombok.extern.slf4j.Slf4j;
+import org.example.smartlogi.security.service.JwtUserStatusCache;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
+/**
+ * Authentification sans état : le token est vérifié une seule fois (signature + expiration)
+ * et l'Authentication est construite directement depuis ses claims, sans charger l'utilisateur.
+ * La vérification en base (compte actif, rôle et permissions inchangés) est optionnelle et mise
+ * en cache ; sans elle, un compte supprimé ou une permission retirée reste effectif jusqu'à
+ * l'expiration du token (jwt.expiration).
+ */
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final CustomUserDetailsService userDetailsService;
+    private final JwtUserStatusCache userStatusCache;
+
+    // Les endpoints publics n'ont pas besoin de charger l'utilisateur
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return request.getRequestURI().startsWith(request.getContextPath() + "/api/public/");
+    }
 
     @Override
     protected void doFilterInternal(
@@ -31,30 +51,37 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     ) throws ServletException, IOException {
 
         final String authHeader = request.getHeader("Authorization");
-        final String jwt;
-        final String username;
 
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")
+                || SecurityContextHolder.getContext().getAuthentication() != null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        final Claims claims;
+        try {
+            claims = jwtUtil.parse(authHeader.substring(7));
+        } catch (JwtException | IllegalArgumentException e) {
+            // Token invalide ou expiré : la requête continue sans authentification
+            log.debug("Token JWT rejeté : {}", e.getMessage());
             filterChain.doFilter(request, response);
             return;
         }
 
-        jwt = authHeader.substring(7);
-        username = jwtUtil.extractUsername(jwt);
-
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-            if (jwtUtil.validateToken(jwt, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities()
-                );
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
+        String username = claims.getSubject();
+        String role = claims.get(JwtUtil.CLAIM_ROLE, String.class);
+        String empreinte = claims.get(JwtUtil.CLAIM_EMPREINTE, String.class);
+        if (username != null && userStatusCache.estAutorise(username, role, empreinte)) {
+            List<GrantedAuthority> authorities = jwtUtil.extractAuthorities(claims);
+            UserDetails principal = new User(username, "", authorities);
+            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                    principal,
+                    null,
+                    authorities
+            );
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
         }
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+}
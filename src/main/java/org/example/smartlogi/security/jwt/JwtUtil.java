@@ -1,18 +1,26 @@
 package org.example.smartlogi.security.jwt;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -21,12 +29,20 @@ import java.util.stream.Collectors;
 @Component
 public class JwtUtil {
 
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_PERMISSIONS = "permissions";
+    public static final String CLAIM_EMPREINTE = "empreinte";
+
     @Value("${jwt.secret}")
     private String secret;
 
     @Value("${jwt.expiration}")
     private Long expiration;
 
+    // Clé HMAC et parser construits une seule fois (le décodage Base64 du secret est coûteux)
+    private volatile Key signKey;
+    private volatile JwtParser parser;
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -36,25 +52,45 @@ public class JwtUtil {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = parse(token);
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .setSigningKey(getSignKey())
-                .build()
+    /**
+     * Vérifie la signature et l'expiration du token en un seul parsing.
+     *
+     * @throws io.jsonwebtoken.JwtException token invalide ou expiré
+     */
+    public Claims parse(String token) {
+        return getParser()
                 .parseClaimsJws(token)
                 .getBody();
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /**
+     * Authorities portées par le token : le rôle en premier, puis les permissions.
+     */
+    public List<GrantedAuthority> extractAuthorities(Claims claims) {
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        String role = claims.get(CLAIM_ROLE, String.class);
+        if (role != null) {
+            authorities.add(new SimpleGrantedAuthority(role));
+        }
+        Object permissions = claims.get(CLAIM_PERMISSIONS);
+        if (permissions instanceof List<?> liste) {
+            for (Object permission : liste) {
+                if (permission != null) {
+                    authorities.add(new SimpleGrantedAuthority(permission.toString()));
+                }
+            }
+        }
+        return authorities;
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
+        // parse() rejette déjà un token expiré
         final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return username.equals(userDetails.getUsername());
     }
 
     public String generateToken(UserDetails userDetails) {
@@ -77,12 +113,30 @@ public class JwtUtil {
                 .filter(auth -> !auth.startsWith("ROLE_"))
                 .collect(Collectors.toList());
 
-        claims.put("role", role);
-        claims.put("permissions", permissions);
+        claims.put(CLAIM_ROLE, role);
+        claims.put(CLAIM_PERMISSIONS, permissions);
+        claims.put(CLAIM_EMPREINTE, empreinte(role, permissions));
 
         return createToken(claims, userDetails.getUsername());
     }
 
+    /**
+     * Empreinte du rôle et de ses permissions à l'émission du token : comparée à celle
+     * recalculée en base, elle révèle une permission retirée depuis (JwtUserStatusCache).
+     * Indépendante de l'ordre des permissions, identique sur tous les nœuds.
+     */
+    public static String empreinte(String role, Collection<String> permissions) {
+        StringBuilder source = new StringBuilder(role);
+        permissions.stream().sorted().forEach(p -> source.append('\n').append(p));
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(source.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+
     private String createToken(Map<String, Object> claims, String subject) {
         return Jwts.builder()
                 .setClaims(claims)
@@ -93,8 +147,24 @@ public class JwtUtil {
                 .compact();
     }
 
+    private JwtParser getParser() {
+        JwtParser courant = parser;
+        if (courant == null) {
+            courant = Jwts.parser()
+                    .setSigningKey(getSignKey())
+                    .build();
+            parser = courant;
+        }
+        return courant;
+    }
+
     private Key getSignKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secret);
-        return Keys.hmacShaKeyFor(keyBytes);
+        Key courante = signKey;
+        if (courante == null) {
+            byte[] keyBytes = Decoders.BASE64.decode(secret);
+            courante = Keys.hmacShaKeyFor(keyBytes);
+            signKey = courante;
+        }
+        return courante;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,163 @@
+package org.example.smartlogi.security.service;
+
+import org.example.smartlogi.entity.Permission;
+import org.example.smartlogi.entity.Role;
+import org.example.smartlogi.entity.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache des principals chargés en base : utilisateurs (LRU borné par username, avec TTL) et
+ * authorities précalculées une fois par rôle, partagées par tous les utilisateurs du rôle.
+ * Toute modification de rôle, de permission ou d'utilisateur incrémente une version et retire
+ * les entrées concernées au commit ; un chargement commencé avant une invalidation n'est pas
+ * mis en cache, pour ne pas y réinstaller une valeur périmée.
+ */
+@Component
+public class AuthorityCache {
+
+    private final JwtUserStatusCache jwtUserStatusCache;
+    private final long ttlMillis;
+    private final AtomicLong version = new AtomicLong();
+    private final Map<String, Entree<CachedUserDetails>> utilisateurs;
+    private final ConcurrentHashMap<Long, Entree<List<GrantedAuthority>>> parRole = new ConcurrentHashMap<>();
+
+    public AuthorityCache(JwtUserStatusCache jwtUserStatusCache,
+                          @Value("${security.user-cache.taille-max:10000}") int tailleMax,
+                          @Value("${security.user-cache.ttl-secondes:300}") long ttlSecondes) {
+        this.jwtUserStatusCache = jwtUserStatusCache;
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSecondes);
+        this.utilisateurs = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entree<CachedUserDetails>> eldest) {
+                return size() > tailleMax;
+            }
+        };
+    }
+
+    /**
+     * Version courante, à lire avant un chargement en base et à repasser à memoriser().
+     */
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * @return l'utilisateur en cache, avec les authorities courantes de son rôle, ou null
+     */
+    public CachedUserDetails utilisateur(String username) {
+        Entree<CachedUserDetails> entree;
+        synchronized (utilisateurs) {
+            entree = utilisateurs.get(username);
+        }
+        if (entree == null || entree.expireA() <= System.currentTimeMillis()) {
+            return null;
+        }
+        CachedUserDetails user = entree.valeur();
+        Entree<List<GrantedAuthority>> autorites = parRole.get(user.getRoleId());
+        if (autorites == null || autorites.expireA() <= System.currentTimeMillis()) {
+            // Rôle invalidé depuis : l'utilisateur sera rechargé avec ses nouvelles permissions
+            return null;
+        }
+        return autorites.valeur() == user.getAuthorities() ? user : user.avecAuthorities(autorites.valeur());
+    }
+
+    /**
+     * Construit la copie partagée de l'utilisateur chargé et la met en cache si aucune
+     * invalidation n'a eu lieu depuis versionLue.
+     */
+    public CachedUserDetails memoriser(User user, long versionLue) {
+        long expireA = System.currentTimeMillis() + ttlMillis;
+        Role role = user.getRole();
+        List<GrantedAuthority> autorites = autoritesDuRole(role, versionLue, expireA);
+        CachedUserDetails copie = new CachedUserDetails(user.getId(), user.getUsername(), user.getPassword(),
+                user.isEnabled(), role.getId(), autorites);
+        synchronized (utilisateurs) {
+            if (version.get() == versionLue) {
+                utilisateurs.put(user.getUsername(), new Entree<>(copie, expireA));
+            }
+        }
+        return copie;
+    }
+
+    private List<GrantedAuthority> autoritesDuRole(Role role, long versionLue, long expireA) {
+        Entree<List<GrantedAuthority>> existante = parRole.get(role.getId());
+        if (existante != null && existante.expireA() > System.currentTimeMillis()) {
+            return existante.valeur();
+        }
+        List<GrantedAuthority> autorites = new ArrayList<>(role.getPermissions().size() + 1);
+        autorites.add(new SimpleGrantedAuthority(role.getName()));
+        role.getPermissions().stream()
+                .map(Permission::getName)
+                .sorted(Comparator.naturalOrder())
+                .forEach(nom -> autorites.add(new SimpleGrantedAuthority(nom)));
+        List<GrantedAuthority> partagees = List.copyOf(autorites);
+        synchronized (utilisateurs) {
+            if (version.get() == versionLue) {
+                parRole.put(role.getId(), new Entree<>(partagees, expireA));
+            }
+        }
+        return partagees;
+    }
+
+    public void invaliderUtilisateur(String username) {
+        apresCommit(() -> {
+            synchronized (utilisateurs) {
+                version.incrementAndGet();
+                utilisateurs.remove(username);
+            }
+            jwtUserStatusCache.invalider(username);
+        });
+    }
+
+    public void invaliderRole(Long roleId) {
+        apresCommit(() -> {
+            synchronized (utilisateurs) {
+                version.incrementAndGet();
+                parRole.remove(roleId);
+            }
+            jwtUserStatusCache.invaliderTout();
+        });
+    }
+
+    // Une permission peut appartenir à plusieurs rôles : tous sont recalculés
+    public void invaliderRoles() {
+        apresCommit(() -> {
+            synchronized (utilisateurs) {
+                version.incrementAndGet();
+                parRole.clear();
+            }
+            jwtUserStatusCache.invaliderTout();
+        });
+    }
+
+    // Invalidation au commit : avant, une lecture concurrente rechargerait l'ancienne valeur
+    private void apresCommit(Runnable invalidation) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidation.run();
+                }
+            });
+        } else {
+            invalidation.run();
+        }
+    }
+
+    private record Entree<T>(T valeur, long expireA) {
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.smartlogi.security.service;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+
+/**
+ * Copie immuable d'un utilisateur, partagée entre les requêtes par AuthorityCache.
+ * Volontairement pas CredentialsContainer : le ProviderManager effacerait sinon le mot de passe
+ * de l'instance en cache après chaque login. Les authorities (rôle en premier) sont celles
+ * précalculées pour le rôle et partagées par tous ses utilisateurs.
+ */
+public final class CachedUserDetails implements UserDetails {
+
+    private final Long id;
+    private final String username;
+    private final String password;
+    private final boolean enabled;
+    private final Long roleId;
+    private final List<GrantedAuthority> authorities;
+
+    CachedUserDetails(Long id, String username, String password, boolean enabled, Long roleId,
+                      List<GrantedAuthority> authorities) {
+        this.id = id;
+        this.username = username;
+        this.password = password;
+        this.enabled = enabled;
+        this.roleId = roleId;
+        this.authorities = authorities;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getRoleId() {
+        return roleId;
+    }
+
+    CachedUserDetails avecAuthorities(List<GrantedAuthority> autres) {
+        return new CachedUserDetails(id, username, password, enabled, roleId, autres);
+    }
+
+    CachedUserDetails avecMotDePasse(String nouveau) {
+        return new CachedUserDetails(id, username, nouveau, enabled, roleId, authorities);
+    }
+
+    @Override
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public String toString() {
+        return "CachedUserDetails[username=" + username + ", authorities=" + authorities + "]";
+    }
+}
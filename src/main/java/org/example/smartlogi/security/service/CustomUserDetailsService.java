@@ -1,21 +1,45 @@
 package org.example.smartlogi.security.service;
 
 import lombok.RequiredArgsConstructor;
+import org.example.smartlogi.entity.User;
 import org.example.smartlogi.repository.UserRepository;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final AuthorityCache authorityCache;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return userRepository.findByUsername(username)
+        CachedUserDetails cached = authorityCache.utilisateur(username);
+        if (cached != null) {
+            return cached;
+        }
+        // Version lue avant la base : une invalidation concurrente empêche la mise en cache
+        long version = authorityCache.version();
+        User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        return authorityCache.memoriser(user, version);
     }
-}
\ No newline at end of file
+
+    /**
+     * Rehachage transparent au login (coût BCrypt relevé) : appelé par le DaoAuthenticationProvider.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByUsername(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + userDetails.getUsername()));
+        user.setPassword(newPassword);
+        authorityCache.invaliderUtilisateur(user.getUsername());
+        return userDetails instanceof CachedUserDetails cached ? cached.avecMotDePasse(newPassword) : user;
+    }
+}
@@ -0,0 +1,109 @@
+package org.example.smartlogi.security.service;
+
+import org.example.smartlogi.repository.UserRepository;
+import org.example.smartlogi.security.jwt.JwtUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Vérification optionnelle en base d'un utilisateur authentifié par JWT : le compte doit
+ * exister, être actif et avoir encore le rôle et les permissions portés par le token
+ * (comparés via leur empreinte, voir JwtUtil.empreinte). Activée, le résultat est gardé dans
+ * un LRU borné avec TTL ; une modification d'utilisateur, de rôle ou de permission vide les
+ * entrées concernées au commit sur le nœud qui l'a faite, les autres nœuds suivent au plus
+ * tard après le TTL.
+ * Désactivée par défaut (le token signé suffit) : un compte supprimé ou désactivé, un rôle ou
+ * une permission retirés restent alors effectifs jusqu'à l'expiration du token (jwt.expiration).
+ */
+@Component
+public class JwtUserStatusCache {
+
+    private final UserRepository userRepository;
+    private final boolean active;
+    private final long ttlMillis;
+    private final Map<String, Statut> cache;
+    // Incrémentée à chaque invalidation : un chargement commencé avant n'est pas mis en cache
+    private final AtomicLong generation = new AtomicLong();
+
+    public JwtUserStatusCache(UserRepository userRepository,
+                              @Value("${jwt.verification-base.enabled:false}") boolean active,
+                              @Value("${jwt.verification-base.cache-taille-max:10000}") int tailleMax,
+                              @Value("${jwt.verification-base.cache-ttl-secondes:60}") long ttlSecondes) {
+        this.userRepository = userRepository;
+        this.active = active;
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSecondes);
+        this.cache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Statut> eldest) {
+                return size() > tailleMax;
+            }
+        };
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * @param role      rôle porté par le token
+     * @param empreinte empreinte du rôle et des permissions portée par le token
+     * @return true si la vérification est désactivée ou si le compte est actif avec ce rôle
+     * et ces permissions
+     */
+    public boolean estAutorise(String username, String role, String empreinte) {
+        if (!active) {
+            return true;
+        }
+        long maintenant = System.currentTimeMillis();
+        Statut statut;
+        synchronized (cache) {
+            statut = cache.get(username);
+        }
+        if (statut == null || statut.expireA() <= maintenant) {
+            long generationLue = generation.get();
+            statut = charger(username, maintenant + ttlMillis);
+            synchronized (cache) {
+                if (generation.get() == generationLue) {
+                    cache.put(username, statut);
+                }
+            }
+        }
+        return statut.role() != null && statut.role().equals(role)
+                && statut.empreinte().equals(empreinte);
+    }
+
+    public void invalider(String username) {
+        synchronized (cache) {
+            generation.incrementAndGet();
+            cache.remove(username);
+        }
+    }
+
+    // Rôle ou permission modifiés : toutes les empreintes sont à recalculer
+    public void invaliderTout() {
+        synchronized (cache) {
+            generation.incrementAndGet();
+            cache.clear();
+        }
+    }
+
+    private Statut charger(String username, long expireA) {
+        // Rôle vide : utilisateur inconnu ou désactivé
+        Optional<String> roleActif = userRepository.findRoleActifByUsername(username);
+        if (roleActif.isEmpty()) {
+            return new Statut(null, null, expireA);
+        }
+        List<String> permissions = userRepository.findPermissionsActivesByUsername(username);
+        return new Statut(roleActif.get(), JwtUtil.empreinte(roleActif.get(), permissions), expireA);
+    }
+
+    private record Statut(String role, String empreinte, long expireA) {
+    }
+}
@@ -0,0 +1,208 @@
+package org.example.smartlogi.security.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.smartlogi.dto.PasswordHashingStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Hachage BCrypt hors des threads Tomcat : les logins s'exécutent sur un pool borné (un thread
+ * par cœur réservé) avec une file de taille fixe ; file pleine, la tâche est refusée et le
+ * contrôleur répond 503 avec Retry-After. Le coût BCrypt est soit fixé, soit calibré au
+ * démarrage sur une latence cible ; un mot de passe haché avec un coût inférieur est rehaché
+ * au login suivant (upgradeEncoding, via UserDetailsPasswordService).
+ */
+@Component
+@Slf4j
+public class PasswordHashingService {
+
+    private static final String MOT_DE_PASSE_CALIBRATION = "calibration-bcrypt";
+    private static final int COUT_MIN_BCRYPT = 4;
+    private static final int COUT_MAX_BCRYPT = 31;
+
+    private final int cout;
+    private final int capaciteFile;
+    private final ThreadPoolExecutor executor;
+    private final PasswordEncoder encoder;
+
+    private final LongAdder hachages = new LongAdder();
+    private final LongAdder dureeHachageNanos = new LongAdder();
+    private final AtomicLong dureeHachageMaxNanos = new AtomicLong();
+    private final LongAdder taches = new LongAdder();
+    private final LongAdder attenteNanos = new LongAdder();
+    private final AtomicLong attenteMaxNanos = new AtomicLong();
+    private final LongAdder rejets = new LongAdder();
+
+    /**
+     * @param coutFixe coût BCrypt imposé ; 0 pour calibrer sur latenceCibleMs entre coutMin et coutMax
+     * @param threads  taille du pool ; 0 pour la moitié des cœurs
+     */
+    public PasswordHashingService(@Value("${security.password.cout:0}") int coutFixe,
+                                  @Value("${security.password.latence-cible-ms:250}") long latenceCibleMs,
+                                  @Value("${security.password.cout-min:10}") int coutMin,
+                                  @Value("${security.password.cout-max:14}") int coutMax,
+                                  @Value("${security.password.hachage.threads:0}") int threads,
+                                  @Value("${security.password.hachage.file-max:200}") int capaciteFile) {
+        if (coutMin < COUT_MIN_BCRYPT || coutMax > COUT_MAX_BCRYPT || coutMin > coutMax) {
+            throw new IllegalArgumentException("Bornes du coût BCrypt invalides : " + coutMin + ".." + coutMax);
+        }
+        this.cout = coutFixe > 0 ? coutFixe : calibrer(latenceCibleMs, coutMin, coutMax);
+        this.encoder = new EncoderMesure(new BCryptPasswordEncoder(cout));
+        this.capaciteFile = capaciteFile;
+
+        int taillePool = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger numero = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(taillePool, taillePool, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capaciteFile), r -> {
+            Thread thread = new Thread(r, "hachage-mdp-" + numero.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        log.info("Hachage des mots de passe : BCrypt coût {}, {} threads, file de {}", cout, taillePool,
+                capaciteFile);
+    }
+
+    /**
+     * Encodeur BCrypt au coût retenu, instrumenté (latence de chaque hachage).
+     */
+    public PasswordEncoder encoder() {
+        return encoder;
+    }
+
+    public int cout() {
+        return cout;
+    }
+
+    /**
+     * Exécute la tâche sur le pool de hachage.
+     *
+     * @throws RejectedExecutionException file pleine : l'appelant doit répondre 503
+     */
+    public <T> CompletableFuture<T> soumettre(Supplier<T> tache) {
+        long soumise = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                enregistrer(attenteNanos, attenteMaxNanos, System.nanoTime() - soumise);
+                taches.increment();
+                return tache.get();
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejets.increment();
+            throw e;
+        }
+    }
+
+    /**
+     * Délai conseillé avant de réessayer : temps estimé pour vider la file actuelle.
+     */
+    public long retryAfterSecondes() {
+        long n = hachages.sum();
+        double hachageMs = n > 0 ? dureeHachageNanos.sum() / 1e6 / n : 100;
+        double vidageMs = executor.getQueue().size() * hachageMs / executor.getMaximumPoolSize();
+        return Math.max(1, (long) Math.ceil(vidageMs / 1000));
+    }
+
+    public PasswordHashingStats stats() {
+        long n = hachages.sum();
+        long t = taches.sum();
+        return PasswordHashingStats.builder()
+                .coutBcrypt(cout)
+                .threads(executor.getMaximumPoolSize())
+                .actifs(executor.getActiveCount())
+                .profondeurFile(executor.getQueue().size())
+                .capaciteFile(capaciteFile)
+                .hachages(n)
+                .latenceHachageMoyenneMs(n > 0 ? dureeHachageNanos.sum() / 1e6 / n : 0)
+                .latenceHachageMaxMs(dureeHachageMaxNanos.get() / 1e6)
+                .taches(t)
+                .attenteFileMoyenneMs(t > 0 ? attenteNanos.sum() / 1e6 / t : 0)
+                .attenteFileMaxMs(attenteMaxNanos.get() / 1e6)
+                .rejets(rejets.sum())
+                .build();
+    }
+
+    @PreDestroy
+    public void arreter() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    // Coût le plus élevé dont le hachage reste sous la latence cible (chaque +1 double le temps)
+    static int calibrer(long latenceCibleMs, int coutMin, int coutMax) {
+        int retenu = coutMin;
+        for (int c = coutMin; c <= coutMax; c++) {
+            BCryptPasswordEncoder essai = new BCryptPasswordEncoder(c);
+            if (c == coutMin) {
+                essai.encode(MOT_DE_PASSE_CALIBRATION); // chauffe du JIT
+            }
+            long debut = System.nanoTime();
+            essai.encode(MOT_DE_PASSE_CALIBRATION);
+            long dureeMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - debut);
+            if (dureeMs > latenceCibleMs) {
+                break;
+            }
+            retenu = c;
+            if (dureeMs * 2 > latenceCibleMs) {
+                break; // le coût suivant dépasserait la cible
+            }
+        }
+        return retenu;
+    }
+
+    private void enregistrer(LongAdder total, AtomicLong max, long nanos) {
+        total.add(nanos);
+        max.accumulateAndGet(nanos, Math::max);
+    }
+
+    private final class EncoderMesure implements PasswordEncoder {
+
+        private final PasswordEncoder delegue;
+
+        private EncoderMesure(PasswordEncoder delegue) {
+            this.delegue = delegue;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            long debut = System.nanoTime();
+            try {
+                return delegue.encode(rawPassword);
+            } finally {
+                mesurer(debut);
+            }
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            long debut = System.nanoTime();
+            try {
+                return delegue.matches(rawPassword, encodedPassword);
+            } finally {
+                mesurer(debut);
+            }
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            return delegue.upgradeEncoding(encodedPassword);
+        }
+
+        private void mesurer(long debut) {
+            hachages.increment();
+            enregistrer(dureeHachageNanos, dureeHachageMaxNanos, System.nanoTime() - debut);
+        }
+    }
+}
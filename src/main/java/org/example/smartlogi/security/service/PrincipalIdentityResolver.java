@@ -0,0 +1,59 @@
+package org.example.smartlogi.security.service;
+
+import lombok.RequiredArgsConstructor;
+import org.example.smartlogi.repository.ClientExpediteurRepository;
+import org.example.smartlogi.repository.LivreurRepository;
+import org.example.smartlogi.repository.UserRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Résout l'identité métier (Livreur / ClientExpediteur) d'un utilisateur authentifié.
+ * Le lien explicite users.livreur_id / users.client_expediteur_id est prioritaire ;
+ * à défaut on retombe sur l'ancienne convention (username = téléphone du livreur / email du client).
+ * Le résultat est mémorisé dans les attributs de la requête HTTP courante.
+ */
+@Component
+@RequiredArgsConstructor
+public class PrincipalIdentityResolver {
+
+    private static final String ATTR_LIVREUR = PrincipalIdentityResolver.class.getName() + ".livreur.";
+    private static final String ATTR_CLIENT = PrincipalIdentityResolver.class.getName() + ".client.";
+
+    private final UserRepository userRepository;
+    private final LivreurRepository livreurRepository;
+    private final ClientExpediteurRepository clientExpediteurRepository;
+
+    public Optional<Long> resolveLivreurId(String username) {
+        return resolveOncePerRequest(ATTR_LIVREUR + username, () ->
+                userRepository.findLivreurIdByUsername(username)
+                        .or(() -> livreurRepository.findIdByTelephone(username)));
+    }
+
+    public Optional<Long> resolveClientExpediteurId(String username) {
+        return resolveOncePerRequest(ATTR_CLIENT + username, () ->
+                userRepository.findClientExpediteurIdByUsername(username)
+                        .or(() -> clientExpediteurRepository.findIdByEmail(username)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Optional<Long> resolveOncePerRequest(String key, Supplier<Optional<Long>> loader) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return loader.get();
+        }
+
+        Object cached = attributes.getAttribute(key, RequestAttributes.SCOPE_REQUEST);
+        if (cached != null) {
+            return (Optional<Long>) cached;
+        }
+
+        Optional<Long> resolved = loader.get();
+        attributes.setAttribute(key, resolved, RequestAttributes.SCOPE_REQUEST);
+        return resolved;
+    }
+}
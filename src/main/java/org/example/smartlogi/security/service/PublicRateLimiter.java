@@ -0,0 +1,62 @@
+package org.example.smartlogi.security.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Limitation de débit des endpoints publics : un seau à jetons par adresse cliente.
+ */
+@Component
+public class PublicRateLimiter {
+
+    private static final long INACTIVITE_PURGE_MILLIS = 10 * 60_000;
+
+    private final int capacite;
+    private final double jetonsParMilli;
+    private final ConcurrentHashMap<String, Seau> seaux = new ConcurrentHashMap<>();
+
+    public PublicRateLimiter(@Value("${colis.suivi-public.rate-limit.requetes-par-minute:60}") int requetesParMinute) {
+        if (requetesParMinute <= 0) {
+            throw new IllegalArgumentException("Le débit autorisé doit être positif");
+        }
+        this.capacite = requetesParMinute;
+        this.jetonsParMilli = requetesParMinute / 60_000.0;
+    }
+
+    public boolean autoriser(String client) {
+        return seaux.computeIfAbsent(client, k -> new Seau(capacite)).consommer(capacite, jetonsParMilli);
+    }
+
+    @Scheduled(fixedDelay = INACTIVITE_PURGE_MILLIS)
+    public void purger() {
+        long limite = System.currentTimeMillis() - INACTIVITE_PURGE_MILLIS;
+        seaux.values().removeIf(seau -> seau.dernierAcces() < limite);
+    }
+
+    private static final class Seau {
+        private double jetons;
+        private long dernierRemplissage = System.currentTimeMillis();
+
+        private Seau(int capacite) {
+            this.jetons = capacite;
+        }
+
+        synchronized boolean consommer(int capacite, double jetonsParMilli) {
+            long maintenant = System.currentTimeMillis();
+            jetons = Math.min(capacite, jetons + (maintenant - dernierRemplissage) * jetonsParMilli);
+            dernierRemplissage = maintenant;
+            if (jetons < 1) {
+                return false;
+            }
+            jetons--;
+            return true;
+        }
+
+        synchronized long dernierAcces() {
+            return dernierRemplissage;
+        }
+    }
+}
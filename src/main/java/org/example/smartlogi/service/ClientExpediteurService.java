@@ -2,10 +2,12 @@ package org.example.smartlogi.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.smartlogi.dto.CursorPage;
 import org.example.smartlogi.dto.ClientExpediteurDTO;
 import org.example.smartlogi.entity.ClientExpediteur;
 import org.example.smartlogi.mapper.ClientExpediteurMapper;
 import org.example.smartlogi.repository.ClientExpediteurRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -73,6 +75,19 @@ public class ClientExpediteurService {
         return entities.map(clientExpediteurMapper::toDTO);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<ClientExpediteurDTO> findAll(String cursor, Integer size, boolean withTotal) {
+        Curseur curseur = Curseur.decoder(cursor);
+        int taille = Curseur.taille(size);
+        log.info("Récupération des clients expéditeurs par curseur - Taille: {}", taille);
+
+        List<ClientExpediteur> entities = clientExpediteurRepository.findByIdGreaterThanOrderByIdAsc(
+                curseur != null ? curseur.id() : 0L, Limit.of(taille + 1));
+
+        return Curseur.page(entities, taille, entity -> Curseur.of(entity.getId()), clientExpediteurMapper::toDTO,
+                withTotal ? clientExpediteurRepository.count() : null);
+    }
+
     public ClientExpediteurDTO update(Long id, ClientExpediteurDTO dto) {
         log.info("Mise à jour du client expéditeur avec l'ID: {}", id);
 
@@ -0,0 +1,275 @@
+package org.example.smartlogi.service;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.smartlogi.dto.ColisBatchItemResult;
+import org.example.smartlogi.dto.ColisBatchResponse;
+import org.example.smartlogi.dto.CreateColisProduitRequest;
+import org.example.smartlogi.dto.CreateColisRequest;
+import org.example.smartlogi.entity.ClientExpediteur;
+import org.example.smartlogi.entity.Destinataire;
+import org.example.smartlogi.entity.Produit;
+import org.example.smartlogi.entity.Zone;
+import org.example.smartlogi.enums.PrioriteColis;
+import org.example.smartlogi.enums.StatutColis;
+import org.example.smartlogi.repository.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Création de colis en masse (imports partenaires) : les références sont résolues
+ * en quelques requêtes IN (...), les numéros de suivi sont pris dans un bloc pré-réservé
+ * et les lignes colis / colis_produit / historique_livraison
+ * sont écrites par lots JDBC dans une seule transaction.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ColisBatchService {
+
+    private static final String INSERT_COLIS = "INSERT INTO colis (numero_suivi, description, poids_total, statut, " +
+            "priorite, ville_destination, date_creation, date_livraison_prevue, client_expediteur_id, " +
+            "destinataire_id, zone_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_COLIS_PRODUIT = "INSERT INTO colis_produit (colis_id, produit_id, quantite, " +
+            "prix_unitaire, date_ajout) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String INSERT_HISTORIQUE = "INSERT INTO historique_livraison (colis_id, statut, " +
+            "date_changement, commentaire) VALUES (?, ?, ?, ?)";
+
+    private final ClientExpediteurRepository clientExpediteurRepository;
+    private final DestinataireRepository destinataireRepository;
+    private final ZoneRepository zoneRepository;
+    private final ProduitRepository produitRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Validator validator;
+    private final NumeroSuiviGenerator numeroSuiviGenerator;
+    private final ColisRetardTracker retardTracker;
+    private final DashboardService dashboardService;
+
+    @Value("${colis.batch.max-size:5000}")
+    private int maxSize;
+
+    @Value("${colis.batch.jdbc-batch-size:500}")
+    private int jdbcBatchSize;
+
+    @Transactional
+    public ColisBatchResponse createBatch(List<CreateColisRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("La liste de colis ne peut pas être vide");
+        }
+        if (requests.size() > maxSize) {
+            throw new IllegalArgumentException("Un lot ne peut pas dépasser " + maxSize + " colis");
+        }
+
+        log.info("Création d'un lot de {} colis", requests.size());
+
+        Map<Long, ClientExpediteur> clients = indexById(clientExpediteurRepository.findAllById(
+                collectIds(requests, CreateColisRequest::getClientExpediteurId)), ClientExpediteur::getId);
+        Map<Long, Destinataire> destinataires = indexById(destinataireRepository.findAllById(
+                collectIds(requests, CreateColisRequest::getDestinataireId)), Destinataire::getId);
+        Map<Long, Zone> zones = indexById(zoneRepository.findAllById(
+                collectIds(requests, CreateColisRequest::getZoneDestinationId)), Zone::getId);
+        Map<Long, Produit> produits = indexById(produitRepository.findAllById(requests.stream()
+                .filter(r -> r.getProduits() != null)
+                .flatMap(r -> r.getProduits().stream())
+                .map(CreateColisProduitRequest::getProduitId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet())), Produit::getId);
+
+        ColisBatchItemResult[] resultats = new ColisBatchItemResult[requests.size()];
+        List<LigneColis> lignes = new ArrayList<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            CreateColisRequest request = requests.get(i);
+            String erreur = valider(request, clients, destinataires, zones, produits);
+            if (erreur != null) {
+                resultats[i] = ColisBatchItemResult.builder().index(i).succes(false).erreur(erreur).build();
+            } else {
+                lignes.add(preparer(i, request, zones.get(request.getZoneDestinationId()), produits));
+            }
+        }
+
+        attribuerNumerosSuivi(lignes);
+        LocalDateTime maintenant = LocalDateTime.now();
+
+        for (int debut = 0; debut < lignes.size(); debut += jdbcBatchSize) {
+            List<LigneColis> lot = lignes.subList(debut, Math.min(debut + jdbcBatchSize, lignes.size()));
+            insererColis(lot, maintenant);
+            insererProduits(lot, maintenant);
+            insererHistorique(lot, maintenant);
+        }
+
+        for (LigneColis ligne : lignes) {
+            retardTracker.suivre(ligne.id, StatutColis.CREE, ligne.request.getDateLivraisonPrevue());
+            Zone zone = zones.get(ligne.request.getZoneDestinationId());
+            dashboardService.enregistrerCreation(zone.getId(), zone.getNom(),
+                    PrioriteColis.valueOf(ligne.request.getPriorite()), ligne.poidsTotal);
+            resultats[ligne.index] = ColisBatchItemResult.builder()
+                    .index(ligne.index)
+                    .succes(true)
+                    .colisId(ligne.id)
+                    .numeroSuivi(ligne.numeroSuivi)
+                    .build();
+        }
+
+        log.info("Lot de colis traité - {} créés, {} rejetés", lignes.size(), requests.size() - lignes.size());
+
+        return ColisBatchResponse.builder()
+                .total(requests.size())
+                .succes(lignes.size())
+                .echecs(requests.size() - lignes.size())
+                .resultats(Arrays.asList(resultats))
+                .build();
+    }
+
+    private String valider(CreateColisRequest request,
+                           Map<Long, ClientExpediteur> clients,
+                           Map<Long, Destinataire> destinataires,
+                           Map<Long, Zone> zones,
+                           Map<Long, Produit> produits) {
+        Set<ConstraintViolation<CreateColisRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (!clients.containsKey(request.getClientExpediteurId())) {
+            return "Client expéditeur non trouvé";
+        }
+        if (!destinataires.containsKey(request.getDestinataireId())) {
+            return "Destinataire non trouvé";
+        }
+        if (!zones.containsKey(request.getZoneDestinationId())) {
+            return "Zone non trouvée";
+        }
+        try {
+            PrioriteColis.valueOf(request.getPriorite());
+        } catch (IllegalArgumentException e) {
+            return "Priorité invalide: " + request.getPriorite();
+        }
+        for (CreateColisProduitRequest produitRequest : request.getProduits()) {
+            if (!produits.containsKey(produitRequest.getProduitId())) {
+                return "Produit non trouvé: " + produitRequest.getProduitId();
+            }
+        }
+        return null;
+    }
+
+    private LigneColis preparer(int index, CreateColisRequest request, Zone zone, Map<Long, Produit> produits) {
+        LigneColis ligne = new LigneColis(index, request, zone.getVille());
+        BigDecimal poidsTotal = BigDecimal.ZERO;
+        for (CreateColisProduitRequest produitRequest : request.getProduits()) {
+            Produit produit = produits.get(produitRequest.getProduitId());
+            poidsTotal = poidsTotal.add(produit.getPoids().multiply(BigDecimal.valueOf(produitRequest.getQuantite())));
+            ligne.produits.add(new LigneProduit(produit.getId(), produitRequest.getQuantite(), produit.getPrix()));
+        }
+        ligne.poidsTotal = poidsTotal;
+        return ligne;
+    }
+
+    private void attribuerNumerosSuivi(List<LigneColis> lignes) {
+        List<String> numeros = numeroSuiviGenerator.next(lignes.size());
+        for (int i = 0; i < lignes.size(); i++) {
+            lignes.get(i).numeroSuivi = numeros.get(i);
+        }
+    }
+
+    private void insererColis(List<LigneColis> lot, LocalDateTime maintenant) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT_COLIS, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        LigneColis ligne = lot.get(i);
+                        CreateColisRequest request = ligne.request;
+                        ps.setString(1, ligne.numeroSuivi);
+                        ps.setString(2, request.getCommentaire());
+                        ps.setBigDecimal(3, ligne.poidsTotal);
+                        ps.setString(4, StatutColis.CREE.name());
+                        ps.setString(5, request.getPriorite());
+                        ps.setString(6, ligne.villeDestination);
+                        ps.setObject(7, maintenant);
+                        ps.setObject(8, request.getDateLivraisonPrevue());
+                        ps.setLong(9, request.getClientExpediteurId());
+                        ps.setLong(10, request.getDestinataireId());
+                        ps.setLong(11, request.getZoneDestinationId());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return lot.size();
+                    }
+                },
+                keyHolder);
+
+        List<Map<String, Object>> cles = keyHolder.getKeyList();
+        for (int i = 0; i < lot.size(); i++) {
+            lot.get(i).id = ((Number) cles.get(i).values().iterator().next()).longValue();
+        }
+    }
+
+    private void insererProduits(List<LigneColis> lot, LocalDateTime maintenant) {
+        List<Object[]> lignes = new ArrayList<>();
+        for (LigneColis ligne : lot) {
+            for (LigneProduit produit : ligne.produits) {
+                lignes.add(new Object[]{ligne.id, produit.produitId, produit.quantite, produit.prixUnitaire, maintenant});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_COLIS_PRODUIT, lignes);
+    }
+
+    private void insererHistorique(List<LigneColis> lot, LocalDateTime maintenant) {
+        List<Object[]> lignes = lot.stream()
+                .map(ligne -> new Object[]{ligne.id, StatutColis.CREE.name(), maintenant, "Colis créé"})
+                .toList();
+        jdbcTemplate.batchUpdate(INSERT_HISTORIQUE, lignes);
+    }
+
+    private static Set<Long> collectIds(List<CreateColisRequest> requests, Function<CreateColisRequest, Long> extractor) {
+        return requests.stream()
+                .map(extractor)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+
+    private static <T> Map<Long, T> indexById(List<T> entities, Function<T, Long> idExtractor) {
+        return entities.stream().collect(Collectors.toMap(idExtractor, Function.identity()));
+    }
+
+    private static final class LigneColis {
+        private final int index;
+        private final CreateColisRequest request;
+        private final String villeDestination;
+        private final List<LigneProduit> produits = new ArrayList<>();
+        private BigDecimal poidsTotal;
+        private String numeroSuivi;
+        private Long id;
+
+        private LigneColis(int index, CreateColisRequest request, String villeDestination) {
+            this.index = index;
+            this.request = request;
+            this.villeDestination = villeDestination;
+        }
+    }
+
+    private record LigneProduit(Long produitId, Integer quantite, BigDecimal prixUnitaire) {
+    }
+}
@@ -0,0 +1,337 @@
+package org.example.smartlogi.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.smartlogi.dto.ColisEvenement;
+import org.example.smartlogi.dto.ColisResume;
+import org.example.smartlogi.enums.TypeEvenementColis;
+import org.example.smartlogi.security.service.PrincipalIdentityResolver;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Diffusion SSE des changements de statut / assignations. Les connexions restent en mode
+ * asynchrone côté servlet (aucun thread par abonné) ; un seul thread de diffusion ajoute les
+ * événements au tampon de reprise et les dépose dans la file bornée de chaque abonné, ce qui
+ * garantit l'ordre et évite toute course entre la reprise (Last-Event-ID) et les nouveaux
+ * événements. Les écritures, bloquantes, sont faites par un petit pool d'envoi, une file à la
+ * fois par abonné : un client lent ne retarde que lui-même, et il est déconnecté quand sa file
+ * déborde (il reprendra avec son Last-Event-ID).
+ * Les identifiants sont préfixés par l'instance : après un redémarrage, le client reçoit
+ * un événement "reinitialisation" et doit recharger ses données.
+ */
+@Service
+@Slf4j
+public class ColisEvenementService {
+
+    private static final String EVENEMENT_REINITIALISATION = "reinitialisation";
+
+    private final PrincipalIdentityResolver identityResolver;
+    private final int tailleTampon;
+    private final int maxAbonnes;
+    private final long timeoutMillis;
+    private final int tailleFile;
+
+    private final String instance = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final Set<Abonne> abonnes = ConcurrentHashMap.newKeySet();
+    private final ExecutorService diffusion = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "colis-evenements");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService envoi;
+
+    // Accédé uniquement depuis le thread de diffusion
+    private final ArrayDeque<ColisEvenement> tampon = new ArrayDeque<>();
+
+    public ColisEvenementService(PrincipalIdentityResolver identityResolver,
+                                 @Value("${colis.evenements.taille-tampon:10000}") int tailleTampon,
+                                 @Value("${colis.evenements.max-abonnes:20000}") int maxAbonnes,
+                                 @Value("${colis.evenements.timeout-ms:1800000}") long timeoutMillis,
+                                 @Value("${colis.evenements.file-par-abonne:256}") int tailleFile,
+                                 @Value("${colis.evenements.threads-envoi:4}") int threadsEnvoi) {
+        this.identityResolver = identityResolver;
+        this.tailleTampon = tailleTampon;
+        this.maxAbonnes = maxAbonnes;
+        this.timeoutMillis = timeoutMillis;
+        this.tailleFile = tailleFile;
+        this.envoi = Executors.newFixedThreadPool(threadsEnvoi, r -> {
+            Thread thread = new Thread(r, "colis-evenements-envoi");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Publie l'événement après le commit de la transaction courante (immédiatement hors transaction).
+     */
+    public void publier(TypeEvenementColis type, ColisResume resume, String commentaire) {
+        publier(type, resume, commentaire, null);
+    }
+
+    /**
+     * @param livreurPrecedentId livreur retiré par une réassignation : il reçoit aussi l'événement
+     */
+    public void publier(TypeEvenementColis type, ColisResume resume, String commentaire, Long livreurPrecedentId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    diffuser(type, resume, commentaire, livreurPrecedentId);
+                }
+            });
+        } else {
+            diffuser(type, resume, commentaire, livreurPrecedentId);
+        }
+    }
+
+    public boolean complet() {
+        return abonnes.size() >= maxAbonnes;
+    }
+
+    public SseEmitter abonnerTout(String lastEventId) {
+        return abonnerTout(new SseEmitter(timeoutMillis), lastEventId);
+    }
+
+    SseEmitter abonnerTout(SseEmitter emitter, String lastEventId) {
+        return abonner(emitter, new Filtre(null, null), lastEventId);
+    }
+
+    public Optional<SseEmitter> abonnerLivreur(String username, String lastEventId) {
+        return identityResolver.resolveLivreurId(username)
+                .map(livreurId -> abonner(new SseEmitter(timeoutMillis), new Filtre(livreurId, null), lastEventId));
+    }
+
+    public Optional<SseEmitter> abonnerClient(String username, String lastEventId) {
+        return identityResolver.resolveClientExpediteurId(username)
+                .map(clientId -> abonner(new SseEmitter(timeoutMillis), new Filtre(null, clientId), lastEventId));
+    }
+
+    public int nombreAbonnes() {
+        return abonnes.size();
+    }
+
+    private SseEmitter abonner(SseEmitter emitter, Filtre filtre, String lastEventId) {
+        Abonne abonne = new Abonne(emitter, filtre);
+        emitter.onCompletion(() -> abonnes.remove(abonne));
+        emitter.onTimeout(() -> abonnes.remove(abonne));
+        emitter.onError(e -> abonnes.remove(abonne));
+
+        executer(() -> {
+            rejouer(abonne, lastEventId);
+            abonnes.add(abonne);
+        });
+        return emitter;
+    }
+
+    private void diffuser(TypeEvenementColis type, ColisResume resume, String commentaire, Long livreurPrecedentId) {
+        executer(() -> {
+            ColisEvenement evenement = new ColisEvenement(sequence.incrementAndGet(), type, resume.id(),
+                    resume.numeroSuivi(), resume.statut().name(), commentaire, resume.livreurId(),
+                    livreurPrecedentId, resume.clientExpediteurId(), resume.version(), LocalDateTime.now());
+
+            tampon.addLast(evenement);
+            if (tampon.size() > tailleTampon) {
+                tampon.removeFirst();
+            }
+
+            for (Abonne abonne : abonnes) {
+                if (abonne.filtre.accepte(evenement)) {
+                    envoyer(abonne, evenement);
+                }
+            }
+        });
+    }
+
+    private void rejouer(Abonne abonne, String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return;
+        }
+
+        long derniere = sequenceDe(lastEventId);
+        long plusAncienne = tampon.isEmpty() ? sequence.get() + 1 : tampon.peekFirst().sequence();
+        if (derniere < 0 || derniere + 1 < plusAncienne) {
+            // Instance différente ou événements sortis du tampon : la reprise exacte est impossible
+            envoyerReinitialisation(abonne);
+            return;
+        }
+
+        List<ColisEvenement> manques = tampon.stream()
+                .filter(evenement -> evenement.sequence() > derniere && abonne.filtre.accepte(evenement))
+                .toList();
+        if (manques.size() > tailleFile) {
+            // Reprise plus longue que la file de l'abonné : rechargement complet
+            envoyerReinitialisation(abonne);
+            return;
+        }
+        manques.forEach(evenement -> envoyer(abonne, evenement));
+    }
+
+    private long sequenceDe(String lastEventId) {
+        int separateur = lastEventId.lastIndexOf('-');
+        if (separateur < 0 || !lastEventId.substring(0, separateur).equals(instance)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(separateur + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void envoyer(Abonne abonne, ColisEvenement evenement) {
+        deposer(abonne, SseEmitter.event()
+                .id(instance + "-" + evenement.sequence())
+                .name(evenement.type().name())
+                .data(evenement));
+    }
+
+    private void envoyerReinitialisation(Abonne abonne) {
+        deposer(abonne, SseEmitter.event()
+                .id(instance + "-" + sequence.get())
+                .name(EVENEMENT_REINITIALISATION)
+                .data(""));
+    }
+
+    // Détecte les connexions mortes et empêche les proxys de couper les flux inactifs
+    @Scheduled(fixedDelayString = "${colis.evenements.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (Abonne abonne : abonnes) {
+            // Inutile si des événements sont déjà en attente d'envoi
+            if (abonne.fileVide()) {
+                deposer(abonne, SseEmitter.event().comment("ping"));
+            }
+        }
+    }
+
+    /**
+     * Ajoute l'envoi à la file de l'abonné sans jamais bloquer ; une file pleine déconnecte l'abonné.
+     */
+    private void deposer(Abonne abonne, SseEmitter.SseEventBuilder message) {
+        boolean planifier;
+        synchronized (abonne) {
+            if (abonne.ferme) {
+                return;
+            }
+            if (abonne.file.size() >= tailleFile) {
+                log.debug("File SSE pleine, abonné déconnecté");
+                abonne.ferme = true;
+                abonne.file.clear();
+                abonnes.remove(abonne);
+            } else {
+                abonne.file.addLast(message);
+            }
+            planifier = !abonne.planifie;
+            abonne.planifie = true;
+        }
+        if (planifier) {
+            try {
+                envoi.execute(() -> vider(abonne));
+            } catch (RejectedExecutionException e) {
+                log.debug("Envoi des événements arrêté, abonné ignoré");
+            }
+        }
+    }
+
+    // Une seule exécution à la fois par abonné : l'ordre des envois est conservé
+    private void vider(Abonne abonne) {
+        while (true) {
+            SseEmitter.SseEventBuilder message;
+            synchronized (abonne) {
+                message = abonne.ferme ? null : abonne.file.pollFirst();
+                if (message == null) {
+                    abonne.planifie = false;
+                    if (!abonne.ferme) {
+                        return;
+                    }
+                }
+            }
+            if (message == null) {
+                // Fermé par débordement : terminé ici, jamais pendant un envoi en cours
+                abonne.emitter.completeWithError(new IOException("Abonné SSE trop lent"));
+                return;
+            }
+            try {
+                abonne.emitter.send(message);
+            } catch (IOException | IllegalStateException e) {
+                synchronized (abonne) {
+                    abonne.ferme = true;
+                    abonne.file.clear();
+                    abonne.planifie = false;
+                }
+                abonnes.remove(abonne);
+                abonne.emitter.completeWithError(e);
+                return;
+            }
+        }
+    }
+
+    private void executer(Runnable tache) {
+        try {
+            diffusion.execute(tache);
+        } catch (RejectedExecutionException e) {
+            log.debug("Diffusion des événements arrêtée, tâche ignorée");
+        }
+    }
+
+    @PreDestroy
+    public void arreter() throws InterruptedException {
+        diffusion.shutdown();
+        diffusion.awaitTermination(5, TimeUnit.SECONDS);
+        envoi.shutdown();
+        envoi.awaitTermination(5, TimeUnit.SECONDS);
+        abonnes.forEach(abonne -> abonne.emitter.complete());
+        abonnes.clear();
+    }
+
+    private record Filtre(Long livreurId, Long clientExpediteurId) {
+
+        boolean accepte(ColisEvenement evenement) {
+            if (livreurId != null) {
+                // Le livreur retiré par une réassignation est prévenu que le colis le quitte
+                return livreurId.equals(evenement.livreurId()) || livreurId.equals(evenement.livreurPrecedentId());
+            }
+            if (clientExpediteurId != null) {
+                return clientExpediteurId.equals(evenement.clientExpediteurId());
+            }
+            return true;
+        }
+    }
+
+    private static final class Abonne {
+        private final SseEmitter emitter;
+        private final Filtre filtre;
+
+        // Gardés par le moniteur de l'abonné
+        private final ArrayDeque<SseEmitter.SseEventBuilder> file = new ArrayDeque<>();
+        private boolean planifie;
+        private boolean ferme;
+
+        private Abonne(SseEmitter emitter, Filtre filtre) {
+            this.emitter = emitter;
+            this.filtre = filtre;
+        }
+
+        private synchronized boolean fileVide() {
+            return file.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package org.example.smartlogi.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.smartlogi.dto.ColisResume;
+import org.example.smartlogi.enums.FormatExport;
+import org.example.smartlogi.mapper.ColisMapper;
+import org.example.smartlogi.repository.ColisRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Export des colis en flux (NDJSON ou CSV) : les lignes sont écrites dans la réponse
+ * au fur et à mesure de leur lecture, la mémoire utilisée ne dépend pas du volume.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ColisExportService {
+
+    private static final int FLUSH_TOUTES_LES = 500;
+
+    private static final String ENTETE_CSV = "id,numeroSuivi,statut,priorite,poidsTotal,dateCreation," +
+            "dateLivraisonPrevue,dateLivraisonEffective,clientExpediteurId,clientExpediteurNom," +
+            "destinataireId,destinataireNom,zoneId,zoneNom,livreurId,livreurNom";
+
+    private final ColisRepository colisRepository;
+    private final ColisMapper colisMapper;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public void exporter(FormatExport format, OutputStream out) throws IOException {
+        log.info("Export des colis au format {}", format);
+        long lignes;
+
+        try (Stream<ColisResume> resumes = colisRepository.streamAllResumes()) {
+            lignes = switch (format) {
+                case NDJSON -> ecrireNdjson(resumes.iterator(), out);
+                case CSV -> ecrireCsv(resumes.iterator(), out);
+            };
+        }
+
+        log.info("Export des colis terminé - {} lignes", lignes);
+    }
+
+    private long ecrireNdjson(Iterator<ColisResume> resumes, OutputStream out) throws IOException {
+        long lignes = 0;
+        try (SequenceWriter writer = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n")
+                .writeValues(out)) {
+            while (resumes.hasNext()) {
+                writer.write(colisMapper.toDTO(resumes.next()));
+                if (++lignes % FLUSH_TOUTES_LES == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        // Séparateur final après le dernier objet ; un export vide reste vide
+        if (lignes > 0) {
+            out.write('\n');
+        }
+        out.flush();
+        return lignes;
+    }
+
+    private long ecrireCsv(Iterator<ColisResume> resumes, OutputStream out) throws IOException {
+        long lignes = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(ENTETE_CSV);
+        writer.write("\r\n");
+
+        while (resumes.hasNext()) {
+            ColisResume r = resumes.next();
+            writer.write(String.join(",",
+                    csv(r.id()), csv(r.numeroSuivi()), csv(r.statut()), csv(r.priorite()), csv(r.poidsTotal()),
+                    csv(r.dateCreation()), csv(r.dateLivraisonPrevue()), csv(r.dateLivraisonEffective()),
+                    csv(r.clientExpediteurId()), csv(r.clientExpediteurNom()),
+                    csv(r.destinataireId()), csv(r.destinataireNom()),
+                    csv(r.zoneId()), csv(r.zoneNom()),
+                    csv(r.livreurId()), csv(r.livreurNom())));
+            writer.write("\r\n");
+            if (++lignes % FLUSH_TOUTES_LES == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return lignes;
+    }
+
+    // Échappement RFC 4180 : guillemets doublés si la valeur contient un séparateur
+    static String csv(Object valeur) {
+        if (valeur == null) {
+            return "";
+        }
+        String texte = valeur.toString();
+        if (texte.contains(",") || texte.contains("\"") || texte.contains("\n") || texte.contains("\r")) {
+            return "\"" + texte.replace("\"", "\"\"") + "\"";
+        }
+        return texte;
+    }
+}
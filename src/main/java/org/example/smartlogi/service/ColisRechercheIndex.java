@@ -0,0 +1,21 @@
+package org.example.smartlogi.service;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Moteur de recherche des colis sur numéro de suivi, ville et description,
+ * tolérant aux fautes de frappe. Résultats triés par pertinence décroissante.
+ */
+public interface ColisRechercheIndex {
+
+    Page<Resultat> rechercher(String motCle, Pageable pageable);
+
+    /**
+     * Oublie un colis supprimé. Appelé après le commit de la suppression.
+     */
+    void retirer(Long colisId);
+
+    record Resultat(Long colisId, double score) {
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.smartlogi.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.smartlogi.dto.ColisRechercheResultat;
+import org.example.smartlogi.dto.ColisResume;
+import org.example.smartlogi.mapper.ColisMapper;
+import org.example.smartlogi.repository.ColisRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ColisRechercheService {
+
+    private static final int LONGUEUR_MIN = 2;
+    private static final int LONGUEUR_MAX = 100;
+
+    private final ColisRechercheIndex rechercheIndex;
+    private final ColisRepository colisRepository;
+    private final ColisMapper colisMapper;
+
+    @Transactional(readOnly = true)
+    public Page<ColisRechercheResultat> rechercher(String motCle, Pageable pageable) {
+        String critere = motCle != null ? motCle.trim() : "";
+        if (critere.length() < LONGUEUR_MIN || critere.length() > LONGUEUR_MAX) {
+            throw new IllegalArgumentException("Le mot-clé doit contenir entre " + LONGUEUR_MIN
+                    + " et " + LONGUEUR_MAX + " caractères");
+        }
+
+        log.info("Recherche de colis - Mot-clé: {}, Page: {}", critere, pageable.getPageNumber());
+
+        Page<ColisRechercheIndex.Resultat> resultats = rechercheIndex.rechercher(critere, pageable);
+
+        // Chargement des projections en une requête, puis remise dans l'ordre de pertinence
+        Map<Long, ColisResume> resumes = colisRepository.findResumesByIdIn(
+                        resultats.map(ColisRechercheIndex.Resultat::colisId).getContent()).stream()
+                .collect(Collectors.toMap(ColisResume::id, Function.identity()));
+
+        List<ColisRechercheResultat> contenu = resultats.getContent().stream()
+                .filter(r -> resumes.containsKey(r.colisId()))
+                .map(r -> new ColisRechercheResultat(r.score(), colisMapper.toDTO(resumes.get(r.colisId()))))
+                .toList();
+
+        return new PageImpl<>(contenu, pageable, resultats.getTotalElements());
+    }
+}
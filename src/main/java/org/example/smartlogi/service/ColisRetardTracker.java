@@ -0,0 +1,216 @@
+package org.example.smartlogi.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.smartlogi.enums.StatutColis;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Suivi en mémoire des colis en retard. Les échéances des colis non livrés sont chargées
+ * une fois puis tenues dans une roue temporelle (tick d'une minute) ; les services la mettent à jour
+ * à chaque création / changement de statut, après le commit de la transaction appelante
+ * (une transaction annulée ne laisse pas d'échéance fantôme). Une réconciliation périodique relit seulement
+ * les colis ayant une nouvelle ligne d'historique depuis la précédente. La fenêtre porte sur
+ * date_changement et recouvre la précédente d'une marge : une ligne datée plus tôt mais commitée après
+ * le passage (transaction longue, écriture différée de l'historique) est encore vue au passage suivant.
+ * Les lignes de la marge déjà traitées sont reconnues à leur id et ne sont pas relues.
+ */
+@Component
+@Slf4j
+public class ColisRetardTracker {
+
+    private static final long TICK_MILLIS = 60_000;
+    private static final int SLOTS = 64;
+    private static final int NIVEAUX = 4;
+    static final int TAILLE_LOT_IN = 500;
+
+    private static final String SELECT_EN_ATTENTE = "SELECT id, statut, date_livraison_prevue FROM colis " +
+            "WHERE date_livraison_prevue IS NOT NULL AND statut <> 'LIVRE'";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final long margeMillis;
+
+    private HierarchicalTimingWheel roue;
+    private final Set<Long> enRetard = new HashSet<>();
+    private LocalDateTime dernierChangement;
+    // id -> date_changement des lignes d'historique traitées encore dans la marge
+    private final Map<Long, LocalDateTime> historiquesTraites = new HashMap<>();
+
+    public ColisRetardTracker(NamedParameterJdbcTemplate jdbcTemplate,
+                              @Value("${colis.retard.reconciliation-marge-ms:300000}") long margeMillis) {
+        if (margeMillis < 0) {
+            throw new IllegalArgumentException("Marge de réconciliation des retards invalide");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.margeMillis = margeMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void initialiser() {
+        long debut = System.currentTimeMillis();
+        roue = new HierarchicalTimingWheel(SLOTS, NIVEAUX, tickActuel());
+        enRetard.clear();
+
+        Timestamp maxChangement = jdbcTemplate.getJdbcTemplate()
+                .queryForObject("SELECT MAX(date_changement) FROM historique_livraison", Timestamp.class);
+        dernierChangement = maxChangement != null ? maxChangement.toLocalDateTime() : LocalDateTime.now();
+        historiquesTraites.clear();
+
+        jdbcTemplate.getJdbcTemplate().query(SELECT_EN_ATTENTE, rs -> {
+            Timestamp echeance = rs.getTimestamp("date_livraison_prevue");
+            appliquer(rs.getLong("id"), StatutColis.valueOf(rs.getString("statut")), echeance.toLocalDateTime());
+        });
+
+        log.info("Suivi des retards initialisé - {} colis planifiés, {} en retard ({} ms)",
+                roue.taille(), enRetard.size(), System.currentTimeMillis() - debut);
+    }
+
+    /**
+     * Enregistre l'état courant d'un colis (création, changement de statut).
+     */
+    public void suivre(Long colisId, StatutColis statut, LocalDateTime dateLivraisonPrevue) {
+        apresCommit(() -> {
+            synchronized (this) {
+                assurerInitialise();
+                appliquer(colisId, statut, dateLivraisonPrevue);
+            }
+        });
+    }
+
+    public void retirer(Long colisId) {
+        apresCommit(() -> {
+            synchronized (this) {
+                assurerInitialise();
+                roue.annuler(colisId);
+                enRetard.remove(colisId);
+            }
+        });
+    }
+
+    /**
+     * Identifiants des colis en retard à l'instant présent.
+     */
+    public synchronized Set<Long> colisEnRetard() {
+        assurerInitialise();
+        roue.avancer(tickActuel(), enRetard::add);
+        return new HashSet<>(enRetard);
+    }
+
+    @Scheduled(fixedDelayString = "${colis.retard.reconciliation-ms:60000}",
+            initialDelayString = "${colis.retard.reconciliation-ms:60000}")
+    public void reconcilier() {
+        LocalDateTime depuis;
+        Set<Long> dejaTraites;
+        synchronized (this) {
+            if (roue == null) {
+                return;
+            }
+            depuis = dernierChangement.minus(margeMillis, ChronoUnit.MILLIS);
+            dejaTraites = new HashSet<>(historiquesTraites.keySet());
+        }
+
+        Map<Long, LocalDateTime> nouveaux = new HashMap<>();
+        Set<Long> colisIds = new HashSet<>();
+        jdbcTemplate.query("SELECT id, colis_id, date_changement FROM historique_livraison " +
+                        "WHERE date_changement >= :depuis",
+                new MapSqlParameterSource("depuis", Timestamp.valueOf(depuis)),
+                rs -> {
+                    long historiqueId = rs.getLong("id");
+                    if (!dejaTraites.contains(historiqueId)) {
+                        nouveaux.put(historiqueId, rs.getTimestamp("date_changement").toLocalDateTime());
+                        colisIds.add(rs.getLong("colis_id"));
+                    }
+                });
+        if (nouveaux.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Etat> etats = new HashMap<>();
+        List<Long> ids = new ArrayList<>(colisIds);
+        for (int i = 0; i < ids.size(); i += TAILLE_LOT_IN) {
+            jdbcTemplate.query("SELECT id, statut, date_livraison_prevue FROM colis WHERE id IN (:ids)",
+                    new MapSqlParameterSource("ids", ids.subList(i, Math.min(i + TAILLE_LOT_IN, ids.size()))),
+                    rs -> {
+                        Timestamp echeance = rs.getTimestamp("date_livraison_prevue");
+                        etats.put(rs.getLong("id"), new Etat(StatutColis.valueOf(rs.getString("statut")),
+                                echeance != null ? echeance.toLocalDateTime() : null));
+                    });
+        }
+
+        synchronized (this) {
+            for (Long colisId : ids) {
+                Etat etat = etats.get(colisId);
+                if (etat == null) {
+                    roue.annuler(colisId);
+                    enRetard.remove(colisId);
+                } else {
+                    appliquer(colisId, etat.statut(), etat.dateLivraisonPrevue());
+                }
+            }
+            LocalDateTime plusRecent = Collections.max(nouveaux.values());
+            if (plusRecent.isAfter(dernierChangement)) {
+                dernierChangement = plusRecent;
+            }
+            historiquesTraites.putAll(nouveaux);
+            LocalDateTime limite = dernierChangement.minus(margeMillis, ChronoUnit.MILLIS);
+            historiquesTraites.values().removeIf(date -> date.isBefore(limite));
+        }
+
+        log.debug("Réconciliation des retards - {} colis relus", ids.size());
+    }
+
+    private void apresCommit(Runnable miseAJour) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    miseAJour.run();
+                }
+            });
+        } else {
+            miseAJour.run();
+        }
+    }
+
+    private void appliquer(Long colisId, StatutColis statut, LocalDateTime dateLivraisonPrevue) {
+        enRetard.remove(colisId);
+        if (statut == StatutColis.LIVRE || dateLivraisonPrevue == null) {
+            roue.annuler(colisId);
+            return;
+        }
+        if (!roue.planifier(colisId, tick(dateLivraisonPrevue))) {
+            enRetard.add(colisId);
+        }
+    }
+
+    private void assurerInitialise() {
+        if (roue == null) {
+            initialiser();
+        }
+    }
+
+    // Un colis est en retard dès que la minute de son échéance est écoulée
+    private long tick(LocalDateTime date) {
+        return Math.floorDiv(date.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(), TICK_MILLIS) + 1;
+    }
+
+    private long tickActuel() {
+        return Math.floorDiv(System.currentTimeMillis(), TICK_MILLIS);
+    }
+
+    private record Etat(StatutColis statut, LocalDateTime dateLivraisonPrevue) {
+    }
+}
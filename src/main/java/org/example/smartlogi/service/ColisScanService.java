@@ -0,0 +1,218 @@
+package org.example.smartlogi.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.smartlogi.dto.ColisBatchItemResult;
+import org.example.smartlogi.dto.ColisBatchResponse;
+import org.example.smartlogi.dto.ColisResume;
+import org.example.smartlogi.dto.ScanStatutRequest;
+import org.example.smartlogi.enums.StatutColis;
+import org.example.smartlogi.enums.TypeEvenementColis;
+import org.example.smartlogi.exception.BusinessException;
+import org.example.smartlogi.repository.ColisRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Scan en masse au hub (palettes entières passées en stock ou en transit) : les colis sont lus
+ * et verrouillés par lots IN (...), les transitions validées en mémoire, puis appliquées par des
+ * UPDATE ensemblistes et un lot d'INSERT d'historique, le tout dans une seule transaction.
+ * Chaque numéro scanné reçoit un résultat (succès ou motif du refus).
+ */
+@Service
+@Slf4j
+public class ColisScanService {
+
+    private static final String SELECT_IDS = "SELECT id, numero_suivi FROM colis WHERE numero_suivi IN (:numeros)";
+
+    private static final String VERROU_COLIS = "SELECT id, statut FROM colis WHERE id IN (:ids) ORDER BY id FOR UPDATE";
+
+    private static final String UPDATE_STATUT = "UPDATE colis SET statut = :statut, version = version + 1 " +
+            "WHERE id IN (:ids) AND statut IN (:predecesseurs)";
+
+    private static final String INSERT_HISTORIQUE = "INSERT INTO historique_livraison (colis_id, statut, " +
+            "date_changement, commentaire) VALUES (:colisId, :statut, :date, :commentaire)";
+
+    private static final int TAILLE_LOT_IN = 1000;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ColisRepository colisRepository;
+    private final ColisRetardTracker retardTracker;
+    private final SuiviPublicService suiviPublicService;
+    private final ColisEvenementService evenementService;
+    private final DashboardService dashboardService;
+    private final int maxSize;
+
+    public ColisScanService(NamedParameterJdbcTemplate jdbcTemplate,
+                            ColisRepository colisRepository,
+                            ColisRetardTracker retardTracker,
+                            SuiviPublicService suiviPublicService,
+                            ColisEvenementService evenementService,
+                            DashboardService dashboardService,
+                            @Value("${colis.scan.max-size:2000}") int maxSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.colisRepository = colisRepository;
+        this.retardTracker = retardTracker;
+        this.suiviPublicService = suiviPublicService;
+        this.evenementService = evenementService;
+        this.dashboardService = dashboardService;
+        this.maxSize = maxSize;
+    }
+
+    @Transactional
+    public ColisBatchResponse scanner(ScanStatutRequest request) {
+        List<String> numeros = request.getNumerosSuivi();
+        if (numeros == null || numeros.isEmpty()) {
+            throw new IllegalArgumentException("La liste des numéros de suivi ne peut pas être vide");
+        }
+        if (numeros.size() > maxSize) {
+            throw new IllegalArgumentException("Un scan ne peut pas dépasser " + maxSize + " colis");
+        }
+        StatutColis cible = statutCible(request.getStatut());
+
+        log.info("Scan de {} colis vers {}", numeros.size(), cible);
+
+        Map<String, ColisScanne> colis = charger(numeros);
+        ColisBatchItemResult[] resultats = new ColisBatchItemResult[numeros.size()];
+        Set<String> vus = new HashSet<>();
+        List<ColisScanne> aAppliquer = new ArrayList<>();
+
+        for (int i = 0; i < numeros.size(); i++) {
+            String numero = numeros.get(i) == null ? "" : numeros.get(i).trim();
+            ColisScanne scanne = colis.get(numero);
+            String erreur = null;
+            if (!vus.add(numero)) {
+                erreur = "Numéro en double dans le scan";
+            } else if (scanne == null) {
+                erreur = "Colis non trouvé";
+            } else if (scanne.statut() == cible) {
+                erreur = "Colis déjà au statut " + cible;
+            } else if (!scanne.statut().peutPasserA(cible)) {
+                erreur = "Transition de statut invalide: " + scanne.statut() + " -> " + cible;
+            }
+
+            if (erreur != null) {
+                resultats[i] = ColisBatchItemResult.builder().index(i).succes(false)
+                        .colisId(scanne != null ? scanne.id() : null).numeroSuivi(numero).erreur(erreur).build();
+            } else {
+                aAppliquer.add(scanne);
+                resultats[i] = ColisBatchItemResult.builder().index(i).succes(true)
+                        .colisId(scanne.id()).numeroSuivi(numero).build();
+            }
+        }
+
+        appliquer(aAppliquer, cible, request.getCommentaire());
+
+        log.info("Scan traité - {} colis passés à {}, {} refusés", aAppliquer.size(), cible,
+                numeros.size() - aAppliquer.size());
+
+        return ColisBatchResponse.builder()
+                .total(numeros.size())
+                .succes(aAppliquer.size())
+                .echecs(numeros.size() - aAppliquer.size())
+                .resultats(Arrays.asList(resultats))
+                .build();
+    }
+
+    // La livraison reste confirmée colis par colis (date effective, charge du livreur)
+    private StatutColis statutCible(String statut) {
+        StatutColis cible;
+        try {
+            cible = StatutColis.valueOf(statut.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Statut invalide: " + statut);
+        }
+        if (cible == StatutColis.LIVRE || cible == StatutColis.CREE) {
+            throw new IllegalArgumentException("Le statut " + cible + " ne peut pas être appliqué par scan");
+        }
+        return cible;
+    }
+
+    // Les lignes restent verrouillées jusqu'au commit : les UPDATE ci-dessous touchent exactement ces colis.
+    // Verrous pris dans l'ordre des ids, lot après lot, comme le dispatch : deux scans qui se recouvrent
+    // attendent l'un l'autre au lieu de s'interbloquer.
+    private Map<String, ColisScanne> charger(List<String> numeros) {
+        List<String> distincts = numeros.stream()
+                .filter(Objects::nonNull)
+                .map(String::trim)
+                .filter(numero -> !numero.isEmpty())
+                .distinct()
+                .toList();
+
+        Map<Long, String> numerosParId = new TreeMap<>();
+        for (int debut = 0; debut < distincts.size(); debut += TAILLE_LOT_IN) {
+            List<String> lot = distincts.subList(debut, Math.min(debut + TAILLE_LOT_IN, distincts.size()));
+            jdbcTemplate.query(SELECT_IDS, new MapSqlParameterSource("numeros", lot),
+                    rs -> {
+                        numerosParId.put(rs.getLong("id"), rs.getString("numero_suivi"));
+                    });
+        }
+
+        Map<String, ColisScanne> colis = new HashMap<>();
+        List<Long> ids = new ArrayList<>(numerosParId.keySet());
+        for (int debut = 0; debut < ids.size(); debut += TAILLE_LOT_IN) {
+            List<Long> lot = ids.subList(debut, Math.min(debut + TAILLE_LOT_IN, ids.size()));
+            jdbcTemplate.query(VERROU_COLIS, new MapSqlParameterSource("ids", lot), rs -> {
+                ColisScanne scanne = new ColisScanne(rs.getLong("id"), StatutColis.valueOf(rs.getString("statut")));
+                colis.put(numerosParId.get(scanne.id()), scanne);
+            });
+        }
+        return colis;
+    }
+
+    private void appliquer(List<ColisScanne> colis, StatutColis cible, String commentaire) {
+        if (colis.isEmpty()) {
+            return;
+        }
+
+        List<String> predecesseurs = cible.predecesseurs().stream().map(Enum::name).toList();
+        for (int debut = 0; debut < colis.size(); debut += TAILLE_LOT_IN) {
+            List<Long> ids = colis.subList(debut, Math.min(debut + TAILLE_LOT_IN, colis.size())).stream()
+                    .map(ColisScanne::id)
+                    .toList();
+            int modifies = jdbcTemplate.update(UPDATE_STATUT, new MapSqlParameterSource()
+                    .addValue("statut", cible.name())
+                    .addValue("ids", ids)
+                    .addValue("predecesseurs", predecesseurs));
+            if (modifies != ids.size()) {
+                throw new BusinessException("Des colis ont été modifiés pendant le scan, veuillez réessayer");
+            }
+        }
+
+        String texte = commentaire != null && !commentaire.isBlank() ? commentaire : "Scan hub : " + cible.getLibelle();
+        LocalDateTime maintenant = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(INSERT_HISTORIQUE, colis.stream()
+                .map(c -> new MapSqlParameterSource()
+                        .addValue("colisId", c.id())
+                        .addValue("statut", cible.name())
+                        .addValue("date", maintenant)
+                        .addValue("commentaire", texte))
+                .toArray(MapSqlParameterSource[]::new));
+
+        notifier(colis, texte);
+    }
+
+    private void notifier(List<ColisScanne> colis, String commentaire) {
+        Map<Long, StatutColis> anciens = new HashMap<>();
+        colis.forEach(c -> anciens.put(c.id(), c.statut()));
+
+        List<Long> ids = new ArrayList<>(anciens.keySet());
+        for (int debut = 0; debut < ids.size(); debut += TAILLE_LOT_IN) {
+            List<Long> lot = ids.subList(debut, Math.min(debut + TAILLE_LOT_IN, ids.size()));
+            for (ColisResume resume : colisRepository.findResumesByIdIn(lot)) {
+                retardTracker.suivre(resume.id(), resume.statut(), resume.dateLivraisonPrevue());
+                suiviPublicService.invalider(resume.numeroSuivi());
+                dashboardService.enregistrerTransition(anciens.get(resume.id()), resume);
+                evenementService.publier(TypeEvenementColis.CHANGEMENT_STATUT, resume, commentaire);
+            }
+        }
+    }
+
+    private record ColisScanne(long id, StatutColis statut) {
+    }
+}
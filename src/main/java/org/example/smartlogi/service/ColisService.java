@@ -6,19 +6,27 @@ import org.example.smartlogi.dto.*;
 import org.example.smartlogi.entity.*;
 import org.example.smartlogi.enums.PrioriteColis;
 import org.example.smartlogi.enums.StatutColis;
+import org.example.smartlogi.enums.TypeEvenementColis;
+import org.example.smartlogi.exception.BusinessException;
 import org.example.smartlogi.mapper.ColisMapper;
 import org.example.smartlogi.repository.*;
+import org.example.smartlogi.repository.ColisTransitionRepository.EtatPrecedent;
+import org.example.smartlogi.security.service.PrincipalIdentityResolver;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 @Service
 @Transactional
@@ -27,6 +35,7 @@ import java.util.stream.Collectors;
 public class ColisService {
 
     private final ColisRepository colisRepository;
+    private final ColisTransitionRepository colisTransitionRepository;
     private final ClientExpediteurRepository clientExpediteurRepository;
     private final DestinataireRepository destinataireRepository;
     private final ZoneRepository zoneRepository;
@@ -35,6 +44,15 @@ public class ColisService {
     private final ColisProduitRepository colisProduitRepository;
     private final HistoriqueLivraisonRepository historiqueLivraisonRepository;
     private final ColisMapper colisMapper;
+    private final PrincipalIdentityResolver identityResolver;
+    private final NumeroSuiviGenerator numeroSuiviGenerator;
+    private final ApproximateRowCounter approximateRowCounter;
+    private final ColisRetardTracker retardTracker;
+    private final HistoriqueWriter historiqueWriter;
+    private final SuiviPublicService suiviPublicService;
+    private final ColisEvenementService evenementService;
+    private final DashboardService dashboardService;
+    private final ColisRechercheIndex rechercheIndex;
 
     public ColisDetailDTO create(CreateColisRequest request) {
         log.info("Création d'un nouveau colis");
@@ -49,7 +67,7 @@ public class ColisService {
                 .orElseThrow(() -> new RuntimeException("Zone non trouvée"));
 
         Colis colis = new Colis();
-        colis.setNumeroSuivi(genererNumeroSuivi());
+        colis.setNumeroSuivi(numeroSuiviGenerator.next());
         colis.setClientExpediteur(client);
         colis.setDestinataire(destinataire);
         colis.setZone(zone);
@@ -80,7 +98,9 @@ public class ColisService {
         colis.setProduits(colisProduits);
 
         Colis savedColis = colisRepository.save(colis);
-        creerHistorique(savedColis, StatutColis.CREE, "Colis créé");
+        creerHistorique(savedColis.getId(), StatutColis.CREE, "Colis créé");
+        retardTracker.suivre(savedColis.getId(), savedColis.getStatut(), savedColis.getDateLivraisonPrevue());
+        dashboardService.enregistrerCreation(zone.getId(), zone.getNom(), savedColis.getPriorite(), poidsTotal);
 
         log.info("Colis créé - Numéro: {}", savedColis.getNumeroSuivi());
         return colisMapper.toDetailDTO(savedColis);
@@ -88,72 +108,128 @@ public class ColisService {
 
     @Transactional(readOnly = true)
     public ColisDTO findById(Long id) {
-        Colis entity = colisRepository.findById(id)
+        Colis entity = colisRepository.findWithAssociationsById(id)
                 .orElseThrow(() -> new RuntimeException("Colis non trouvé"));
         return colisMapper.toDTO(entity);
     }
 
     @Transactional(readOnly = true)
     public ColisDetailDTO findDetailById(Long id) {
-        Colis entity = colisRepository.findById(id)
+        Colis entity = colisRepository.findWithAssociationsById(id)
                 .orElseThrow(() -> new RuntimeException("Colis non trouvé"));
         return colisMapper.toDetailDTO(entity);
     }
 
     @Transactional(readOnly = true)
     public List<ColisDTO> findAll() {
-        List<Colis> entities = colisRepository.findAll();
-        return colisMapper.toDTOList(entities);
+        List<ColisResume> resumes = colisRepository.findAllResumes();
+        return colisMapper.resumesToDTOList(resumes);
     }
 
     @Transactional(readOnly = true)
     public Page<ColisDTO> findAll(Pageable pageable) {
-        Page<Colis> entities = colisRepository.findAll(pageable);
-        return entities.map(colisMapper::toDTO);
+        Page<ColisResume> resumes = colisRepository.findAllResumes(pageable);
+        return resumes.map(colisMapper::toDTO);
     }
 
     public ColisDTO changerStatut(Long id, String nouveauStatut, String commentaire) {
-        log.info("Changement de statut du colis {} vers {}", id, nouveauStatut);
+        return changerStatut(id, nouveauStatut, commentaire, null);
+    }
 
-        Colis colis = colisRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Colis non trouvé"));
+    /**
+     * Transition atomique : un seul UPDATE conditionné par les statuts prédécesseurs du statut cible
+     * et, si fournie, par la version attendue. Il rend le statut remplacé, connu ainsi exactement
+     * pour les compteurs du tableau de bord.
+     */
+    public ColisDTO changerStatut(Long id, String nouveauStatut, String commentaire, Long version) {
+        log.info("Changement de statut du colis {} vers {}", id, nouveauStatut);
 
         StatutColis statut = StatutColis.valueOf(nouveauStatut);
-        colis.setStatut(statut);
-
-        if (statut == StatutColis.LIVRE) {
-            colis.setDateLivraisonEffective(LocalDateTime.now());
-        }
-
-        Colis savedColis = colisRepository.save(colis);
-        creerHistorique(savedColis, statut, commentaire);
+        StatutColis ancien = colisTransitionRepository.changerStatut(id, statut, statut.predecesseurs(), version)
+                .map(EtatPrecedent::statut)
+                .orElseThrow(() -> transitionRefusee(id, statut));
 
-        return colisMapper.toDTO(savedColis);
+        return apresTransition(id, ancien, statut, commentaire, TypeEvenementColis.CHANGEMENT_STATUT, null);
     }
 
     public ColisDTO assignerLivreur(Long colisId, Long livreurId) {
-        log.info("Assignment du livreur {} au colis {}", livreurId, colisId);
+        return assignerLivreur(colisId, livreurId, null);
+    }
 
-        Colis colis = colisRepository.findById(colisId)
-                .orElseThrow(() -> new RuntimeException("Colis non trouvé"));
+    public ColisDTO assignerLivreur(Long colisId, Long livreurId, Long version) {
+        log.info("Assignment du livreur {} au colis {}", livreurId, colisId);
 
         Livreur livreur = livreurRepository.findById(livreurId)
                 .orElseThrow(() -> new RuntimeException("Livreur non trouvé"));
 
-        colis.setLivreur(livreur);
-        colis.setStatut(StatutColis.EN_TRANSIT);
+        // Une réassignation d'un colis déjà en transit reste permise
+        Set<StatutColis> autorises = EnumSet.of(StatutColis.EN_TRANSIT);
+        autorises.addAll(StatutColis.EN_TRANSIT.predecesseurs());
 
-        Colis savedColis = colisRepository.save(colis);
-        creerHistorique(savedColis, StatutColis.EN_TRANSIT, "Assigné au livreur " + livreur.getNom());
+        // L'UPDATE rend l'ancien livreur (charge) et l'ancien statut (tableau de bord)
+        EtatPrecedent avant = colisTransitionRepository.assignerLivreur(colisId, livreurId, autorises, version)
+                .orElseThrow(() -> transitionRefusee(colisId, StatutColis.EN_TRANSIT));
+
+        if (!livreurId.equals(avant.livreurId())) {
+            if (avant.livreurId() != null) {
+                livreurRepository.ajusterCharge(avant.livreurId(), -1, avant.poidsTotal().negate());
+            }
+            livreurRepository.ajusterCharge(livreurId, 1, avant.poidsTotal());
+        }
 
-        return colisMapper.toDTO(savedColis);
+        Long livreurPrecedentId = livreurId.equals(avant.livreurId()) ? null : avant.livreurId();
+        return apresTransition(colisId, avant.statut(), StatutColis.EN_TRANSIT, "Assigné au livreur " + livreur.getNom(),
+                TypeEvenementColis.ASSIGNATION, livreurPrecedentId);
     }
 
-    public void delete(Long id) {
-        if (!colisRepository.existsById(id)) {
-            throw new RuntimeException("Colis non trouvé");
+    private ColisDTO apresTransition(Long id, StatutColis ancien, StatutColis statut, String commentaire,
+                                     TypeEvenementColis type, Long livreurPrecedentId) {
+        creerHistorique(id, statut, commentaire);
+
+        ColisResume resume = colisRepository.findResumeById(id)
+                .orElseThrow(() -> new RuntimeException("Colis non trouvé"));
+        retardTracker.suivre(id, statut, resume.dateLivraisonPrevue());
+        suiviPublicService.invalider(resume.numeroSuivi());
+        if (statut == StatutColis.LIVRE && resume.livreurId() != null) {
+            livreurRepository.ajusterCharge(resume.livreurId(), -1, resume.poidsTotal().negate());
         }
+        dashboardService.enregistrerTransition(ancien, resume);
+        evenementService.publier(type, resume, commentaire, livreurPrecedentId);
+
+        return colisMapper.toDTO(resume);
+    }
+
+    // Appelé seulement quand l'UPDATE n'a touché aucune ligne, pour expliquer pourquoi
+    private RuntimeException transitionRefusee(Long id, StatutColis cible) {
+        StatutColis actuel = colisRepository.findStatutById(id)
+                .orElseThrow(() -> new RuntimeException("Colis non trouvé"));
+
+        if (!actuel.peutPasserA(cible) && !(cible == StatutColis.EN_TRANSIT && actuel == StatutColis.EN_TRANSIT)) {
+            return new BusinessException("Transition de statut invalide: " + actuel + " -> " + cible);
+        }
+        return new BusinessException("Le colis a été modifié entre-temps, veuillez recharger et réessayer");
+    }
+
+    public void delete(Long id) {
+        ColisResume resume = colisRepository.findResumeById(id)
+                .orElseThrow(() -> new RuntimeException("Colis non trouvé"));
         colisRepository.deleteById(id);
+        if (resume.livreurId() != null && resume.statut() != StatutColis.LIVRE) {
+            livreurRepository.ajusterCharge(resume.livreurId(), -1, resume.poidsTotal().negate());
+        }
+        retardTracker.retirer(id);
+        dashboardService.enregistrerSuppression(resume);
+        suiviPublicService.invalider(resume.numeroSuivi());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    rechercheIndex.retirer(id);
+                }
+            });
+        } else {
+            rechercheIndex.retirer(id);
+        }
         log.info("Colis supprimé - ID: {}", id);
     }
 
@@ -166,38 +242,60 @@ public class ColisService {
 
     @Transactional(readOnly = true)
     public List<ColisDTO> findByStatut(String statut) {
-        List<Colis> entities = colisRepository.findByStatut(StatutColis.valueOf(statut));
-        return colisMapper.toDTOList(entities);
+        List<ColisResume> resumes = colisRepository.findResumesByStatut(StatutColis.valueOf(statut));
+        return colisMapper.resumesToDTOList(resumes);
     }
 
     @Transactional(readOnly = true)
     public List<ColisDTO> findByClient(Long clientId) {
-        ClientExpediteur client = clientExpediteurRepository.findById(clientId)
-                .orElseThrow(() -> new RuntimeException("Client non trouvé"));
-        List<Colis> entities = colisRepository.findByClientExpediteur(client);
-        return colisMapper.toDTOList(entities);
+        if (!clientExpediteurRepository.existsById(clientId)) {
+            throw new RuntimeException("Client non trouvé");
+        }
+        List<ColisResume> resumes = colisRepository.findResumesByClientExpediteurId(clientId);
+        return colisMapper.resumesToDTOList(resumes);
     }
 
     @Transactional(readOnly = true)
     public List<ColisDTO> findByLivreur(Long livreurId) {
-        Livreur livreur = livreurRepository.findById(livreurId)
-                .orElseThrow(() -> new RuntimeException("Livreur non trouvé"));
-        List<Colis> entities = colisRepository.findByLivreur(livreur);
-        return colisMapper.toDTOList(entities);
+        if (!livreurRepository.existsById(livreurId)) {
+            throw new RuntimeException("Livreur non trouvé");
+        }
+        List<ColisResume> resumes = colisRepository.findResumesByLivreurId(livreurId);
+        return colisMapper.resumesToDTOList(resumes);
     }
 
     @Transactional(readOnly = true)
     public List<ColisDTO> findByZone(Long zoneId) {
-        Zone zone = zoneRepository.findById(zoneId)
-                .orElseThrow(() -> new RuntimeException("Zone non trouvée"));
-        List<Colis> entities = colisRepository.findByZone(zone);
-        return colisMapper.toDTOList(entities);
+        if (!zoneRepository.existsById(zoneId)) {
+            throw new RuntimeException("Zone non trouvée");
+        }
+        List<ColisResume> resumes = colisRepository.findResumesByZoneId(zoneId);
+        return colisMapper.resumesToDTOList(resumes);
     }
 
     @Transactional(readOnly = true)
     public List<ColisDTO> findColisEnRetard() {
-        List<Colis> entities = colisRepository.findColisEnRetard(LocalDateTime.now());
-        return colisMapper.toDTOList(entities);
+        Set<Long> ids = retardTracker.colisEnRetard();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        // Le suivi en mémoire ne voit les écritures hors services qu'à la réconciliation : on revérifie
+        // l'état lu en base, par lots pour borner la liste IN
+        LocalDateTime maintenant = LocalDateTime.now();
+        List<Long> aRelire = new ArrayList<>(ids);
+        List<ColisResume> lus = new ArrayList<>(aRelire.size());
+        for (int i = 0; i < aRelire.size(); i += ColisRetardTracker.TAILLE_LOT_IN) {
+            lus.addAll(colisRepository.findResumesByIdIn(
+                    aRelire.subList(i, Math.min(i + ColisRetardTracker.TAILLE_LOT_IN, aRelire.size()))));
+        }
+        List<ColisResume> resumes = lus.stream()
+                .filter(r -> r.statut() != StatutColis.LIVRE
+                        && r.dateLivraisonPrevue() != null
+                        && r.dateLivraisonPrevue().isBefore(maintenant))
+                .sorted(Comparator.comparing(ColisResume::dateLivraisonPrevue).thenComparing(ColisResume::id))
+                .toList();
+        return colisMapper.resumesToDTOList(resumes);
     }
 
     @Transactional(readOnly = true)
@@ -221,55 +319,101 @@ public class ColisService {
                 .toList();
     }
 
-    private String genererNumeroSuivi() {
-        String numero;
-        do {
-            numero = "COL-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-        } while (colisRepository.existsByNumeroSuivi(numero));
-        return numero;
+    private void creerHistorique(Long colisId, StatutColis statut, String commentaire) {
+        historiqueWriter.enregistrer(colisId, statut, commentaire);
     }
 
-    private void creerHistorique(Colis colis, StatutColis statut, String commentaire) {
-        HistoriqueLivraison historique = new HistoriqueLivraison();
-        historique.setColis(colis);
-        historique.setStatut(statut);
-        historique.setCommentaire(commentaire);
-        historiqueLivraisonRepository.save(historique);
+    @Transactional(readOnly = true)
+    public List<ColisDTO> findByLivreurUsername(String username) {
+        return identityResolver.resolveLivreurId(username)
+                .map(livreurId -> colisMapper.resumesToDTOList(colisRepository.findResumesByLivreurId(livreurId)))
+                .orElseGet(List::of);
     }
 
     @Transactional(readOnly = true)
-    public List<ColisDTO> findByLivreurUsername(String username) {
-        return colisRepository.findAll()
-                .stream()
-                .filter(colis -> colis.getLivreur() != null &&
-                        colis.getLivreur().getTelephone().equals(username))
-                .map(colisMapper::toDTO)
-                .collect(Collectors.toList());
+    public Page<ColisDTO> findByLivreurUsername(String username, Pageable pageable) {
+        return identityResolver.resolveLivreurId(username)
+                .map(livreurId -> colisRepository.findResumesByLivreurId(livreurId, pageable).map(colisMapper::toDTO))
+                .orElseGet(() -> Page.empty(pageable));
     }
 
     @Transactional(readOnly = true)
     public List<ColisDTO> findByClientUsername(String username) {
-        return colisRepository.findAll()
-                .stream()
-                .filter(colis -> colis.getClientExpediteur() != null &&
-                        colis.getClientExpediteur().getEmail().equals(username))
-                .map(colisMapper::toDTO)
-                .collect(Collectors.toList());
+        return identityResolver.resolveClientExpediteurId(username)
+                .map(clientId -> colisMapper.resumesToDTOList(colisRepository.findResumesByClientExpediteurId(clientId)))
+                .orElseGet(List::of);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ColisDTO> findByClientUsername(String username, Pageable pageable) {
+        return identityResolver.resolveClientExpediteurId(username)
+                .map(clientId -> colisRepository.findResumesByClientExpediteurId(clientId, pageable).map(colisMapper::toDTO))
+                .orElseGet(() -> Page.empty(pageable));
+    }
+
+    // ========================================
+    // PAGINATION PAR CLÉ (date_creation, id)
+    // ========================================
+
+    @Transactional(readOnly = true)
+    public CursorPage<ColisDTO> findAll(String cursor, Integer size, boolean withTotal) {
+        Curseur curseur = Curseur.decoderDate(cursor);
+        int taille = Curseur.taille(size);
+        Limit limit = Limit.of(taille + 1);
+
+        List<ColisResume> resumes = curseur == null
+                ? colisRepository.findResumesPremierePage(limit)
+                : colisRepository.findResumesApres(curseur.date(), curseur.id(), limit);
+
+        return toCursorPage(resumes, taille, withTotal ? approximateRowCounter.estimer("colis") : null);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<ColisDTO> findByLivreurUsername(String username, String cursor, Integer size) {
+        Curseur curseur = Curseur.decoderDate(cursor);
+        int taille = Curseur.taille(size);
+        Limit limit = Limit.of(taille + 1);
+
+        List<ColisResume> resumes = identityResolver.resolveLivreurId(username)
+                .map(livreurId -> curseur == null
+                        ? colisRepository.findResumesPremierePageByLivreurId(livreurId, limit)
+                        : colisRepository.findResumesApresByLivreurId(livreurId, curseur.date(), curseur.id(), limit))
+                .orElseGet(List::of);
+
+        return toCursorPage(resumes, taille, null);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<ColisDTO> findByClientUsername(String username, String cursor, Integer size) {
+        Curseur curseur = Curseur.decoderDate(cursor);
+        int taille = Curseur.taille(size);
+        Limit limit = Limit.of(taille + 1);
+
+        List<ColisResume> resumes = identityResolver.resolveClientExpediteurId(username)
+                .map(clientId -> curseur == null
+                        ? colisRepository.findResumesPremierePageByClientExpediteurId(clientId, limit)
+                        : colisRepository.findResumesApresByClientExpediteurId(clientId, curseur.date(), curseur.id(), limit))
+                .orElseGet(List::of);
+
+        return toCursorPage(resumes, taille, null);
+    }
+
+    private CursorPage<ColisDTO> toCursorPage(List<ColisResume> resumes, int taille, Long approximateTotal) {
+        return Curseur.page(resumes, taille, r -> new Curseur(r.dateCreation(), r.id()),
+                colisMapper::toDTO, approximateTotal);
     }
 
     @Transactional(readOnly = true)
     public boolean isAssignedToDeliveryPerson(Long colisId, String username) {
-        return colisRepository.findById(colisId)
-                .map(colis -> colis.getLivreur() != null &&
-                        colis.getLivreur().getTelephone().equals(username))
+        return identityResolver.resolveLivreurId(username)
+                .map(livreurId -> colisRepository.existsByIdAndLivreurId(colisId, livreurId))
                 .orElse(false);
     }
 
     @Transactional(readOnly = true)
     public boolean belongsToClient(Long colisId, String username) {
-        return colisRepository.findById(colisId)
-                .map(colis -> colis.getClientExpediteur() != null &&
-                        colis.getClientExpediteur().getEmail().equals(username))
+        return identityResolver.resolveClientExpediteurId(username)
+                .map(clientId -> colisRepository.existsByIdAndClientExpediteurId(colisId, clientId))
                 .orElse(false);
     }
 
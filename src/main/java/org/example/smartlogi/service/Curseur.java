@@ -0,0 +1,91 @@
+package org.example.smartlogi.service;
+
+import org.example.smartlogi.dto.CursorPage;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Position dans une pagination par clé : dernière (date, id) renvoyée au client.
+ * La date est absente pour les listes triées uniquement par id (données de référence).
+ */
+public record Curseur(LocalDateTime date, Long id) {
+
+    public static final int TAILLE_DEFAUT = 20;
+    public static final int TAILLE_MAX = 200;
+
+    private static final String VERSION = "v1";
+    private static final String SEPARATEUR = "|";
+
+    public static Curseur of(Long id) {
+        return new Curseur(null, id);
+    }
+
+    public String encoder() {
+        String brut = VERSION + SEPARATEUR + (date != null ? date : "") + SEPARATEUR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(brut.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Décode un jeton reçu du client ; null ou vide = première page.
+     */
+    public static Curseur decoder(String jeton) {
+        if (jeton == null || jeton.isBlank()) {
+            return null;
+        }
+        try {
+            String brut = new String(Base64.getUrlDecoder().decode(jeton), StandardCharsets.UTF_8);
+            String[] parties = brut.split("\\|", -1);
+            if (parties.length != 3 || !VERSION.equals(parties[0])) {
+                throw new IllegalArgumentException("Curseur invalide");
+            }
+            LocalDateTime date = parties[1].isEmpty() ? null : LocalDateTime.parse(parties[1]);
+            return new Curseur(date, Long.parseLong(parties[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Curseur invalide");
+        }
+    }
+
+    /**
+     * Décode un curseur qui doit porter une date (listes triées par date puis id).
+     */
+    public static Curseur decoderDate(String jeton) {
+        Curseur curseur = decoder(jeton);
+        if (curseur != null && curseur.date() == null) {
+            throw new IllegalArgumentException("Curseur invalide");
+        }
+        return curseur;
+    }
+
+    public static int taille(Integer size) {
+        if (size == null) {
+            return TAILLE_DEFAUT;
+        }
+        if (size < 1 || size > TAILLE_MAX) {
+            throw new IllegalArgumentException("La taille de page doit être comprise entre 1 et " + TAILLE_MAX);
+        }
+        return size;
+    }
+
+    /**
+     * Construit la page à partir de lignes lues avec une limite size + 1 :
+     * la ligne en trop indique seulement qu'il existe une page suivante.
+     */
+    public static <E, T> CursorPage<T> page(List<E> lignes, int size, Function<E, Curseur> position,
+                                            Function<E, T> mapper, Long approximateTotal) {
+        boolean hasNext = lignes.size() > size;
+        List<E> contenu = hasNext ? lignes.subList(0, size) : lignes;
+
+        return CursorPage.<T>builder()
+                .content(contenu.stream().map(mapper).toList())
+                .size(contenu.size())
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? position.apply(contenu.get(contenu.size() - 1)).encoder() : null)
+                .approximateTotal(approximateTotal)
+                .build();
+    }
+}
@@ -0,0 +1,194 @@
+package org.example.smartlogi.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.smartlogi.dto.ColisResume;
+import org.example.smartlogi.dto.DashboardCellule;
+import org.example.smartlogi.dto.DashboardDTO;
+import org.example.smartlogi.enums.PrioriteColis;
+import org.example.smartlogi.enums.StatutColis;
+import org.example.smartlogi.repository.ColisRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tableau de bord manager : matrice statut x zone x priorité (nombre de colis, poids).
+ * La base n'est interrogée qu'une fois, par une seule requête GROUP BY ; ensuite les compteurs
+ * en mémoire sont tenus à jour par deltas (création, transition, suppression) appliqués après
+ * le commit. Une réconciliation périodique recharge la matrice et corrige toute dérive
+ * (écritures hors application, delta perdu pendant un rechargement).
+ */
+@Service
+@Slf4j
+public class DashboardService {
+
+    private static final String SOURCE_MEMOIRE = "memoire";
+    private static final String SOURCE_BASE = "base";
+
+    private static final Comparator<DashboardCellule> ORDRE_CELLULES = Comparator
+            .comparing(DashboardCellule::statut)
+            .thenComparing(DashboardCellule::zoneId, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(DashboardCellule::priorite);
+
+    private final ColisRepository colisRepository;
+
+    // null tant que la matrice n'a pas été chargée : les deltas sont alors ignorés
+    private volatile Matrice matrice;
+
+    public DashboardService(ColisRepository colisRepository) {
+        this.colisRepository = colisRepository;
+    }
+
+    /**
+     * Matrice servie depuis la mémoire (chargée par une requête au premier appel).
+     */
+    public DashboardDTO tableauDeBord() {
+        Matrice courante = matrice;
+        if (courante == null) {
+            courante = recharger();
+        }
+        return construire(courante.cellules(), SOURCE_MEMOIRE);
+    }
+
+    /**
+     * Matrice lue directement en base (une requête GROUP BY), sans toucher aux compteurs.
+     */
+    public DashboardDTO agreger() {
+        return construire(colisRepository.agregerParStatutZonePriorite(), SOURCE_BASE);
+    }
+
+    @Scheduled(initialDelayString = "${colis.dashboard.reconciliation-ms:300000}",
+            fixedDelayString = "${colis.dashboard.reconciliation-ms:300000}")
+    public void reconcilier() {
+        if (matrice != null) {
+            recharger();
+        }
+    }
+
+    private synchronized Matrice recharger() {
+        Matrice nouvelle = new Matrice();
+        for (DashboardCellule cellule : colisRepository.agregerParStatutZonePriorite()) {
+            nouvelle.ajouter(new Cle(cellule.statut(), cellule.zoneId(), cellule.priorite()), cellule.zoneNom(),
+                    cellule.nombre(), cellule.poids());
+        }
+        matrice = nouvelle;
+        log.debug("Tableau de bord rechargé - {} cellules", nouvelle.compteurs.size());
+        return nouvelle;
+    }
+
+    public void enregistrerCreation(Long zoneId, String zoneNom, PrioriteColis priorite, BigDecimal poids) {
+        appliquer(() -> ajouter(new Cle(StatutColis.CREE, zoneId, priorite), zoneNom, 1, poids));
+    }
+
+    /**
+     * @param ancien statut avant la transition ; le résumé porte le nouveau statut
+     */
+    public void enregistrerTransition(StatutColis ancien, ColisResume resume) {
+        if (ancien == resume.statut()) {
+            return;
+        }
+        appliquer(() -> {
+            ajouter(new Cle(ancien, resume.zoneId(), resume.priorite()), resume.zoneNom(), -1,
+                    resume.poidsTotal().negate());
+            ajouter(new Cle(resume.statut(), resume.zoneId(), resume.priorite()), resume.zoneNom(), 1,
+                    resume.poidsTotal());
+        });
+    }
+
+    public void enregistrerSuppression(ColisResume resume) {
+        appliquer(() -> ajouter(new Cle(resume.statut(), resume.zoneId(), resume.priorite()), resume.zoneNom(), -1,
+                resume.poidsTotal().negate()));
+    }
+
+    private void ajouter(Cle cle, String zoneNom, long nombre, BigDecimal poids) {
+        Matrice courante = matrice;
+        if (courante != null) {
+            courante.ajouter(cle, zoneNom, nombre, poids);
+        }
+    }
+
+    // Une transaction annulée ne doit pas fausser les compteurs
+    private void appliquer(Runnable delta) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    delta.run();
+                }
+            });
+        } else {
+            delta.run();
+        }
+    }
+
+    private DashboardDTO construire(List<DashboardCellule> cellules, String source) {
+        List<DashboardCellule> triees = new ArrayList<>(cellules);
+        triees.sort(ORDRE_CELLULES);
+
+        Map<String, Long> parStatut = new LinkedHashMap<>();
+        for (StatutColis statut : StatutColis.values()) {
+            parStatut.put(statut.name(), 0L);
+        }
+        long total = 0;
+        BigDecimal poidsTotal = BigDecimal.ZERO;
+        for (DashboardCellule cellule : triees) {
+            parStatut.merge(cellule.statut().name(), cellule.nombre(), Long::sum);
+            total += cellule.nombre();
+            poidsTotal = poidsTotal.add(cellule.poids());
+        }
+
+        return DashboardDTO.builder()
+                .genereLe(LocalDateTime.now())
+                .source(source)
+                .totalColis(total)
+                .poidsTotal(poidsTotal)
+                .parStatut(parStatut)
+                .cellules(triees)
+                .build();
+    }
+
+    private record Cle(StatutColis statut, Long zoneId, PrioriteColis priorite) {
+    }
+
+    private static final class Matrice {
+        private final ConcurrentHashMap<Cle, Compteur> compteurs = new ConcurrentHashMap<>();
+
+        private void ajouter(Cle cle, String zoneNom, long nombre, BigDecimal poids) {
+            Compteur compteur = compteurs.computeIfAbsent(cle, c -> new Compteur(zoneNom));
+            compteur.nombre.add(nombre);
+            // Poids en centièmes de kg : addition exacte et sans verrou
+            compteur.poidsCentiemes.add(poids == null ? 0
+                    : poids.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact());
+        }
+
+        private List<DashboardCellule> cellules() {
+            List<DashboardCellule> cellules = new ArrayList<>(compteurs.size());
+            compteurs.forEach((cle, compteur) -> {
+                long nombre = compteur.nombre.sum();
+                if (nombre > 0) {
+                    cellules.add(new DashboardCellule(cle.statut(), cle.zoneId(), compteur.zoneNom, cle.priorite(),
+                            nombre, BigDecimal.valueOf(compteur.poidsCentiemes.sum(), 2)));
+                }
+            });
+            return cellules;
+        }
+    }
+
+    private static final class Compteur {
+        private final String zoneNom;
+        private final LongAdder nombre = new LongAdder();
+        private final LongAdder poidsCentiemes = new LongAdder();
+
+        private Compteur(String zoneNom) {
+            this.zoneNom = zoneNom;
+        }
+    }
+}
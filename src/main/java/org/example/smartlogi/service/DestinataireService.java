@@ -2,10 +2,12 @@ package org.example.smartlogi.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.smartlogi.dto.CursorPage;
 import org.example.smartlogi.dto.DestinataireDTO;
 import org.example.smartlogi.entity.Destinataire;
 import org.example.smartlogi.mapper.DestinataireMapper;
 import org.example.smartlogi.repository.DestinataireRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -68,6 +70,19 @@ public class DestinataireService {
         return entities.map(destinataireMapper::toDTO);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<DestinataireDTO> findAll(String cursor, Integer size, boolean withTotal) {
+        Curseur curseur = Curseur.decoder(cursor);
+        int taille = Curseur.taille(size);
+        log.info("Récupération des destinataires par curseur - Taille: {}", taille);
+
+        List<Destinataire> entities = destinataireRepository.findByIdGreaterThanOrderByIdAsc(
+                curseur != null ? curseur.id() : 0L, Limit.of(taille + 1));
+
+        return Curseur.page(entities, taille, entity -> Curseur.of(entity.getId()), destinataireMapper::toDTO,
+                withTotal ? destinataireRepository.count() : null);
+    }
+
     public DestinataireDTO update(Long id, DestinataireDTO dto) {
         log.info("Mise à jour du destinataire avec l'ID: {}", id);
 
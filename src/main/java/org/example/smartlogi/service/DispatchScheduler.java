@@ -0,0 +1,29 @@
+package org.example.smartlogi.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Déclenchement périodique du dispatch automatique (colis.dispatch.planifie=true).
+ */
+@Component
+@ConditionalOnProperty(name = "colis.dispatch.planifie", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class DispatchScheduler {
+
+    private final DispatchService dispatchService;
+
+    @Scheduled(fixedDelayString = "${colis.dispatch.intervalle-ms:60000}",
+            initialDelayString = "${colis.dispatch.intervalle-ms:60000}")
+    public void executer() {
+        if (dispatchService.estEnCours()) {
+            log.debug("Dispatch planifié ignoré, une exécution est déjà en cours");
+            return;
+        }
+        dispatchService.executer();
+    }
+}
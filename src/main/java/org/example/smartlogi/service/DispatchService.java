@@ -0,0 +1,369 @@
+package org.example.smartlogi.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.smartlogi.dto.ColisResume;
+import org.example.smartlogi.dto.DispatchResultat;
+import org.example.smartlogi.dto.DispatchStats;
+import org.example.smartlogi.enums.ModeDispatch;
+import org.example.smartlogi.enums.PrioriteColis;
+import org.example.smartlogi.enums.StatutColis;
+import org.example.smartlogi.enums.TypeEvenementColis;
+import org.example.smartlogi.enums.TypeVehicule;
+import org.example.smartlogi.exception.BusinessException;
+import org.example.smartlogi.repository.ColisRepository;
+import org.example.smartlogi.repository.ColisTransitionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Assignation automatique des colis non assignés. Chaque exécution reconstruit depuis la base
+ * une file de priorité par zone (TRES_URGENTE > URGENTE > NORMALE, puis date prévue) et lit la charge
+ * active des livreurs (livreur.charge_colis / charge_poids). Les files sont fusionnées par priorité ;
+ * chaque colis va à un livreur de sa zone dont le véhicule peut encore le prendre (poids et nombre,
+ * voir TypeVehicule), choisi selon le mode : équilibrage ou remplissage (best fit).
+ * Les écritures tiennent en une assignation conditionnelle du lot (ColisTransitionRepository),
+ * un lot d'INSERT d'historique et un lot de mises à jour de charge.
+ */
+@Service
+@Slf4j
+public class DispatchService {
+
+    private static final String STATUTS_ASSIGNABLES = StatutColis.EN_TRANSIT.predecesseurs().stream()
+            .map(statut -> "'" + statut.name() + "'")
+            .collect(Collectors.joining(", "));
+
+    // Classement par zone : chaque zone ne remonte que ce que ses livreurs peuvent encore prendre,
+    // une zone saturée ne consomme donc pas la fenêtre des autres
+    private static final String SELECT_CANDIDATS = "SELECT id, zone_id, statut, priorite, date_livraison_prevue, " +
+            "poids_total FROM (SELECT c.id, c.zone_id, c.statut, c.priorite, c.date_livraison_prevue, c.poids_total, " +
+            "z.limite, ROW_NUMBER() OVER (PARTITION BY c.zone_id ORDER BY " +
+            "CASE c.priorite WHEN 'TRES_URGENTE' THEN 0 WHEN 'URGENTE' THEN 1 ELSE 2 END, " +
+            "c.date_livraison_prevue NULLS LAST, c.id) AS rang " +
+            "FROM colis c JOIN (VALUES %s) AS z(zone_id, limite) ON z.zone_id = c.zone_id " +
+            "WHERE c.livreur_id IS NULL AND c.statut IN (" + STATUTS_ASSIGNABLES + ")) candidats " +
+            "WHERE rang <= limite";
+
+    private static final String SELECT_LIVREURS = "SELECT id, zone_assignee_id, nom, prenom, vehicule, " +
+            "charge_colis, charge_poids FROM livreur WHERE actif = TRUE AND zone_assignee_id IS NOT NULL";
+
+    private static final String UPDATE_CHARGE = "UPDATE livreur SET charge_colis = charge_colis + ?, " +
+            "charge_poids = charge_poids + ? WHERE id = ?";
+
+    private static final String INSERT_HISTORIQUE = "INSERT INTO historique_livraison (colis_id, statut, " +
+            "date_changement, commentaire) VALUES (?, ?, ?, ?)";
+
+    private static final Comparator<Candidat> ORDRE_PRIORITE = Comparator
+            .comparing((Candidat c) -> c.priorite().ordinal(), Comparator.reverseOrder())
+            .thenComparing(Candidat::dateLivraisonPrevue, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Candidat::id);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ColisRepository colisRepository;
+    private final ColisTransitionRepository colisTransitionRepository;
+    private final ColisRetardTracker retardTracker;
+    private final SuiviPublicService suiviPublicService;
+    private final ColisEvenementService evenementService;
+    private final DashboardService dashboardService;
+    private final int tailleLot;
+    private final ModeDispatch mode;
+
+    private final ReentrantLock enCours = new ReentrantLock();
+    private long executions;
+    private long totalAssignations;
+    private long dureeMaxMs;
+    private DispatchResultat dernierResultat;
+
+    public DispatchService(JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           ColisRepository colisRepository,
+                           ColisTransitionRepository colisTransitionRepository,
+                           ColisRetardTracker retardTracker,
+                           SuiviPublicService suiviPublicService,
+                           ColisEvenementService evenementService,
+                           DashboardService dashboardService,
+                           @Value("${colis.dispatch.taille-lot:500}") int tailleLot,
+                           @Value("${colis.dispatch.mode:equilibrage}") String mode) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.colisRepository = colisRepository;
+        this.colisTransitionRepository = colisTransitionRepository;
+        this.retardTracker = retardTracker;
+        this.suiviPublicService = suiviPublicService;
+        this.evenementService = evenementService;
+        this.dashboardService = dashboardService;
+        this.tailleLot = tailleLot;
+        this.mode = ModeDispatch.valueOf(mode.trim().toUpperCase());
+    }
+
+    /**
+     * Le verrou englobe la transaction : il n'est relâché qu'après le commit, une exécution
+     * suivante lit donc toujours les assignations de la précédente.
+     */
+    public DispatchResultat executer() {
+        if (!enCours.tryLock()) {
+            throw new BusinessException("Un dispatch est déjà en cours");
+        }
+        try {
+            long debut = System.nanoTime();
+            DispatchResultat resultat = transactionTemplate.execute(status -> dispatcher());
+            long dureeNanos = System.nanoTime() - debut;
+
+            resultat.setDureeMs(dureeNanos / 1_000_000);
+            resultat.setAssignationsParSeconde(dureeNanos > 0
+                    ? resultat.getAssignations() * 1_000_000_000.0 / dureeNanos : 0);
+            enregistrer(resultat);
+
+            log.info("Dispatch terminé - {} assignations, {} conflits, {} colis en attente ({} ms)",
+                    resultat.getAssignations(), resultat.getConflits(), resultat.getNonAssignes(),
+                    resultat.getDureeMs());
+            return resultat;
+        } finally {
+            enCours.unlock();
+        }
+    }
+
+    public boolean estEnCours() {
+        return enCours.isLocked();
+    }
+
+    public synchronized DispatchStats stats() {
+        return DispatchStats.builder()
+                .executions(executions)
+                .totalAssignations(totalAssignations)
+                .dureeMaxMs(dureeMaxMs)
+                .dernierResultat(dernierResultat)
+                .build();
+    }
+
+    private DispatchResultat dispatcher() {
+        Map<Long, List<ChargeLivreur>> livreursParZone = chargerLivreurs();
+        Map<Long, PriorityQueue<Candidat>> filesParZone = chargerCandidats(livreursParZone);
+        int candidats = filesParZone.values().stream().mapToInt(Queue::size).sum();
+
+        List<Assignation> assignations = repartir(filesParZone, livreursParZone);
+        List<Assignation> appliquees = appliquer(assignations);
+
+        return DispatchResultat.builder()
+                .date(LocalDateTime.now())
+                .mode(mode.name())
+                .candidats(candidats)
+                .assignations(appliquees.size())
+                .conflits(assignations.size() - appliquees.size())
+                .nonAssignes(candidats - assignations.size())
+                .build();
+    }
+
+    private Map<Long, PriorityQueue<Candidat>> chargerCandidats(Map<Long, List<ChargeLivreur>> livreursParZone) {
+        Map<Long, PriorityQueue<Candidat>> files = new HashMap<>();
+        if (livreursParZone.isEmpty()) {
+            return files;
+        }
+
+        // Par zone : au plus les places restantes de ses livreurs, et jamais plus qu'un lot
+        List<Object> parametres = new ArrayList<>();
+        livreursParZone.forEach((zoneId, livreurs) -> {
+            parametres.add(zoneId);
+            parametres.add(Math.min(tailleLot, livreurs.stream().mapToInt(ChargeLivreur::placesRestantes).sum()));
+        });
+        String sql = SELECT_CANDIDATS.formatted(
+                String.join(", ", Collections.nCopies(livreursParZone.size(), "(CAST(? AS BIGINT), CAST(? AS INT))")));
+
+        jdbcTemplate.query(sql, rs -> {
+            Timestamp prevue = rs.getTimestamp("date_livraison_prevue");
+            Candidat candidat = new Candidat(
+                    rs.getLong("id"),
+                    rs.getLong("zone_id"),
+                    StatutColis.valueOf(rs.getString("statut")),
+                    PrioriteColis.valueOf(rs.getString("priorite")),
+                    prevue != null ? prevue.toLocalDateTime() : null,
+                    Objects.requireNonNullElse(rs.getBigDecimal("poids_total"), BigDecimal.ZERO));
+            files.computeIfAbsent(candidat.zoneId(), z -> new PriorityQueue<>(ORDRE_PRIORITE)).add(candidat);
+        }, parametres.toArray());
+        return files;
+    }
+
+    private Map<Long, List<ChargeLivreur>> chargerLivreurs() {
+        Map<Long, List<ChargeLivreur>> livreurs = new HashMap<>();
+        jdbcTemplate.query(SELECT_LIVREURS, rs -> {
+            ChargeLivreur charge = new ChargeLivreur(
+                    rs.getLong("id"),
+                    rs.getString("prenom") + " " + rs.getString("nom"),
+                    TypeVehicule.depuis(rs.getString("vehicule")),
+                    rs.getInt("charge_colis"),
+                    rs.getBigDecimal("charge_poids"));
+            if (charge.aDeLaPlace()) {
+                livreurs.computeIfAbsent(rs.getLong("zone_assignee_id"), z -> new ArrayList<>()).add(charge);
+            }
+        });
+        return livreurs;
+    }
+
+    // Fusion des files par zone : on sert toujours la tête la plus prioritaire toutes zones confondues
+    private List<Assignation> repartir(Map<Long, PriorityQueue<Candidat>> filesParZone,
+                                       Map<Long, List<ChargeLivreur>> livreursParZone) {
+        PriorityQueue<PriorityQueue<Candidat>> tetes = new PriorityQueue<>(
+                Comparator.comparing(PriorityQueue::peek, ORDRE_PRIORITE));
+        filesParZone.forEach((zoneId, file) -> {
+            if (livreursParZone.containsKey(zoneId)) {
+                tetes.add(file);
+            }
+        });
+
+        List<Assignation> assignations = new ArrayList<>();
+        while (!tetes.isEmpty() && assignations.size() < tailleLot) {
+            PriorityQueue<Candidat> file = tetes.poll();
+            Candidat candidat = file.poll();
+            List<ChargeLivreur> livreurs = livreursParZone.get(candidat.zoneId());
+
+            // Aucun véhicule ne peut le prendre : le colis reste en attente, les suivants peuvent passer
+            ChargeLivreur livreur = choisir(livreurs, candidat.poids());
+            if (livreur != null) {
+                assignations.add(new Assignation(candidat, livreur));
+                livreur.ajouter(candidat.poids());
+                if (!livreur.aDeLaPlace()) {
+                    livreurs.remove(livreur);
+                }
+            }
+
+            // Zone épuisée (plus de colis ou plus de livreur disponible) : elle sort de la fusion
+            if (!file.isEmpty() && !livreurs.isEmpty()) {
+                tetes.add(file);
+            }
+        }
+        return assignations;
+    }
+
+    // Quelques livreurs par zone : un parcours linéaire suffit
+    private ChargeLivreur choisir(List<ChargeLivreur> livreurs, BigDecimal poids) {
+        ChargeLivreur meilleur = null;
+        for (ChargeLivreur livreur : livreurs) {
+            if (livreur.peutPrendre(poids) && (meilleur == null || prefere(livreur, meilleur, poids))) {
+                meilleur = livreur;
+            }
+        }
+        return meilleur;
+    }
+
+    private boolean prefere(ChargeLivreur livreur, ChargeLivreur actuel, BigDecimal poids) {
+        int comparaison = mode == ModeDispatch.REMPLISSAGE
+                ? livreur.poidsRestant(poids).compareTo(actuel.poidsRestant(poids))
+                : Double.compare(livreur.tauxOccupation(), actuel.tauxOccupation());
+        return comparaison != 0 ? comparaison < 0 : livreur.livreurId < actuel.livreurId;
+    }
+
+    private List<Assignation> appliquer(List<Assignation> assignations) {
+        if (assignations.isEmpty()) {
+            return List.of();
+        }
+
+        // Absent du résultat : le colis a été assigné ou est sorti des statuts assignables depuis la lecture.
+        // Un changement entre deux statuts assignables (CREE -> COLLECTE) ne fait pas échouer l'assignation.
+        Map<Long, StatutColis> anciens = colisTransitionRepository.assignerLot(assignations.stream()
+                        .collect(Collectors.toMap(a -> a.candidat().id(), a -> a.livreur().livreurId)),
+                StatutColis.EN_TRANSIT.predecesseurs());
+
+        List<Assignation> appliquees = assignations.stream()
+                .filter(a -> anciens.containsKey(a.candidat().id()))
+                .toList();
+        if (appliquees.isEmpty()) {
+            return appliquees;
+        }
+
+        Map<ChargeLivreur, List<Assignation>> parLivreur = appliquees.stream()
+                .collect(Collectors.groupingBy(Assignation::livreur));
+        jdbcTemplate.batchUpdate(UPDATE_CHARGE, parLivreur.entrySet().stream()
+                .map(e -> new Object[]{e.getValue().size(),
+                        e.getValue().stream().map(a -> a.candidat().poids()).reduce(BigDecimal.ZERO, BigDecimal::add),
+                        e.getKey().livreurId})
+                .toList());
+
+        LocalDateTime maintenant = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(INSERT_HISTORIQUE, appliquees.stream()
+                .map(a -> new Object[]{a.candidat().id(), StatutColis.EN_TRANSIT.name(), maintenant,
+                        "Assigné automatiquement au livreur " + a.livreur().nom})
+                .toList());
+
+        notifier(appliquees, anciens);
+        return appliquees;
+    }
+
+    private void notifier(List<Assignation> appliquees, Map<Long, StatutColis> anciens) {
+        Map<Long, Assignation> parColis = appliquees.stream()
+                .collect(Collectors.toMap(a -> a.candidat().id(), a -> a));
+        for (ColisResume resume : colisRepository.findResumesByIdIn(parColis.keySet())) {
+            retardTracker.suivre(resume.id(), resume.statut(), resume.dateLivraisonPrevue());
+            dashboardService.enregistrerTransition(anciens.get(resume.id()), resume);
+            suiviPublicService.invalider(resume.numeroSuivi());
+            evenementService.publier(TypeEvenementColis.ASSIGNATION, resume,
+                    "Assigné automatiquement au livreur " + parColis.get(resume.id()).livreur().nom);
+        }
+    }
+
+    private synchronized void enregistrer(DispatchResultat resultat) {
+        executions++;
+        totalAssignations += resultat.getAssignations();
+        dureeMaxMs = Math.max(dureeMaxMs, resultat.getDureeMs());
+        dernierResultat = resultat;
+    }
+
+    record Candidat(long id, long zoneId, StatutColis statut, PrioriteColis priorite,
+                    LocalDateTime dateLivraisonPrevue, BigDecimal poids) {
+    }
+
+    private record Assignation(Candidat candidat, ChargeLivreur livreur) {
+    }
+
+    private static final class ChargeLivreur {
+        private final long livreurId;
+        private final String nom;
+        private final TypeVehicule vehicule;
+        private int nombreColis;
+        private BigDecimal poids;
+
+        private ChargeLivreur(long livreurId, String nom, TypeVehicule vehicule, int nombreColis, BigDecimal poids) {
+            this.livreurId = livreurId;
+            this.nom = nom;
+            this.vehicule = vehicule;
+            this.nombreColis = nombreColis;
+            this.poids = poids != null ? poids : BigDecimal.ZERO;
+        }
+
+        boolean aDeLaPlace() {
+            return nombreColis < vehicule.getColisMax() && poids.compareTo(vehicule.getPoidsMax()) < 0;
+        }
+
+        int placesRestantes() {
+            return Math.max(0, vehicule.getColisMax() - nombreColis);
+        }
+
+        boolean peutPrendre(BigDecimal poidsColis) {
+            return nombreColis < vehicule.getColisMax() && poidsRestant(poidsColis).signum() >= 0;
+        }
+
+        BigDecimal poidsRestant(BigDecimal poidsColis) {
+            return vehicule.getPoidsMax().subtract(poids).subtract(poidsColis);
+        }
+
+        // Dimension la plus contrainte : un livreur à 90 % de son poids est plus chargé qu'un autre à 50 % de ses colis
+        double tauxOccupation() {
+            return Math.max((double) nombreColis / vehicule.getColisMax(),
+                    poids.doubleValue() / vehicule.getPoidsMax().doubleValue());
+        }
+
+        void ajouter(BigDecimal poidsColis) {
+            nombreColis++;
+            poids = poids.add(poidsColis);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.smartlogi.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Attribue les numéros de suivi par blocs réservés dans la séquence numero_suivi_seq.
+ * Chaque nextval réserve [valeur, valeur + taille du bloc) pour ce nœud : aucune requête
+ * par colis et aucun doublon possible entre nœuds. La taille du bloc doit correspondre
+ * à l'INCREMENT BY de la séquence : c'est vérifié au démarrage, sinon deux nœuds
+ * pourraient recevoir des blocs qui se chevauchent.
+ */
+@Component
+@ConditionalOnProperty(name = "colis.numero-suivi.generator", havingValue = "hilo", matchIfMissing = true)
+@Slf4j
+public class HiLoNumeroSuiviGenerator implements NumeroSuiviGenerator {
+
+    private static final String NEXT_BLOCK_SQL = "SELECT nextval('numero_suivi_seq')";
+
+    static final String INCREMENT_SQL = "SELECT CAST(increment AS BIGINT) FROM information_schema.sequences " +
+            "WHERE LOWER(sequence_name) = 'numero_suivi_seq' AND LOWER(sequence_schema) = LOWER(CURRENT_SCHEMA)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int blockSize;
+
+    private long prochain;
+    private long limite;
+
+    public HiLoNumeroSuiviGenerator(JdbcTemplate jdbcTemplate,
+                                    @Value("${colis.numero-suivi.block-size:1000}") int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("La taille de bloc doit être positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.blockSize = blockSize;
+    }
+
+    @PostConstruct
+    public void verifierSequence() {
+        Long increment = jdbcTemplate.queryForObject(INCREMENT_SQL, Long.class);
+        if (increment == null || increment != blockSize) {
+            throw new IllegalStateException("colis.numero-suivi.block-size (" + blockSize
+                    + ") doit être égal à l'INCREMENT BY de numero_suivi_seq (" + increment + ")");
+        }
+    }
+
+    @Override
+    public synchronized String next() {
+        if (prochain >= limite) {
+            reserverBloc();
+        }
+        return NumeroSuivi.formater(prochain++);
+    }
+
+    private void reserverBloc() {
+        Long debut = jdbcTemplate.queryForObject(NEXT_BLOCK_SQL, Long.class);
+        if (debut == null) {
+            throw new IllegalStateException("Impossible de réserver un bloc de numéros de suivi");
+        }
+        prochain = debut;
+        limite = debut + blockSize;
+        log.debug("Bloc de numéros de suivi réservé : [{}, {})", prochain, limite);
+    }
+}
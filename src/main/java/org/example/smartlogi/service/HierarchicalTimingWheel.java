@@ -0,0 +1,127 @@
+package org.example.smartlogi.service;
+
+import java.util.*;
+import java.util.function.LongConsumer;
+
+/**
+ * Roue temporelle hiérarchique (Varghese &amp; Lauck) : chaque niveau compte {@code slots} cases,
+ * une case du niveau n couvre slots^n ticks. Planifier et annuler sont en O(1) ;
+ * avancer d'un tick ne touche que les entrées de la case courante (plus les cascades).
+ * Non thread-safe : l'appelant synchronise.
+ */
+final class HierarchicalTimingWheel {
+
+    private final int slots;
+    private final long[] tailleCase;
+    private final List<List<Set<Long>>> niveaux = new ArrayList<>();
+
+    // Échéance (en ticks) de chaque entrée vivante ; les entrées annulées restent dans
+    // leur case et sont ignorées quand celle-ci est traitée.
+    private final Map<Long, Long> echeances = new HashMap<>();
+
+    // Au-delà de la capacité de la roue
+    private final TreeMap<Long, Set<Long>> debordement = new TreeMap<>();
+
+    private long tickCourant;
+
+    HierarchicalTimingWheel(int slots, int nombreNiveaux, long tickInitial) {
+        this.slots = slots;
+        this.tailleCase = new long[nombreNiveaux];
+        long taille = 1;
+        for (int n = 0; n < nombreNiveaux; n++) {
+            tailleCase[n] = taille;
+            taille *= slots;
+            List<Set<Long>> cases = new ArrayList<>(slots);
+            for (int s = 0; s < slots; s++) {
+                cases.add(new HashSet<>());
+            }
+            niveaux.add(cases);
+        }
+        this.tickCourant = tickInitial;
+    }
+
+    long tickCourant() {
+        return tickCourant;
+    }
+
+    int taille() {
+        return echeances.size();
+    }
+
+    /**
+     * @return false si l'échéance est déjà atteinte (l'entrée n'est pas planifiée)
+     */
+    boolean planifier(long id, long tickEcheance) {
+        if (tickEcheance <= tickCourant) {
+            echeances.remove(id);
+            return false;
+        }
+        echeances.put(id, tickEcheance);
+        placer(id, tickEcheance);
+        return true;
+    }
+
+    void annuler(long id) {
+        echeances.remove(id);
+    }
+
+    /**
+     * Avance jusqu'à {@code tickCible} inclus et signale chaque entrée arrivée à échéance.
+     */
+    void avancer(long tickCible, LongConsumer expiration) {
+        while (tickCourant < tickCible) {
+            tickCourant++;
+
+            for (int n = tailleCase.length - 1; n >= 1; n--) {
+                if (tickCourant % tailleCase[n] == 0) {
+                    cascader(niveaux.get(n).get((int) ((tickCourant / tailleCase[n]) % slots)), expiration);
+                }
+            }
+            while (!debordement.isEmpty() && debordement.firstKey() - tickCourant < capacite()) {
+                cascader(debordement.pollFirstEntry().getValue(), expiration);
+            }
+
+            Set<Long> caseCourante = niveaux.get(0).get((int) (tickCourant % slots));
+            for (Long id : caseCourante) {
+                Long echeance = echeances.get(id);
+                if (echeance != null && echeance == tickCourant) {
+                    echeances.remove(id);
+                    expiration.accept(id);
+                }
+            }
+            caseCourante.clear();
+        }
+    }
+
+    private void cascader(Set<Long> entrees, LongConsumer expiration) {
+        List<Long> aReplacer = new ArrayList<>(entrees);
+        entrees.clear();
+        for (Long id : aReplacer) {
+            Long echeance = echeances.get(id);
+            if (echeance == null) {
+                continue;
+            }
+            if (echeance <= tickCourant) {
+                echeances.remove(id);
+                expiration.accept(id);
+            } else {
+                placer(id, echeance);
+            }
+        }
+    }
+
+    private void placer(long id, long tickEcheance) {
+        long delta = tickEcheance - tickCourant;
+        for (int n = 0; n < tailleCase.length; n++) {
+            if (delta < tailleCase[n] * slots) {
+                niveaux.get(n).get((int) ((tickEcheance / tailleCase[n]) % slots)).add(id);
+                return;
+            }
+        }
+        debordement.computeIfAbsent(tickEcheance, k -> new HashSet<>()).add(id);
+    }
+
+    private long capacite() {
+        return tailleCase[tailleCase.length - 1] * slots;
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.smartlogi.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.smartlogi.dto.CursorPage;
+import org.example.smartlogi.dto.HistoriqueLivraisonDTO;
+import org.example.smartlogi.entity.HistoriqueLivraison;
+import org.example.smartlogi.mapper.HistoriqueLivraisonMapper;
+import org.example.smartlogi.repository.ApproximateRowCounter;
+import org.example.smartlogi.repository.HistoriqueLivraisonRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+@Slf4j
+public class HistoriqueLivraisonService {
+
+    private final HistoriqueLivraisonRepository historiqueLivraisonRepository;
+    private final HistoriqueLivraisonMapper historiqueLivraisonMapper;
+    private final ApproximateRowCounter approximateRowCounter;
+
+    /**
+     * Journal des changements de statut, du plus récent au plus ancien (pagination par clé).
+     */
+    public CursorPage<HistoriqueLivraisonDTO> findAll(Long colisId, String cursor, Integer size, boolean withTotal) {
+        Curseur curseur = Curseur.decoderDate(cursor);
+        int taille = Curseur.taille(size);
+        Limit limit = Limit.of(taille + 1);
+        log.info("Récupération de l'historique par curseur - Colis: {}, Taille: {}", colisId, taille);
+
+        List<HistoriqueLivraison> entities;
+        if (colisId == null) {
+            entities = curseur == null
+                    ? historiqueLivraisonRepository.findPremierePage(limit)
+                    : historiqueLivraisonRepository.findApres(curseur.date(), curseur.id(), limit);
+        } else {
+            entities = curseur == null
+                    ? historiqueLivraisonRepository.findPremierePageByColisId(colisId, limit)
+                    : historiqueLivraisonRepository.findApresByColisId(colisId, curseur.date(), curseur.id(), limit);
+        }
+
+        Long total = withTotal && colisId == null ? approximateRowCounter.estimer("historique_livraison") : null;
+
+        return Curseur.page(entities, taille, h -> new Curseur(h.getDateChangement(), h.getId()),
+                historiqueLivraisonMapper::toDTO, total);
+    }
+}
@@ -0,0 +1,122 @@
+package org.example.smartlogi.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.smartlogi.config.DatabasePlatform;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintenance des partitions mensuelles de historique_livraison (PostgreSQL) :
+ * crée les partitions des mois à venir et archive celles qui dépassent la rétention
+ * (DETACH, copie dans historique_livraison_archive, DROP), une transaction par partition.
+ */
+@Service
+@ConditionalOnProperty(name = "colis.historique.partitions.enabled", havingValue = "true")
+@Slf4j
+public class HistoriquePartitionService {
+
+    private static final String PREFIXE = "historique_livraison_p";
+    private static final Pattern NOM_PARTITION = Pattern.compile("^" + PREFIXE + "(\\d{4})_(\\d{2})$");
+    private static final DateTimeFormatter FORMAT_SUFFIXE = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private static final String COLONNES = "id, colis_id, statut, date_changement, commentaire, utilisateur";
+
+    static final String SELECT_PARTITIONS = "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid " +
+            "WHERE i.inhparent = to_regclass('historique_livraison')";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabasePlatform databasePlatform;
+    private final TransactionTemplate transactionTemplate;
+    private final int moisAvance;
+    private final int retentionMois;
+
+    public HistoriquePartitionService(JdbcTemplate jdbcTemplate,
+                                      DatabasePlatform databasePlatform,
+                                      PlatformTransactionManager transactionManager,
+                                      @Value("${colis.historique.partitions.mois-avance:3}") int moisAvance,
+                                      @Value("${colis.historique.retention-mois:12}") int retentionMois) {
+        if (moisAvance < 0 || retentionMois < 1) {
+            throw new IllegalArgumentException("Configuration des partitions d'historique invalide");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.databasePlatform = databasePlatform;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.moisAvance = moisAvance;
+        this.retentionMois = retentionMois;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${colis.historique.archivage.cron:0 30 2 * * *}")
+    public void maintenir() {
+        if (!databasePlatform.isPostgres()) {
+            log.warn("Partitionnement de l'historique ignoré : base non PostgreSQL");
+            return;
+        }
+        YearMonth courant = YearMonth.now();
+        creerPartitions(courant);
+        int archivees = archiverPartitions(courant.minusMonths(retentionMois));
+        log.info("Maintenance des partitions d'historique terminée - {} partition(s) archivée(s)", archivees);
+    }
+
+    private void creerPartitions(YearMonth courant) {
+        for (int i = 0; i <= moisAvance; i++) {
+            YearMonth mois = courant.plusMonths(i);
+            try {
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + nomPartition(mois) +
+                        " PARTITION OF historique_livraison FOR VALUES FROM ('" + mois.atDay(1) +
+                        "') TO ('" + mois.plusMonths(1).atDay(1) + "')");
+            } catch (DataAccessException e) {
+                // Typiquement : des lignes de ce mois sont déjà dans la partition par défaut
+                log.error("Impossible de créer la partition d'historique {}", nomPartition(mois), e);
+            }
+        }
+    }
+
+    private int archiverPartitions(YearMonth limite) {
+        List<String> aArchiver = partitionsAArchiver(jdbcTemplate.queryForList(SELECT_PARTITIONS, String.class), limite);
+        for (String partition : aArchiver) {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.execute("ALTER TABLE historique_livraison DETACH PARTITION " + partition);
+                int lignes = jdbcTemplate.update("INSERT INTO historique_livraison_archive (" + COLONNES + ") " +
+                        "SELECT " + COLONNES + " FROM " + partition);
+                jdbcTemplate.execute("DROP TABLE " + partition);
+                log.info("Partition {} archivée - {} lignes", partition, lignes);
+            });
+        }
+        return aArchiver.size();
+    }
+
+    static String nomPartition(YearMonth mois) {
+        return PREFIXE + mois.format(FORMAT_SUFFIXE);
+    }
+
+    /**
+     * Partitions mensuelles strictement antérieures au mois limite (les autres noms sont ignorés).
+     */
+    static List<String> partitionsAArchiver(List<String> partitions, YearMonth limite) {
+        return partitions.stream()
+                .filter(nom -> {
+                    Matcher matcher = NOM_PARTITION.matcher(nom);
+                    return matcher.matches()
+                            && YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)))
+                            .isBefore(limite);
+                })
+                .sorted()
+                .toList();
+    }
+}
@@ -0,0 +1,14 @@
+package org.example.smartlogi.service;
+
+import org.example.smartlogi.dto.HistoriqueWriterStats;
+import org.example.smartlogi.enums.StatutColis;
+
+/**
+ * Écriture des lignes historique_livraison produites par les changements de statut.
+ */
+public interface HistoriqueWriter {
+
+    void enregistrer(Long colisId, StatutColis statut, String commentaire);
+
+    HistoriqueWriterStats stats();
+}
@@ -0,0 +1,334 @@
+package org.example.smartlogi.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Rejeu des requêtes POST/PATCH portant un en-tête Idempotency-Key (reprises des mobiles).
+ * La clé est d'abord réservée en base (transaction séparée, visible par toutes les instances),
+ * puis l'action et l'enregistrement de sa réponse sont validés dans la même transaction :
+ * une réponse mémorisée correspond toujours à des écritures effectivement commitées.
+ * Un doublon arrivant pendant l'exécution attend la première requête (localement sur un
+ * CompletableFuture, sinon en relisant la base) puis rejoue sa réponse sans toucher aux
+ * tables métier. Les réponses récentes sont aussi gardées dans un LRU borné en mémoire.
+ * La réservation porte un bail (colis.idempotence.bail-ms) renouvelé tant que l'action
+ * s'exécute : seule une réservation abandonnée (instance arrêtée) expire et peut être reprise.
+ */
+@Service
+@Slf4j
+public class IdempotenceService {
+
+    public static final String EN_TETE = "Idempotency-Key";
+    public static final String EN_TETE_REJEU = "Idempotent-Replayed";
+
+    private static final int LONGUEUR_MAX_CLE = 100;
+    private static final long INTERVALLE_RELECTURE_MS = 50;
+
+    private static final String SELECT_REPONSE = "SELECT empreinte, statut_http, corps, expire_a " +
+            "FROM idempotence WHERE cle = ?";
+
+    private static final String INSERT_RESERVATION = "INSERT INTO idempotence (cle, empreinte, date_creation, " +
+            "expire_a) VALUES (?, ?, ?, ?)";
+
+    private static final String UPDATE_REPONSE = "UPDATE idempotence SET statut_http = ?, corps = ?, expire_a = ? " +
+            "WHERE cle = ?";
+
+    private static final String RENOUVELER_BAIL = "UPDATE idempotence SET expire_a = ? " +
+            "WHERE cle = ? AND statut_http IS NULL";
+
+    private static final String DELETE_EXPIREE = "DELETE FROM idempotence WHERE cle = ? AND expire_a < ?";
+
+    private static final String DELETE_RESERVATION = "DELETE FROM idempotence WHERE cle = ? AND statut_http IS NULL";
+
+    private static final String PURGER = "DELETE FROM idempotence WHERE expire_a < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate nouvelleTransaction;
+    private final ObjectMapper objectMapper;
+    private final long ttlMillis;
+    private final long attenteMillis;
+    private final long bailMillis;
+    private final Map<String, Reponse> cache;
+    private final ConcurrentHashMap<String, CompletableFuture<Void>> enCours = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService renouvellement = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "idempotence-bail");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public IdempotenceService(JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper,
+                              @Value("${colis.idempotence.taille-max:10000}") int tailleMax,
+                              @Value("${colis.idempotence.ttl-heures:24}") long ttlHeures,
+                              @Value("${colis.idempotence.attente-ms:10000}") long attenteMillis,
+                              @Value("${colis.idempotence.bail-ms:300000}") long bailMillis) {
+        if (bailMillis <= attenteMillis) {
+            throw new IllegalArgumentException("Le bail d'idempotence (" + bailMillis
+                    + " ms) doit dépasser l'attente des doublons (" + attenteMillis + " ms)");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.nouvelleTransaction = new TransactionTemplate(transactionManager);
+        this.nouvelleTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.objectMapper = objectMapper;
+        this.ttlMillis = TimeUnit.HOURS.toMillis(ttlHeures);
+        this.attenteMillis = attenteMillis;
+        this.bailMillis = bailMillis;
+        this.cache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Reponse> eldest) {
+                return size() > tailleMax;
+            }
+        };
+    }
+
+    /**
+     * Exécute l'action une seule fois par clé ; sans clé, l'action est exécutée directement.
+     *
+     * @param portee  espace de la clé (opération et utilisateur) : une même clé ne peut pas rejouer
+     *                la réponse d'un autre utilisateur ou d'un autre endpoint
+     * @param requete paramètres de la requête ; une clé réutilisée avec d'autres paramètres est refusée (422)
+     * @param type    type du corps de réponse, pour le rejeu
+     */
+    public <T> ResponseEntity<T> executer(String cle, String portee, Object requete, Class<T> type,
+                                          Supplier<ResponseEntity<T>> action) {
+        if (cle == null || cle.isBlank()) {
+            return action.get();
+        }
+        if (cle.length() > LONGUEUR_MAX_CLE) {
+            throw new IllegalArgumentException("La clé d'idempotence ne peut pas dépasser " + LONGUEUR_MAX_CLE
+                    + " caractères");
+        }
+
+        String cleComplete = portee + ":" + cle;
+        String empreinte = empreinte(requete);
+        long limite = System.currentTimeMillis() + attenteMillis;
+
+        while (true) {
+            Reponse memorisee = lireCache(cleComplete);
+            if (memorisee != null) {
+                return rejouer(memorisee, empreinte, type);
+            }
+
+            CompletableFuture<Void> moi = new CompletableFuture<>();
+            CompletableFuture<Void> premier = enCours.putIfAbsent(cleComplete, moi);
+            if (premier != null) {
+                // Doublon sur cette instance : on attend la fin de la première requête puis on relit
+                if (!attendre(premier, limite)) {
+                    return ResponseEntity.status(HttpStatus.CONFLICT).build();
+                }
+                continue;
+            }
+
+            try {
+                ResponseEntity<T> reponse = executerPremier(cleComplete, empreinte, type, action, limite);
+                if (reponse != null) {
+                    return reponse;
+                }
+            } finally {
+                enCours.remove(cleComplete, moi);
+                moi.complete(null);
+            }
+            // La requête d'une autre instance a échoué : la clé est libre, on retente
+        }
+    }
+
+    // null : la réservation d'une autre instance a été libérée, la clé peut être retentée
+    private <T> ResponseEntity<T> executerPremier(String cle, String empreinte, Class<T> type,
+                                                  Supplier<ResponseEntity<T>> action, long limite) {
+        if (!reserver(cle, empreinte)) {
+            while (System.currentTimeMillis() < limite) {
+                List<Reponse> lues = lire(cle);
+                if (lues.isEmpty()) {
+                    return null;
+                }
+                Reponse existante = lues.get(0);
+                if (existante.statutHttp() != null) {
+                    memoriser(cle, existante);
+                    return rejouer(existante, empreinte, type);
+                }
+                if (!existante.empreinte().equals(empreinte)) {
+                    return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).build();
+                }
+                pause();
+            }
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+
+        // Renouvelé au tiers du bail : une action plus longue que le bail garde sa réservation
+        long periode = Math.max(1, bailMillis / 3);
+        ScheduledFuture<?> bail = renouvellement.scheduleAtFixedRate(() -> renouveler(cle),
+                periode, periode, TimeUnit.MILLISECONDS);
+        Reponse[] enregistree = new Reponse[1];
+        ResponseEntity<T> reponse;
+        try {
+            reponse = transactionTemplate.execute(status -> {
+                ResponseEntity<T> resultat = action.get();
+                long expireA = System.currentTimeMillis() + ttlMillis;
+                String corps = serialiser(resultat.getBody());
+                jdbcTemplate.update(UPDATE_REPONSE, resultat.getStatusCode().value(), corps,
+                        new Timestamp(expireA), cle);
+                enregistree[0] = new Reponse(empreinte, resultat.getStatusCode().value(), corps, expireA);
+                return resultat;
+            });
+        } catch (RuntimeException e) {
+            // Rien n'a été commité : une nouvelle tentative pourra s'exécuter
+            bail.cancel(false);
+            liberer(cle);
+            throw e;
+        }
+        bail.cancel(false);
+
+        memoriser(cle, enregistree[0]);
+        return reponse;
+    }
+
+    private boolean reserver(String cle, String empreinte) {
+        long maintenant = System.currentTimeMillis();
+        try {
+            nouvelleTransaction.executeWithoutResult(status -> {
+                jdbcTemplate.update(DELETE_EXPIREE, cle, new Timestamp(maintenant));
+                // Une réservation abandonnée (instance arrêtée) n'est plus renouvelée et finit par expirer
+                jdbcTemplate.update(INSERT_RESERVATION, cle, empreinte, new Timestamp(maintenant),
+                        new Timestamp(maintenant + bailMillis));
+            });
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private void renouveler(String cle) {
+        try {
+            jdbcTemplate.update(RENOUVELER_BAIL, new Timestamp(System.currentTimeMillis() + bailMillis), cle);
+        } catch (RuntimeException e) {
+            log.warn("Impossible de renouveler le bail de la clé d'idempotence {} : {}", cle, e.getMessage());
+        }
+    }
+
+    private void liberer(String cle) {
+        try {
+            nouvelleTransaction.executeWithoutResult(status -> jdbcTemplate.update(DELETE_RESERVATION, cle));
+        } catch (RuntimeException e) {
+            log.warn("Impossible de libérer la clé d'idempotence {} : {}", cle, e.getMessage());
+        }
+    }
+
+    private List<Reponse> lire(String cle) {
+        return jdbcTemplate.query(SELECT_REPONSE, (rs, i) -> new Reponse(
+                rs.getString("empreinte"),
+                (Integer) rs.getObject("statut_http"),
+                rs.getString("corps"),
+                rs.getTimestamp("expire_a").getTime()), cle);
+    }
+
+    private <T> ResponseEntity<T> rejouer(Reponse reponse, String empreinte, Class<T> type) {
+        if (!reponse.empreinte().equals(empreinte)) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).build();
+        }
+        try {
+            T corps = reponse.corps() != null ? objectMapper.readValue(reponse.corps(), type) : null;
+            return ResponseEntity.status(reponse.statutHttp()).header(EN_TETE_REJEU, "true").body(corps);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Réponse mémorisée illisible", e);
+        }
+    }
+
+    private Reponse lireCache(String cle) {
+        synchronized (cache) {
+            Reponse reponse = cache.get(cle);
+            if (reponse != null && reponse.expireA() <= System.currentTimeMillis()) {
+                cache.remove(cle);
+                return null;
+            }
+            return reponse;
+        }
+    }
+
+    private void memoriser(String cle, Reponse reponse) {
+        synchronized (cache) {
+            cache.put(cle, reponse);
+        }
+    }
+
+    private boolean attendre(CompletableFuture<Void> premier, long limite) {
+        try {
+            premier.get(Math.max(0, limite - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            return true;
+        }
+    }
+
+    private static void pause() {
+        try {
+            Thread.sleep(INTERVALLE_RELECTURE_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String serialiser(Object corps) {
+        try {
+            return corps != null ? objectMapper.writeValueAsString(corps) : null;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Réponse non sérialisable", e);
+        }
+    }
+
+    private String empreinte(Object requete) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(
+                    objectMapper.writeValueAsString(requete).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Empreinte de requête impossible", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${colis.idempotence.purge-ms:3600000}")
+    public void purger() {
+        int supprimees = jdbcTemplate.update(PURGER, new Timestamp(System.currentTimeMillis()));
+        if (supprimees > 0) {
+            log.debug("{} clés d'idempotence expirées supprimées", supprimees);
+        }
+    }
+
+    @PreDestroy
+    public void arreter() {
+        renouvellement.shutdownNow();
+    }
+
+    private record Reponse(String empreinte, Integer statutHttp, String corps, long expireA) {
+    }
+}
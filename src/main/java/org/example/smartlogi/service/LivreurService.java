@@ -2,12 +2,14 @@ package org.example.smartlogi.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.smartlogi.dto.CursorPage;
 import org.example.smartlogi.dto.LivreurDTO;
 import org.example.smartlogi.entity.Livreur;
 import org.example.smartlogi.entity.Zone;
 import org.example.smartlogi.mapper.LivreurMapper;
 import org.example.smartlogi.repository.LivreurRepository;
 import org.example.smartlogi.repository.ZoneRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -83,6 +85,19 @@ public class LivreurService {
         return entities.map(livreurMapper::toDTO);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<LivreurDTO> findAll(String cursor, Integer size, boolean withTotal) {
+        Curseur curseur = Curseur.decoder(cursor);
+        int taille = Curseur.taille(size);
+        log.info("Récupération des livreurs par curseur - Taille: {}", taille);
+
+        List<Livreur> entities = livreurRepository.findByIdGreaterThanOrderByIdAsc(
+                curseur != null ? curseur.id() : 0L, Limit.of(taille + 1));
+
+        return Curseur.page(entities, taille, entity -> Curseur.of(entity.getId()), livreurMapper::toDTO,
+                withTotal ? livreurRepository.count() : null);
+    }
+
     public LivreurDTO update(Long id, LivreurDTO dto) {
         log.info("Mise à jour du livreur avec l'ID: {}", id);
 
@@ -0,0 +1,125 @@
+package org.example.smartlogi.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.*;
+
+/**
+ * Index trigrammes en mémoire, utilisé quand la base n'offre pas pg_trgm (profil H2).
+ * Les colis sont indexés au fil de l'eau (id > dernier id indexé) à chaque recherche ;
+ * numéro, ville et description n'étant pas modifiés après création, l'index reste à jour.
+ * Les colis supprimés en sont retirés après le commit de la suppression.
+ */
+@Component
+@ConditionalOnProperty(name = "colis.recherche.moteur", havingValue = "ngram")
+@RequiredArgsConstructor
+@Slf4j
+public class NGramColisRechercheIndex implements ColisRechercheIndex {
+
+    // Poids des champs : numéro de suivi, ville, description
+    private static final double[] POIDS = {3, 2, 1};
+
+    private static final double SEUIL_SIMILARITE = 0.35;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final List<Map<String, Set<Long>>> index = List.of(new HashMap<>(), new HashMap<>(), new HashMap<>());
+
+    private long dernierIdIndexe = 0;
+
+    @Override
+    public synchronized Page<Resultat> rechercher(String motCle, Pageable pageable) {
+        rafraichir();
+
+        Set<String> trigrammesRecherche = trigrammes(motCle);
+        if (trigrammesRecherche.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        Map<Long, double[]> similarites = new HashMap<>();
+        for (int champ = 0; champ < POIDS.length; champ++) {
+            for (String trigramme : trigrammesRecherche) {
+                for (Long id : index.get(champ).getOrDefault(trigramme, Set.of())) {
+                    similarites.computeIfAbsent(id, k -> new double[POIDS.length])[champ]++;
+                }
+            }
+        }
+
+        List<Resultat> resultats = new ArrayList<>();
+        similarites.forEach((id, communs) -> {
+            double score = 0;
+            boolean pertinent = false;
+            for (int champ = 0; champ < POIDS.length; champ++) {
+                double similarite = communs[champ] / trigrammesRecherche.size();
+                if (similarite >= SEUIL_SIMILARITE) {
+                    pertinent = true;
+                    score += POIDS[champ] * similarite;
+                }
+            }
+            if (pertinent) {
+                resultats.add(new Resultat(id, score));
+            }
+        });
+
+        resultats.sort(Comparator.comparingDouble(Resultat::score).reversed()
+                .thenComparing(Comparator.comparing(Resultat::colisId).reversed()));
+
+        int debut = (int) Math.min(pageable.getOffset(), resultats.size());
+        int fin = Math.min(debut + pageable.getPageSize(), resultats.size());
+        return new PageImpl<>(resultats.subList(debut, fin), pageable, resultats.size());
+    }
+
+    @Override
+    public synchronized void retirer(Long colisId) {
+        for (Map<String, Set<Long>> champ : index) {
+            champ.values().removeIf(ids -> ids.remove(colisId) && ids.isEmpty());
+        }
+    }
+
+    private void rafraichir() {
+        jdbcTemplate.query("SELECT id, numero_suivi, ville_destination, description FROM colis WHERE id > ? ORDER BY id",
+                rs -> {
+                    long id = rs.getLong("id");
+                    indexer(0, id, rs.getString("numero_suivi"));
+                    indexer(1, id, rs.getString("ville_destination"));
+                    indexer(2, id, rs.getString("description"));
+                    dernierIdIndexe = Math.max(dernierIdIndexe, id);
+                },
+                dernierIdIndexe);
+        log.debug("Index n-grammes des colis à jour jusqu'à l'id {}", dernierIdIndexe);
+    }
+
+    private void indexer(int champ, long id, String texte) {
+        for (String trigramme : trigrammes(texte)) {
+            index.get(champ).computeIfAbsent(trigramme, k -> new HashSet<>()).add(id);
+        }
+    }
+
+    // Même découpage que pg_trgm : chaque mot est entouré de deux espaces devant, un derrière
+    static Set<String> trigrammes(String texte) {
+        Set<String> resultat = new HashSet<>();
+        if (texte == null) {
+            return resultat;
+        }
+        String normalise = Normalizer.normalize(texte.toLowerCase(Locale.ROOT), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "");
+        for (String mot : normalise.split("[^a-z0-9]+")) {
+            if (mot.isEmpty()) {
+                continue;
+            }
+            String borne = "  " + mot + " ";
+            for (int i = 0; i + 3 <= borne.length(); i++) {
+                resultat.add(borne.substring(i, i + 3));
+            }
+        }
+        return resultat;
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.smartlogi.service;
+
+/**
+ * Format des numéros de suivi : "COL-" + 10 chiffres + 1 chiffre de contrôle (Luhn).
+ */
+public final class NumeroSuivi {
+
+    public static final String PREFIXE = "COL-";
+
+    private static final int LONGUEUR_NUMERO = 10;
+
+    private NumeroSuivi() {
+    }
+
+    public static String formater(long valeur) {
+        if (valeur < 0 || String.valueOf(valeur).length() > LONGUEUR_NUMERO) {
+            throw new IllegalArgumentException("Valeur de numéro de suivi hors limites: " + valeur);
+        }
+        String chiffres = String.format("%0" + LONGUEUR_NUMERO + "d", valeur);
+        return PREFIXE + chiffres + chiffreControle(chiffres);
+    }
+
+    public static boolean estValide(String numeroSuivi) {
+        if (numeroSuivi == null
+                || !numeroSuivi.startsWith(PREFIXE)
+                || numeroSuivi.length() != PREFIXE.length() + LONGUEUR_NUMERO + 1) {
+            return false;
+        }
+        String corps = numeroSuivi.substring(PREFIXE.length());
+        for (int i = 0; i < corps.length(); i++) {
+            if (!Character.isDigit(corps.charAt(i))) {
+                return false;
+            }
+        }
+        String chiffres = corps.substring(0, LONGUEUR_NUMERO);
+        return corps.charAt(LONGUEUR_NUMERO) - '0' == chiffreControle(chiffres);
+    }
+
+    static int chiffreControle(String chiffres) {
+        int somme = 0;
+        boolean doubler = true;
+        for (int i = chiffres.length() - 1; i >= 0; i--) {
+            int chiffre = chiffres.charAt(i) - '0';
+            if (doubler) {
+                chiffre *= 2;
+                if (chiffre > 9) {
+                    chiffre -= 9;
+                }
+            }
+            somme += chiffre;
+            doubler = !doubler;
+        }
+        return (10 - somme % 10) % 10;
+    }
+}
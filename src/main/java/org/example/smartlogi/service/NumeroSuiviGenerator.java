@@ -0,0 +1,20 @@
+package org.example.smartlogi.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stratégie d'attribution des numéros de suivi des colis.
+ */
+public interface NumeroSuiviGenerator {
+
+    String next();
+
+    default List<String> next(int count) {
+        List<String> numeros = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            numeros.add(next());
+        }
+        return numeros;
+    }
+}
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import org.example.smartlogi.dto.PermissionDTO;
 import org.example.smartlogi.entity.Permission;
 import org.example.smartlogi.repository.PermissionRepository;
+import org.example.smartlogi.security.service.AuthorityCache;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,6 +17,7 @@ import java.util.stream.Collectors;
 public class PermissionService {
 
     private final PermissionRepository permissionRepository;
+    private final AuthorityCache authorityCache;
 
     public List<PermissionDTO> findAll() {
         return permissionRepository.findAll()
@@ -58,6 +60,7 @@ public class PermissionService {
         permission.setDescription(permissionDTO.getDescription());
 
         Permission updated = permissionRepository.save(permission);
+        authorityCache.invaliderRoles();
         return toDTO(updated);
     }
 
@@ -67,6 +70,7 @@ public class PermissionService {
             throw new RuntimeException("Permission not found with id: " + id);
         }
         permissionRepository.deleteById(id);
+        authorityCache.invaliderRoles();
     }
 
     private PermissionDTO toDTO(Permission permission) {
@@ -0,0 +1,67 @@
+package org.example.smartlogi.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Recherche PostgreSQL : plein texte sur la colonne générée colis.recherche (tsvector)
+ * et similarité trigrammes (pg_trgm) pour les fautes de frappe, tous deux indexés en GIN.
+ */
+@Component
+@ConditionalOnProperty(name = "colis.recherche.moteur", havingValue = "postgres", matchIfMissing = true)
+@RequiredArgsConstructor
+public class PostgresColisRechercheIndex implements ColisRechercheIndex {
+
+    private static final String FROM_WHERE = "FROM colis c, websearch_to_tsquery('french', :q) AS tsq " +
+            "WHERE c.recherche @@ tsq " +
+            "OR lower(c.numero_suivi) LIKE :prefixe " +
+            "OR lower(c.numero_suivi) % :kw " +
+            "OR :kw <% lower(c.ville_destination) " +
+            "OR :kw <% lower(c.description) ";
+
+    private static final String SELECT = "SELECT c.id, " +
+            "ts_rank(c.recherche, tsq) " +
+            "+ 3 * similarity(lower(c.numero_suivi), :kw) " +
+            "+ 2 * word_similarity(:kw, lower(c.ville_destination)) " +
+            "+ word_similarity(:kw, lower(coalesce(c.description, ''))) AS score " +
+            FROM_WHERE +
+            "ORDER BY score DESC, c.id DESC LIMIT :limit OFFSET :offset";
+
+    private static final String COUNT = "SELECT COUNT(*) " + FROM_WHERE;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public Page<Resultat> rechercher(String motCle, Pageable pageable) {
+        String kw = motCle.toLowerCase();
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("q", motCle)
+                .addValue("kw", kw)
+                .addValue("prefixe", echapperLike(kw) + "%")
+                .addValue("limit", pageable.getPageSize())
+                .addValue("offset", pageable.getOffset());
+
+        List<Resultat> resultats = jdbcTemplate.query(SELECT, params,
+                (rs, i) -> new Resultat(rs.getLong("id"), rs.getDouble("score")));
+        Long total = jdbcTemplate.queryForObject(COUNT, params, Long.class);
+
+        return new PageImpl<>(resultats, pageable, total != null ? total : 0L);
+    }
+
+    @Override
+    public void retirer(Long colisId) {
+        // Index porté par la table colis : la ligne supprimée disparaît avec elle
+    }
+
+    private static String echapperLike(String valeur) {
+        return valeur.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
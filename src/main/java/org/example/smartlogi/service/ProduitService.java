@@ -2,10 +2,12 @@ package org.example.smartlogi.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.smartlogi.dto.CursorPage;
 import org.example.smartlogi.dto.ProduitDTO;
 import org.example.smartlogi.entity.Produit;
 import org.example.smartlogi.mapper.ProduitMapper;
 import org.example.smartlogi.repository.ProduitRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -68,6 +70,19 @@ public class ProduitService {
         return entities.map(produitMapper::toDTO);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<ProduitDTO> findAll(String cursor, Integer size, boolean withTotal) {
+        Curseur curseur = Curseur.decoder(cursor);
+        int taille = Curseur.taille(size);
+        log.info("Récupération des produits par curseur - Taille: {}", taille);
+
+        List<Produit> entities = produitRepository.findByIdGreaterThanOrderByIdAsc(
+                curseur != null ? curseur.id() : 0L, Limit.of(taille + 1));
+
+        return Curseur.page(entities, taille, entity -> Curseur.of(entity.getId()), produitMapper::toDTO,
+                withTotal ? produitRepository.count() : null);
+    }
+
     public ProduitDTO update(Long id, ProduitDTO dto) {
         log.info("Mise à jour du produit avec l'ID: {}", id);
 
@@ -7,6 +7,7 @@ import org.example.smartlogi.entity.Permission;
 import org.example.smartlogi.entity.Role;
 import org.example.smartlogi.repository.PermissionRepository;
 import org.example.smartlogi.repository.RoleRepository;
+import org.example.smartlogi.security.service.AuthorityCache;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,6 +22,7 @@ public class RoleService {
 
     private final RoleRepository roleRepository;
     private final PermissionRepository permissionRepository;
+    private final AuthorityCache authorityCache;
 
     public List<RoleDTO> findAll() {
         return roleRepository.findAll()
@@ -72,6 +74,7 @@ public class RoleService {
             throw new RuntimeException("Role not found with id: " + id);
         }
         roleRepository.deleteById(id);
+        authorityCache.invaliderRole(id);
     }
 
     @Transactional
@@ -84,6 +87,7 @@ public class RoleService {
 
         role.getPermissions().add(permission);
         Role updated = roleRepository.save(role);
+        authorityCache.invaliderRole(roleId);
 
         return toDTO(updated);
     }
@@ -98,6 +102,7 @@ public class RoleService {
 
         role.getPermissions().remove(permission);
         Role updated = roleRepository.save(role);
+        authorityCache.invaliderRole(roleId);
 
         return toDTO(updated);
     }
@@ -0,0 +1,136 @@
+package org.example.smartlogi.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.smartlogi.dto.ColisResume;
+import org.example.smartlogi.dto.SuiviPublicDTO;
+import org.example.smartlogi.repository.ColisRepository;
+import org.example.smartlogi.repository.HistoriqueLivraisonRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Suivi public par numéro, servi depuis un cache LRU borné en mémoire.
+ * Les changements de statut invalident l'entrée (immédiatement et après commit), et une
+ * lecture commencée avant une invalidation n'est pas mise en cache ; la durée de vie couvre les écritures qui ne passent pas par ColisService.
+ */
+@Service
+@Slf4j
+public class SuiviPublicService {
+
+    private static final Pattern FORMAT_NUMERO = Pattern.compile("^[A-Za-z0-9-]{4,50}$");
+
+    // Numéros au format actuel : la clé de contrôle permet d'écarter les fautes de frappe sans requête
+    private static final Pattern FORMAT_ACTUEL = Pattern.compile("^" + NumeroSuivi.PREFIXE + "\\d{11}$");
+
+    private final ColisRepository colisRepository;
+    private final HistoriqueLivraisonRepository historiqueLivraisonRepository;
+    private final long ttlMillis;
+    private final Map<String, Entree> cache;
+    // Incrémentée à chaque invalidation : un chargement commencé avant n'est pas mis en cache
+    private final AtomicLong generation = new AtomicLong();
+
+    public SuiviPublicService(ColisRepository colisRepository,
+                              HistoriqueLivraisonRepository historiqueLivraisonRepository,
+                              @Value("${colis.suivi-public.cache.taille-max:10000}") int tailleMax,
+                              @Value("${colis.suivi-public.cache.ttl-secondes:60}") long ttlSecondes) {
+        this.colisRepository = colisRepository;
+        this.historiqueLivraisonRepository = historiqueLivraisonRepository;
+        this.ttlMillis = ttlSecondes * 1000;
+        this.cache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entree> eldest) {
+                return size() > tailleMax;
+            }
+        };
+    }
+
+    /**
+     * Vue de suivi et son ETag ; vide si le numéro est mal formé ou inconnu.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Entree> trouver(String numeroSuivi) {
+        if (numeroSuivi == null || !FORMAT_NUMERO.matcher(numeroSuivi).matches()
+                || (FORMAT_ACTUEL.matcher(numeroSuivi).matches() && !NumeroSuivi.estValide(numeroSuivi))) {
+            return Optional.empty();
+        }
+
+        long maintenant = System.currentTimeMillis();
+        synchronized (cache) {
+            Entree entree = cache.get(numeroSuivi);
+            if (entree != null && entree.expireA() > maintenant) {
+                return Optional.of(entree);
+            }
+        }
+
+        long generationLue = generation.get();
+        Optional<Entree> chargee = charger(numeroSuivi, maintenant);
+        chargee.ifPresent(entree -> {
+            synchronized (cache) {
+                if (generation.get() == generationLue) {
+                    cache.put(numeroSuivi, entree);
+                }
+            }
+        });
+        return chargee;
+    }
+
+    public void invalider(String numeroSuivi) {
+        retirer(numeroSuivi);
+        // Une lecture concurrente a pu remettre l'ancien état avant le commit
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    retirer(numeroSuivi);
+                }
+            });
+        }
+    }
+
+    private void retirer(String numeroSuivi) {
+        synchronized (cache) {
+            generation.incrementAndGet();
+            cache.remove(numeroSuivi);
+        }
+    }
+
+    private Optional<Entree> charger(String numeroSuivi, long maintenant) {
+        Optional<ColisResume> resume = colisRepository.findResumeByNumeroSuivi(numeroSuivi);
+        if (resume.isEmpty()) {
+            return Optional.empty();
+        }
+        ColisResume r = resume.get();
+
+        SuiviPublicDTO vue = new SuiviPublicDTO(
+                r.numeroSuivi(),
+                r.statut().name(),
+                r.statut().getLibelle(),
+                r.zoneNom(),
+                r.dateLivraisonPrevue(),
+                r.dateLivraisonEffective(),
+                historiqueLivraisonRepository.findByColisIdOrderByDateChangementAscIdAsc(r.id()).stream()
+                        .map(h -> new SuiviPublicDTO.Etape(h.getStatut().name(), h.getStatut().getLibelle(),
+                                h.getDateChangement()))
+                        .toList());
+
+        return Optional.of(new Entree(vue, etag(r.version(), vue), maintenant + ttlMillis));
+    }
+
+    // La version ne suffit pas : avec l'historique différé, une étape peut arriver après le commit
+    // du changement de statut sans changer la version du colis
+    private static String etag(Long version, SuiviPublicDTO vue) {
+        return "W/\"" + version + "-" + vue.etapes().size() + "\"";
+    }
+
+    public record Entree(SuiviPublicDTO vue, String etag, long expireA) {
+    }
+}
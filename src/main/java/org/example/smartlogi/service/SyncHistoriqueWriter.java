@@ -0,0 +1,44 @@
+package org.example.smartlogi.service;
+
+import lombok.RequiredArgsConstructor;
+import org.example.smartlogi.dto.HistoriqueWriterStats;
+import org.example.smartlogi.entity.HistoriqueLivraison;
+import org.example.smartlogi.enums.StatutColis;
+import org.example.smartlogi.repository.ColisRepository;
+import org.example.smartlogi.repository.HistoriqueLivraisonRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Écriture immédiate dans la transaction de la requête (comportement historique).
+ */
+@Component
+@ConditionalOnProperty(name = "colis.historique.writer", havingValue = "sync", matchIfMissing = true)
+@RequiredArgsConstructor
+public class SyncHistoriqueWriter implements HistoriqueWriter {
+
+    private final HistoriqueLivraisonRepository historiqueLivraisonRepository;
+    private final ColisRepository colisRepository;
+
+    private final AtomicLong lignesEcrites = new AtomicLong();
+
+    @Override
+    public void enregistrer(Long colisId, StatutColis statut, String commentaire) {
+        HistoriqueLivraison historique = new HistoriqueLivraison();
+        historique.setColis(colisRepository.getReferenceById(colisId));
+        historique.setStatut(statut);
+        historique.setCommentaire(commentaire);
+        historiqueLivraisonRepository.save(historique);
+        lignesEcrites.incrementAndGet();
+    }
+
+    @Override
+    public HistoriqueWriterStats stats() {
+        return HistoriqueWriterStats.builder()
+                .mode("sync")
+                .lignesEcrites(lignesEcrites.get())
+                .build();
+    }
+}
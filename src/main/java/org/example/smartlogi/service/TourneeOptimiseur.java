@@ -0,0 +1,186 @@
+package org.example.smartlogi.service;
+
+/**
+ * Ordonnancement d'une tournée (chemin ouvert depuis le dépôt) : plus proche voisin, puis
+ * amélioration locale 2-opt / or-opt jusqu'à stabilité ou expiration du budget de temps.
+ * Le coût est le temps de trajet plus des pénalités pondérées par la priorité de chaque arrêt :
+ * minutes de retard sur l'échéance et, plus faiblement, heure d'arrivée (les urgents passent tôt).
+ * Index 0 = dépôt, 1..n = arrêts ; la matrice des temps peut être pré-calculée (routière ou non).
+ */
+final class TourneeOptimiseur {
+
+    static final double PENALITE_RETARD = 2.0;
+    static final double PENALITE_ARRIVEE = 0.05;
+    static final double SANS_ECHEANCE = Double.POSITIVE_INFINITY;
+
+    private static final double RAYON_TERRE_KM = 6371.0;
+    private static final double EPSILON = 1e-9;
+    private static final int OR_OPT_LONGUEUR_MAX = 3;
+
+    private final double[][] minutes;
+    private final double[] echeances;
+    private final double[] poids;
+    private final double dureeArret;
+    private final int n;
+
+    /**
+     * @param minutes    temps de trajet en minutes, (n+1) x (n+1)
+     * @param echeances  échéance de chaque arrêt en minutes depuis le départ (index 0 ignoré)
+     * @param poids      poids de priorité de chaque arrêt (index 0 ignoré)
+     * @param dureeArret temps passé à chaque arrêt, en minutes
+     */
+    TourneeOptimiseur(double[][] minutes, double[] echeances, double[] poids, double dureeArret) {
+        if (echeances.length != minutes.length || poids.length != minutes.length) {
+            throw new IllegalArgumentException("Dimensions incohérentes pour la tournée");
+        }
+        this.minutes = minutes;
+        this.echeances = echeances;
+        this.poids = poids;
+        this.dureeArret = dureeArret;
+        this.n = minutes.length - 1;
+    }
+
+    /**
+     * Ordre de visite des arrêts 1..n.
+     */
+    int[] optimiser(long budgetNanos) {
+        long limite = System.nanoTime() + budgetNanos;
+        int[] ordre = plusProcheVoisin();
+        double cout = cout(ordre);
+
+        boolean ameliore = true;
+        while (ameliore && System.nanoTime() < limite) {
+            ameliore = false;
+
+            for (int i = 0; i < n - 1 && System.nanoTime() < limite; i++) {
+                for (int k = i + 1; k < n; k++) {
+                    inverser(ordre, i, k);
+                    double candidat = cout(ordre);
+                    if (candidat < cout - EPSILON) {
+                        cout = candidat;
+                        ameliore = true;
+                    } else {
+                        inverser(ordre, i, k);
+                    }
+                }
+            }
+
+            for (int longueur = 1; longueur <= OR_OPT_LONGUEUR_MAX; longueur++) {
+                for (int i = 0; i + longueur <= n && System.nanoTime() < limite; i++) {
+                    for (int j = 0; j <= n - longueur; j++) {
+                        if (j == i) {
+                            continue;
+                        }
+                        int[] candidat = deplacer(ordre, i, longueur, j);
+                        double coutCandidat = cout(candidat);
+                        if (coutCandidat < cout - EPSILON) {
+                            ordre = candidat;
+                            cout = coutCandidat;
+                            ameliore = true;
+                        }
+                    }
+                }
+            }
+        }
+        return ordre;
+    }
+
+    double cout(int[] ordre) {
+        double cout = 0;
+        double t = 0;
+        int position = 0;
+        for (int arret : ordre) {
+            double trajet = minutes[position][arret];
+            t += trajet;
+            cout += trajet + penalite(arret, t);
+            t += dureeArret;
+            position = arret;
+        }
+        return cout;
+    }
+
+    // Heure d'arrivée (minutes depuis le départ) à chaque arrêt, dans l'ordre de visite
+    double[] arrivees(int[] ordre) {
+        double[] arrivees = new double[ordre.length];
+        double t = 0;
+        int position = 0;
+        for (int i = 0; i < ordre.length; i++) {
+            t += minutes[position][ordre[i]];
+            arrivees[i] = t;
+            t += dureeArret;
+            position = ordre[i];
+        }
+        return arrivees;
+    }
+
+    private int[] plusProcheVoisin() {
+        int[] ordre = new int[n];
+        boolean[] visite = new boolean[n + 1];
+        double t = 0;
+        int position = 0;
+        for (int etape = 0; etape < n; etape++) {
+            int suivant = -1;
+            double meilleur = Double.MAX_VALUE;
+            for (int j = 1; j <= n; j++) {
+                if (!visite[j]) {
+                    double score = minutes[position][j] + penalite(j, t + minutes[position][j]);
+                    if (score < meilleur) {
+                        meilleur = score;
+                        suivant = j;
+                    }
+                }
+            }
+            visite[suivant] = true;
+            ordre[etape] = suivant;
+            t += minutes[position][suivant] + dureeArret;
+            position = suivant;
+        }
+        return ordre;
+    }
+
+    private double penalite(int arret, double arrivee) {
+        double retard = Math.max(0, arrivee - echeances[arret]);
+        return poids[arret] * (PENALITE_RETARD * retard + PENALITE_ARRIVEE * arrivee);
+    }
+
+    private static void inverser(int[] ordre, int debut, int fin) {
+        while (debut < fin) {
+            int tmp = ordre[debut];
+            ordre[debut++] = ordre[fin];
+            ordre[fin--] = tmp;
+        }
+    }
+
+    // Retire le segment [debut, debut + longueur) et le réinsère à la position cible du reste
+    private static int[] deplacer(int[] ordre, int debut, int longueur, int cible) {
+        int[] reste = new int[ordre.length - longueur];
+        System.arraycopy(ordre, 0, reste, 0, debut);
+        System.arraycopy(ordre, debut + longueur, reste, debut, ordre.length - debut - longueur);
+
+        int[] resultat = new int[ordre.length];
+        System.arraycopy(reste, 0, resultat, 0, cible);
+        System.arraycopy(ordre, debut, resultat, cible, longueur);
+        System.arraycopy(reste, cible, resultat, cible + longueur, reste.length - cible);
+        return resultat;
+    }
+
+    static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * RAYON_TERRE_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    static double[][] matriceKm(double[] latitudes, double[] longitudes) {
+        int taille = latitudes.length;
+        double[][] km = new double[taille][taille];
+        for (int i = 0; i < taille; i++) {
+            for (int j = i + 1; j < taille; j++) {
+                km[i][j] = km[j][i] = distanceKm(latitudes[i], longitudes[i], latitudes[j], longitudes[j]);
+            }
+        }
+        return km;
+    }
+}
@@ -0,0 +1,284 @@
+package org.example.smartlogi.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.smartlogi.dto.ArretTourneeDTO;
+import org.example.smartlogi.dto.TourneeDTO;
+import org.example.smartlogi.enums.PrioriteColis;
+import org.example.smartlogi.security.service.PrincipalIdentityResolver;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tournées des livreurs : les arrêts (colis en cours) sont chargés en une requête, puis chaque tournée
+ * est ordonnée hors base par TourneeOptimiseur, avec une matrice de distances à vol d'oiseau
+ * corrigée d'un facteur de détour (aucun service de routage externe).
+ * La vague du matin résout toutes les tournées en parallèle sur un ForkJoinPool dédié.
+ */
+@Service
+@Slf4j
+public class TourneeService {
+
+    private static final String STATUTS_EN_COURS = "('EN_TRANSIT', 'CREE')";
+
+    private static final String SELECT_ARRETS = "SELECT c.id, c.numero_suivi, c.priorite, c.date_livraison_prevue, " +
+            "c.livreur_id, d.nom, d.prenom, d.adresse, d.latitude, d.longitude, " +
+            "z.latitude AS zone_latitude, z.longitude AS zone_longitude " +
+            "FROM colis c JOIN destinataire d ON d.id = c.destinataire_id LEFT JOIN zone z ON z.id = c.zone_id " +
+            "WHERE c.livreur_id IN (:livreurs) AND c.statut IN " + STATUTS_EN_COURS + " ORDER BY c.id";
+
+    private static final String SELECT_DEPOTS = "SELECT l.id, z.latitude, z.longitude FROM livreur l " +
+            "LEFT JOIN zone z ON z.id = l.zone_assignee_id WHERE l.id IN (:livreurs)";
+
+    private static final String SELECT_LIVREURS_CHARGES = "SELECT id FROM livreur WHERE actif = TRUE AND charge_colis > 0";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final PrincipalIdentityResolver identityResolver;
+    private final double vitesseKmH;
+    private final double facteurDetour;
+    private final double dureeArretMinutes;
+    private final long budgetNanos;
+    private final ForkJoinPool pool;
+
+    public TourneeService(NamedParameterJdbcTemplate jdbcTemplate,
+                          PrincipalIdentityResolver identityResolver,
+                          @Value("${colis.tournee.vitesse-kmh:30}") double vitesseKmH,
+                          @Value("${colis.tournee.facteur-detour:1.3}") double facteurDetour,
+                          @Value("${colis.tournee.duree-arret-minutes:5}") double dureeArretMinutes,
+                          @Value("${colis.tournee.budget-ms:200}") long budgetMs,
+                          @Value("${colis.tournee.parallelisme:0}") int parallelisme) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.identityResolver = identityResolver;
+        this.vitesseKmH = vitesseKmH;
+        this.facteurDetour = facteurDetour;
+        this.dureeArretMinutes = dureeArretMinutes;
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMs);
+        this.pool = new ForkJoinPool(parallelisme > 0 ? parallelisme : Runtime.getRuntime().availableProcessors());
+    }
+
+    @Transactional(readOnly = true)
+    public TourneeDTO calculer(Long livreurId) {
+        LocalDateTime depart = LocalDateTime.now();
+        Map<Long, Donnees> donnees = charger(List.of(livreurId));
+        Donnees tournee = donnees.get(livreurId);
+        if (tournee == null) {
+            throw new RuntimeException("Livreur non trouvé");
+        }
+        return resoudre(tournee, depart);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<TourneeDTO> calculerPourUtilisateur(String username) {
+        return identityResolver.resolveLivreurId(username).map(this::calculer);
+    }
+
+    /**
+     * Vague du matin : une tournée par livreur actif ayant des colis en cours.
+     */
+    @Transactional(readOnly = true)
+    public List<TourneeDTO> calculerVague() {
+        long debut = System.currentTimeMillis();
+        LocalDateTime depart = LocalDateTime.now();
+        List<Long> livreurs = jdbcTemplate.getJdbcTemplate().queryForList(SELECT_LIVREURS_CHARGES, Long.class);
+        if (livreurs.isEmpty()) {
+            return List.of();
+        }
+
+        Collection<Donnees> donnees = charger(livreurs).values();
+        List<Callable<TourneeDTO>> taches = donnees.stream()
+                .<Callable<TourneeDTO>>map(d -> () -> resoudre(d, depart))
+                .toList();
+
+        List<TourneeDTO> tournees = new ArrayList<>(taches.size());
+        for (Future<TourneeDTO> future : pool.invokeAll(taches)) {
+            try {
+                tournees.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Calcul des tournées interrompu", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Échec du calcul d'une tournée", e.getCause());
+            }
+        }
+
+        log.info("Vague de tournées calculée - {} livreurs, {} arrêts ({} ms)", tournees.size(),
+                tournees.stream().mapToInt(t -> t.getArrets().size()).sum(), System.currentTimeMillis() - debut);
+        return tournees;
+    }
+
+    @PreDestroy
+    public void arreter() {
+        pool.shutdown();
+    }
+
+    private Map<Long, Donnees> charger(List<Long> livreurs) {
+        MapSqlParameterSource params = new MapSqlParameterSource("livreurs", livreurs);
+
+        Map<Long, Donnees> donnees = new LinkedHashMap<>();
+        jdbcTemplate.query(SELECT_DEPOTS, params, rs -> {
+            donnees.put(rs.getLong("id"), new Donnees(rs.getLong("id"),
+                    rs.getObject("latitude", Double.class),
+                    rs.getObject("longitude", Double.class)));
+        });
+
+        jdbcTemplate.query(SELECT_ARRETS, params, rs -> {
+            Donnees d = donnees.get(rs.getLong("livreur_id"));
+            if (d != null) {
+                d.arrets.add(arret(rs));
+            }
+        });
+        return donnees;
+    }
+
+    private static Arret arret(ResultSet rs) throws SQLException {
+        Double latitude = rs.getObject("latitude", Double.class);
+        Double longitude = rs.getObject("longitude", Double.class);
+        // Destinataire non géolocalisé : on se rabat sur la position de sa zone
+        if (latitude == null || longitude == null) {
+            latitude = rs.getObject("zone_latitude", Double.class);
+            longitude = rs.getObject("zone_longitude", Double.class);
+        }
+        Timestamp prevue = rs.getTimestamp("date_livraison_prevue");
+        return new Arret(
+                rs.getLong("id"),
+                rs.getString("numero_suivi"),
+                PrioriteColis.valueOf(rs.getString("priorite")),
+                prevue != null ? prevue.toLocalDateTime() : null,
+                rs.getString("prenom") + " " + rs.getString("nom"),
+                rs.getString("adresse"),
+                latitude != null && longitude != null ? latitude : null,
+                latitude != null && longitude != null ? longitude : null);
+    }
+
+    private TourneeDTO resoudre(Donnees donnees, LocalDateTime depart) {
+        long debut = System.nanoTime();
+        List<Arret> localises = donnees.arrets.stream().filter(Arret::localise).toList();
+        List<Arret> sansCoordonnees = donnees.arrets.stream().filter(a -> !a.localise()).toList();
+
+        int n = localises.size();
+        double[] latitudes = new double[n + 1];
+        double[] longitudes = new double[n + 1];
+        double[] echeances = new double[n + 1];
+        double[] poids = new double[n + 1];
+        for (int i = 0; i < n; i++) {
+            Arret arret = localises.get(i);
+            latitudes[i + 1] = arret.latitude();
+            longitudes[i + 1] = arret.longitude();
+            echeances[i + 1] = arret.dateLivraisonPrevue() != null
+                    ? Duration.between(depart, arret.dateLivraisonPrevue()).toSeconds() / 60.0
+                    : TourneeOptimiseur.SANS_ECHEANCE;
+            poids[i + 1] = poidsPriorite(arret.priorite());
+        }
+        positionnerDepot(donnees, latitudes, longitudes);
+
+        double[][] km = TourneeOptimiseur.matriceKm(latitudes, longitudes);
+        double[][] minutes = new double[n + 1][n + 1];
+        for (int i = 0; i <= n; i++) {
+            for (int j = 0; j <= n; j++) {
+                minutes[i][j] = km[i][j] * facteurDetour / vitesseKmH * 60;
+            }
+        }
+
+        TourneeOptimiseur optimiseur = new TourneeOptimiseur(minutes, echeances, poids, dureeArretMinutes);
+        int[] ordre = optimiseur.optimiser(budgetNanos);
+        double[] arrivees = optimiseur.arrivees(ordre);
+
+        List<ArretTourneeDTO> arrets = new ArrayList<>(donnees.arrets.size());
+        double distance = 0;
+        int position = 0;
+        for (int i = 0; i < ordre.length; i++) {
+            distance += km[position][ordre[i]] * facteurDetour;
+            position = ordre[i];
+            LocalDateTime arrivee = depart.plusSeconds(Math.round(arrivees[i] * 60));
+            arrets.add(dto(arrets.size() + 1, localises.get(ordre[i] - 1), arrivee));
+        }
+        for (Arret arret : sansCoordonnees) {
+            arrets.add(dto(arrets.size() + 1, arret, null));
+        }
+
+        return TourneeDTO.builder()
+                .livreurId(donnees.livreurId)
+                .depart(depart)
+                .distanceKm(Math.round(distance * 100) / 100.0)
+                .dureeMinutes(ordre.length == 0 ? 0 : Math.round(arrivees[ordre.length - 1] + dureeArretMinutes))
+                .arretsSansCoordonnees(sansCoordonnees.size())
+                .calculMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - debut))
+                .arrets(arrets)
+                .build();
+    }
+
+    // Dépôt = position de la zone du livreur, sinon barycentre des arrêts
+    private static void positionnerDepot(Donnees donnees, double[] latitudes, double[] longitudes) {
+        if (donnees.latitude != null && donnees.longitude != null) {
+            latitudes[0] = donnees.latitude;
+            longitudes[0] = donnees.longitude;
+            return;
+        }
+        int n = latitudes.length - 1;
+        for (int i = 1; i <= n; i++) {
+            latitudes[0] += latitudes[i] / n;
+            longitudes[0] += longitudes[i] / n;
+        }
+    }
+
+    private static double poidsPriorite(PrioriteColis priorite) {
+        return switch (priorite) {
+            case TRES_URGENTE -> 6;
+            case URGENTE -> 3;
+            case NORMALE -> 1;
+        };
+    }
+
+    private static ArretTourneeDTO dto(int ordre, Arret arret, LocalDateTime arrivee) {
+        return ArretTourneeDTO.builder()
+                .ordre(ordre)
+                .colisId(arret.colisId())
+                .numeroSuivi(arret.numeroSuivi())
+                .priorite(arret.priorite().name())
+                .destinataire(arret.destinataire())
+                .adresse(arret.adresse())
+                .latitude(arret.latitude())
+                .longitude(arret.longitude())
+                .arriveeEstimee(arrivee)
+                .dateLivraisonPrevue(arret.dateLivraisonPrevue())
+                .enRetard(arrivee != null && arret.dateLivraisonPrevue() != null
+                        && arrivee.isAfter(arret.dateLivraisonPrevue()))
+                .build();
+    }
+
+    private record Arret(long colisId, String numeroSuivi, PrioriteColis priorite, LocalDateTime dateLivraisonPrevue,
+                         String destinataire, String adresse, Double latitude, Double longitude) {
+
+        boolean localise() {
+            return latitude != null;
+        }
+    }
+
+    private static final class Donnees {
+        private final long livreurId;
+        private final Double latitude;
+        private final Double longitude;
+        private final List<Arret> arrets = new ArrayList<>();
+
+        private Donnees(long livreurId, Double latitude, Double longitude) {
+            this.livreurId = livreurId;
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+    }
+}
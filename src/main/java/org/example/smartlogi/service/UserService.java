@@ -3,6 +3,7 @@ package org.example.smartlogi.service;
 import lombok.RequiredArgsConstructor;
 import org.example.smartlogi.entity.User;
 import org.example.smartlogi.repository.UserRepository;
+import org.example.smartlogi.security.service.AuthorityCache;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,6 +18,7 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final AuthorityCache authorityCache;
 
     public Optional<User> findByUsername(String username) {
         return userRepository.findByUsername(username);
@@ -55,11 +57,15 @@ public class UserService {
         user.setAdresse(userDetails.getAdresse());
         user.setEnabled(userDetails.isEnabled());
 
-        return userRepository.save(user);
+        User updated = userRepository.save(user);
+        authorityCache.invaliderUtilisateur(updated.getUsername());
+        return updated;
     }
 
     @Transactional
     public void deleteUser(Long id) {
+        userRepository.findById(id)
+                .ifPresent(user -> authorityCache.invaliderUtilisateur(user.getUsername()));
         userRepository.deleteById(id);
     }
 }
\ No newline at end of file
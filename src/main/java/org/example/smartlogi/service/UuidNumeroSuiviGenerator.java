@@ -0,0 +1,50 @@
+package org.example.smartlogi.service;
+
+import lombok.RequiredArgsConstructor;
+import org.example.smartlogi.repository.ColisRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Ancien format aléatoire "COL-XXXXXXXX", vérifié en base. Conservé pour les déploiements
+ * qui ne disposent pas encore de la séquence numero_suivi_seq.
+ */
+@Component
+@ConditionalOnProperty(name = "colis.numero-suivi.generator", havingValue = "uuid")
+@RequiredArgsConstructor
+public class UuidNumeroSuiviGenerator implements NumeroSuiviGenerator {
+
+    private final ColisRepository colisRepository;
+
+    @Override
+    public String next() {
+        String numero;
+        do {
+            numero = candidat();
+        } while (colisRepository.existsByNumeroSuivi(numero));
+        return numero;
+    }
+
+    @Override
+    public List<String> next(int count) {
+        Set<String> attribues = new LinkedHashSet<>();
+        while (attribues.size() < count) {
+            Set<String> candidats = new HashSet<>();
+            while (candidats.size() < count - attribues.size()) {
+                String numero = candidat();
+                if (!attribues.contains(numero)) {
+                    candidats.add(numero);
+                }
+            }
+            candidats.removeAll(colisRepository.findNumerosSuiviExistants(candidats));
+            attribues.addAll(candidats);
+        }
+        return new ArrayList<>(attribues);
+    }
+
+    private String candidat() {
+        return NumeroSuivi.PREFIXE + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
+}
@@ -0,0 +1,210 @@
+package org.example.smartlogi.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.smartlogi.dto.HistoriqueWriterStats;
+import org.example.smartlogi.enums.StatutColis;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Écriture différée de l'historique : les lignes sont publiées après le commit de la requête
+ * dans une file bornée sans verrou, puis un thread dédié les insère par lots JDBC,
+ * une transaction par lot (dès que le lot est plein ou après le délai de flush).
+ * File pleine ou writer arrêté : la ligne est écrite directement, rien n'est perdu.
+ * Chaque écriture ouvre sa propre transaction (REQUIRES_NEW) : l'écriture directe s'exécute
+ * en afterCommit, où la transaction de la requête est déjà validée et ne committerait plus rien.
+ * À l'arrêt de l'application la file est vidée avant la fermeture de la DataSource.
+ * Compromis : les lignes encore en file sont perdues en cas d'arrêt brutal du processus.
+ */
+@Component
+@ConditionalOnProperty(name = "colis.historique.writer", havingValue = "write-behind")
+@Slf4j
+public class WriteBehindHistoriqueWriter implements HistoriqueWriter {
+
+    private static final String INSERT_HISTORIQUE = "INSERT INTO historique_livraison (colis_id, statut, " +
+            "date_changement, commentaire) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int capacite;
+    private final int tailleLot;
+    private final long delaiFlushNanos;
+
+    private final ConcurrentLinkedQueue<Ligne> file = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger taille = new AtomicInteger();
+
+    private final AtomicLong lignesEcrites = new AtomicLong();
+    private final AtomicLong lots = new AtomicLong();
+    private final AtomicLong echecs = new AtomicLong();
+    private final AtomicLong ecrituresDirectes = new AtomicLong();
+    private final AtomicLong derniereLatenceNanos = new AtomicLong();
+    private final AtomicLong latenceMaxNanos = new AtomicLong();
+
+    private volatile boolean actif;
+    private Thread flusher;
+
+    public WriteBehindHistoriqueWriter(JdbcTemplate jdbcTemplate,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${colis.historique.capacite:10000}") int capacite,
+                                       @Value("${colis.historique.taille-lot:200}") int tailleLot,
+                                       @Value("${colis.historique.delai-flush-ms:100}") long delaiFlushMs) {
+        if (capacite <= 0 || tailleLot <= 0 || delaiFlushMs <= 0) {
+            throw new IllegalArgumentException("Configuration du writer d'historique invalide");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.capacite = capacite;
+        this.tailleLot = tailleLot;
+        this.delaiFlushNanos = TimeUnit.MILLISECONDS.toNanos(delaiFlushMs);
+    }
+
+    @PostConstruct
+    public void demarrer() {
+        actif = true;
+        flusher = new Thread(this::boucler, "historique-writer");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("Writer d'historique différé démarré - capacité: {}, lot: {}", capacite, tailleLot);
+    }
+
+    @PreDestroy
+    public void arreter() throws InterruptedException {
+        actif = false;
+        LockSupport.unpark(flusher);
+        flusher.join();
+        log.info("Writer d'historique différé arrêté - {} lignes écrites", lignesEcrites.get());
+    }
+
+    @Override
+    public void enregistrer(Long colisId, StatutColis statut, String commentaire) {
+        Ligne ligne = new Ligne(colisId, statut, commentaire, LocalDateTime.now());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publier(ligne);
+                }
+            });
+        } else {
+            publier(ligne);
+        }
+    }
+
+    private void publier(Ligne ligne) {
+        if (!actif || !reserverPlace()) {
+            ecrituresDirectes.incrementAndGet();
+            ecrire(List.of(ligne));
+            return;
+        }
+        file.offer(ligne);
+        if (taille.get() >= tailleLot) {
+            LockSupport.unpark(flusher);
+        }
+    }
+
+    private boolean reserverPlace() {
+        int courant;
+        do {
+            courant = taille.get();
+            if (courant >= capacite) {
+                return false;
+            }
+        } while (!taille.compareAndSet(courant, courant + 1));
+        return true;
+    }
+
+    private void boucler() {
+        while (actif || taille.get() > 0) {
+            if (actif && taille.get() < tailleLot) {
+                LockSupport.parkNanos(this, delaiFlushNanos);
+            }
+            vider();
+        }
+    }
+
+    private void vider() {
+        List<Ligne> lot = new ArrayList<>(tailleLot);
+        Ligne ligne;
+        while (lot.size() < tailleLot && (ligne = file.poll()) != null) {
+            lot.add(ligne);
+        }
+        if (lot.isEmpty()) {
+            return;
+        }
+        taille.addAndGet(-lot.size());
+        ecrire(lot);
+    }
+
+    private void ecrire(List<Ligne> lot) {
+        long debut = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(INSERT_HISTORIQUE, lot.stream().map(Ligne::parametres).toList()));
+            lignesEcrites.addAndGet(lot.size());
+        } catch (RuntimeException e) {
+            log.error("Échec d'écriture d'un lot de {} lignes d'historique, reprise ligne par ligne", lot.size(), e);
+            ecrireUneParUne(lot);
+        }
+        long latence = System.nanoTime() - debut;
+        lots.incrementAndGet();
+        derniereLatenceNanos.set(latence);
+        latenceMaxNanos.accumulateAndGet(latence, Math::max);
+    }
+
+    // Isole les lignes fautives (ex. colis supprimé entre-temps) sans perdre le reste du lot
+    private void ecrireUneParUne(List<Ligne> lot) {
+        for (Ligne ligne : lot) {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        jdbcTemplate.update(INSERT_HISTORIQUE, ligne.parametres()));
+                lignesEcrites.incrementAndGet();
+            } catch (RuntimeException e) {
+                echecs.incrementAndGet();
+                log.error("Ligne d'historique abandonnée - colis {}, statut {}", ligne.colisId(), ligne.statut(), e);
+            }
+        }
+    }
+
+    @Override
+    public HistoriqueWriterStats stats() {
+        return HistoriqueWriterStats.builder()
+                .mode("write-behind")
+                .profondeurFile(taille.get())
+                .capaciteFile(capacite)
+                .lignesEcrites(lignesEcrites.get())
+                .lots(lots.get())
+                .echecs(echecs.get())
+                .ecrituresDirectes(ecrituresDirectes.get())
+                .derniereLatenceFlushMs(derniereLatenceNanos.get() / 1_000_000.0)
+                .latenceFlushMaxMs(latenceMaxNanos.get() / 1_000_000.0)
+                .build();
+    }
+
+    private record Ligne(Long colisId, StatutColis statut, String commentaire, LocalDateTime dateChangement) {
+
+        Object[] parametres() {
+            return new Object[]{colisId, statut.name(), Timestamp.valueOf(dateChangement), commentaire};
+        }
+    }
+}
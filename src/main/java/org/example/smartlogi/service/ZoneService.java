@@ -2,10 +2,12 @@ package org.example.smartlogi.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.smartlogi.dto.CursorPage;
 import org.example.smartlogi.dto.ZoneDTO;
 import org.example.smartlogi.entity.Zone;
 import org.example.smartlogi.mapper.ZoneMapper;
 import org.example.smartlogi.repository.ZoneRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -73,6 +75,19 @@ public class ZoneService {
         return entities.map(zoneMapper::toDTO);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<ZoneDTO> findAll(String cursor, Integer size, boolean withTotal) {
+        Curseur curseur = Curseur.decoder(cursor);
+        int taille = Curseur.taille(size);
+        log.info("Récupération des zones par curseur - Taille: {}", taille);
+
+        List<Zone> entities = zoneRepository.findByIdGreaterThanOrderByIdAsc(
+                curseur != null ? curseur.id() : 0L, Limit.of(taille + 1));
+
+        return Curseur.page(entities, taille, entity -> Curseur.of(entity.getId()), zoneMapper::toDTO,
+                withTotal ? zoneRepository.count() : null);
+    }
+
     public ZoneDTO update(Long id, ZoneDTO dto) {
         log.info("Mise à jour de la zone avec l'ID: {}", id);
 
@@ -0,0 +1,86 @@
+package org.example.smartlogi.integration;
+
+import org.example.smartlogi.dto.ColisBatchResponse;
+import org.example.smartlogi.dto.CreateColisProduitRequest;
+import org.example.smartlogi.dto.CreateColisRequest;
+import org.example.smartlogi.entity.Produit;
+import org.example.smartlogi.entity.Zone;
+import org.example.smartlogi.repository.*;
+import org.example.smartlogi.service.ColisBatchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@Import(ColisFixtures.class)
+public class ColisBatchIntegrationTest {
+
+    @Autowired
+    private ColisBatchService colisBatchService;
+
+    @Autowired
+    private ColisRepository colisRepository;
+
+    @Autowired
+    private HistoriqueLivraisonRepository historiqueRepository;
+
+    @Autowired
+    private ColisFixtures fixtures;
+
+    private ColisFixtures.Expedition expedition;
+    private Zone zone;
+    private Produit produit;
+
+    @BeforeEach
+    void setUp() {
+        expedition = fixtures.expedition("Batch", "20000", "Casablanca");
+        zone = expedition.zone();
+        produit = fixtures.produit("Livre", new BigDecimal("0.50"), new BigDecimal("350.00"));
+    }
+
+    @Test
+    public void createBatch_shouldInsertValidItemsAndReportFailures() {
+        CreateColisRequest valide = request(zone.getId(), "NORMALE", 2);
+        CreateColisRequest zoneInconnue = request(999L, "NORMALE", 1);
+        CreateColisRequest prioriteInvalide = request(zone.getId(), "INCONNUE", 1);
+        CreateColisRequest valide2 = request(zone.getId(), "URGENTE", 1);
+
+        ColisBatchResponse response = colisBatchService.createBatch(
+                List.of(valide, zoneInconnue, prioriteInvalide, valide2));
+
+        assertEquals(4, response.getTotal());
+        assertEquals(2, response.getSucces());
+        assertEquals(2, response.getEchecs());
+        assertTrue(response.getResultats().get(0).isSucces());
+        assertEquals("Zone non trouvée", response.getResultats().get(1).getErreur());
+        assertFalse(response.getResultats().get(2).isSucces());
+        assertTrue(response.getResultats().get(3).isSucces());
+
+        Long colisId = response.getResultats().get(0).getColisId();
+        var colis = colisRepository.findById(colisId).orElseThrow();
+        assertEquals(response.getResultats().get(0).getNumeroSuivi(), colis.getNumeroSuivi());
+        assertEquals(0, new BigDecimal("1.00").compareTo(colis.getPoidsTotal()));
+        assertEquals(1, historiqueRepository.countByColis(colis));
+    }
+
+    private CreateColisRequest request(Long zoneId, String priorite, int quantite) {
+        CreateColisRequest request = new CreateColisRequest();
+        request.setClientExpediteurId(expedition.client().getId());
+        request.setDestinataireId(expedition.destinataire().getId());
+        request.setZoneDestinationId(zoneId);
+        request.setPriorite(priorite);
+        request.setProduits(List.of(new CreateColisProduitRequest(produit.getId(), quantite)));
+        return request;
+    }
+}
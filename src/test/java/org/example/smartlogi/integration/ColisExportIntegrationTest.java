@@ -0,0 +1,65 @@
+package org.example.smartlogi.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.smartlogi.enums.FormatExport;
+import org.example.smartlogi.repository.ColisRepository;
+import org.example.smartlogi.service.ColisExportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class ColisExportIntegrationTest {
+
+    @Autowired
+    private ColisExportService colisExportService;
+
+    @Autowired
+    private ColisRepository colisRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void exportNdjson_shouldWriteOneJsonObjectPerColis() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        colisExportService.exporter(FormatExport.NDJSON, out);
+
+        List<String> lignes = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(colisRepository.count(), lignes.size());
+        for (String ligne : lignes) {
+            JsonNode node = objectMapper.readTree(ligne);
+            assertTrue(node.hasNonNull("id"));
+            assertTrue(node.hasNonNull("numeroSuivi"));
+        }
+    }
+
+    @Test
+    public void exportCsv_shouldWriteHeaderAndOneRowPerColis() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        colisExportService.exporter(FormatExport.CSV, out);
+
+        List<String> lignes = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(colisRepository.count() + 1, lignes.size());
+        assertTrue(lignes.get(0).startsWith("id,numeroSuivi,statut"));
+    }
+
+    @Test
+    public void formatExport_shouldRejectUnknownFormat() {
+        assertEquals(FormatExport.CSV, FormatExport.fromString("csv"));
+        assertThrows(IllegalArgumentException.class, () -> FormatExport.fromString("xml"));
+    }
+}
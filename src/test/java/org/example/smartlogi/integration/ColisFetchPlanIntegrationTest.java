@@ -0,0 +1,92 @@
+package org.example.smartlogi.integration;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.example.smartlogi.dto.ColisDTO;
+import org.example.smartlogi.entity.*;
+import org.example.smartlogi.enums.StatutColis;
+import org.example.smartlogi.mapper.ColisMapper;
+import org.example.smartlogi.repository.*;
+import org.example.smartlogi.service.ColisService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+@Import(ColisFixtures.class)
+public class ColisFetchPlanIntegrationTest {
+
+    private static final int NOMBRE_COLIS = 6;
+
+    @Autowired
+    private ColisService colisService;
+
+    @Autowired
+    private ColisRepository colisRepository;
+
+    @Autowired
+    private ColisMapper colisMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ColisFixtures fixtures;
+
+    private Zone zone;
+
+    @BeforeEach
+    void setUp() {
+        ColisFixtures.Expedition expedition = fixtures.expedition("Fetch", "20000", "Casablanca");
+        zone = expedition.zone();
+
+        // Associations toutes distinctes : un chargement paresseux coûterait une requête par colis
+        for (int i = 0; i < NOMBRE_COLIS; i++) {
+            expedition.colis("COL-FETCH" + i)
+                    .statut(StatutColis.EN_TRANSIT)
+                    .dateLivraisonPrevue(LocalDateTime.now().minusDays(1))
+                    .client(fixtures.client())
+                    .destinataire(fixtures.destinataire())
+                    .livreur(fixtures.livreur("05000000" + i, zone))
+                    .creer();
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    public void listEndpoints_shouldUseConstantNumberOfStatements() {
+        assertSingleStatement(() -> colisService.findAll());
+        assertSingleStatement(() -> colisService.findByStatut("EN_TRANSIT"));
+        assertSingleStatement(() -> colisMapper.resumesToDTOList(colisRepository.findResumesEnRetard(LocalDateTime.now())));
+    }
+
+    private void assertSingleStatement(java.util.function.Supplier<List<ColisDTO>> appel) {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<ColisDTO> resultat = appel.get();
+
+        assertTrue(resultat.size() >= NOMBRE_COLIS);
+        assertTrue(resultat.stream().allMatch(dto -> dto.getClientExpediteurNom() != null && dto.getZoneDestinationNom() != null));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
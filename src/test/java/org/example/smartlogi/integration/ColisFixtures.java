@@ -0,0 +1,237 @@
+package org.example.smartlogi.integration;
+
+import org.example.smartlogi.entity.*;
+import org.example.smartlogi.enums.PrioriteColis;
+import org.example.smartlogi.enums.StatutColis;
+import org.example.smartlogi.repository.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestComponent;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Jeu de données partagé des tests d'intégration : zone, expéditeur, destinataire, livreurs
+ * et colis. Les valeurs uniques (email, téléphone) sont générées ; les tests ne fixent que ce
+ * qu'ils vérifient. À importer avec @Import(ColisFixtures.class).
+ */
+@TestComponent
+public class ColisFixtures {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private ZoneRepository zoneRepository;
+
+    @Autowired
+    private ClientExpediteurRepository clientRepository;
+
+    @Autowired
+    private DestinataireRepository destinataireRepository;
+
+    @Autowired
+    private LivreurRepository livreurRepository;
+
+    @Autowired
+    private ProduitRepository produitRepository;
+
+    @Autowired
+    private ColisRepository colisRepository;
+
+    /**
+     * Zone "Zone {nom}" avec un expéditeur et un destinataire.
+     */
+    public Expedition expedition(String nom, String codePostal, String ville) {
+        return expedition(zone("Zone " + nom, codePostal, ville));
+    }
+
+    public Expedition expedition(Zone zone) {
+        return new Expedition(zone, client(), destinataire());
+    }
+
+    public Zone zone(String nom, String codePostal, String ville) {
+        return zone(nom, codePostal, ville, null, null);
+    }
+
+    public Zone zone(String nom, String codePostal, String ville, Double latitude, Double longitude) {
+        Zone zone = new Zone();
+        zone.setNom(nom);
+        zone.setCodePostal(codePostal);
+        zone.setVille(ville);
+        zone.setLatitude(latitude);
+        zone.setLongitude(longitude);
+        return zoneRepository.save(zone);
+    }
+
+    public ClientExpediteur client() {
+        return client("client" + SEQUENCE.incrementAndGet() + "@fixtures.test");
+    }
+
+    public ClientExpediteur client(String email) {
+        ClientExpediteur client = new ClientExpediteur();
+        client.setNom("Client");
+        client.setPrenom("Test");
+        client.setEmail(email);
+        client.setTelephone(telephone("06"));
+        client.setAdresse("Adresse");
+        return clientRepository.save(client);
+    }
+
+    public Destinataire destinataire() {
+        return destinataire(null, null);
+    }
+
+    public Destinataire destinataire(Double latitude, Double longitude) {
+        Destinataire destinataire = new Destinataire();
+        destinataire.setNom("Dest");
+        destinataire.setPrenom("Test");
+        destinataire.setTelephone(telephone("07"));
+        destinataire.setAdresse("Adresse");
+        destinataire.setLatitude(latitude);
+        destinataire.setLongitude(longitude);
+        return destinataireRepository.save(destinataire);
+    }
+
+    public Livreur livreur(String telephone, Zone zone) {
+        return livreur(telephone, zone, "MOTO");
+    }
+
+    public Livreur livreur(String telephone, Zone zone, String vehicule) {
+        Livreur livreur = new Livreur();
+        livreur.setNom("Livreur");
+        livreur.setPrenom(telephone);
+        livreur.setTelephone(telephone);
+        livreur.setVehicule(vehicule);
+        livreur.setZoneAssignee(zone);
+        return livreurRepository.save(livreur);
+    }
+
+    public Produit produit(String nom, BigDecimal poids, BigDecimal prix) {
+        Produit produit = new Produit();
+        produit.setNom(nom);
+        produit.setPoids(poids);
+        produit.setPrix(prix);
+        return produitRepository.save(produit);
+    }
+
+    /**
+     * Nettoyage des tests qui committent : à appeler une fois leurs colis supprimés.
+     */
+    public void supprimer(Expedition expedition, Produit... produits) {
+        produitRepository.deleteAll(List.of(produits));
+        clientRepository.delete(expedition.client);
+        destinataireRepository.delete(expedition.destinataire);
+        zoneRepository.delete(expedition.zone);
+    }
+
+    private static String telephone(String prefixe) {
+        return prefixe + String.format("%08d", SEQUENCE.incrementAndGet());
+    }
+
+    /**
+     * Zone, expéditeur et destinataire d'un test ; point de départ des colis.
+     */
+    public final class Expedition {
+
+        private final Zone zone;
+        private final ClientExpediteur client;
+        private final Destinataire destinataire;
+
+        private Expedition(Zone zone, ClientExpediteur client, Destinataire destinataire) {
+            this.zone = zone;
+            this.client = client;
+            this.destinataire = destinataire;
+        }
+
+        public Zone zone() {
+            return zone;
+        }
+
+        public ClientExpediteur client() {
+            return client;
+        }
+
+        public Destinataire destinataire() {
+            return destinataire;
+        }
+
+        /**
+         * Colis CREE, priorité NORMALE, 1 kg, dans la zone de l'expédition.
+         */
+        public ColisBuilder colis(String numeroSuivi) {
+            return new ColisBuilder(this, numeroSuivi);
+        }
+    }
+
+    public final class ColisBuilder {
+
+        private final Colis colis = new Colis();
+
+        private ColisBuilder(Expedition expedition, String numeroSuivi) {
+            colis.setNumeroSuivi(numeroSuivi);
+            colis.setPoidsTotal(BigDecimal.ONE);
+            colis.setStatut(StatutColis.CREE);
+            colis.setPriorite(PrioriteColis.NORMALE);
+            colis.setVilleDestination(expedition.zone.getVille());
+            colis.setClientExpediteur(expedition.client);
+            colis.setDestinataire(expedition.destinataire);
+            colis.setZone(expedition.zone);
+        }
+
+        public ColisBuilder statut(StatutColis statut) {
+            colis.setStatut(statut);
+            return this;
+        }
+
+        public ColisBuilder priorite(PrioriteColis priorite) {
+            colis.setPriorite(priorite);
+            return this;
+        }
+
+        public ColisBuilder poids(String poids) {
+            colis.setPoidsTotal(new BigDecimal(poids));
+            return this;
+        }
+
+        public ColisBuilder zone(Zone zone) {
+            colis.setZone(zone);
+            return this;
+        }
+
+        public ColisBuilder client(ClientExpediteur client) {
+            colis.setClientExpediteur(client);
+            return this;
+        }
+
+        public ColisBuilder livreur(Livreur livreur) {
+            colis.setLivreur(livreur);
+            return this;
+        }
+
+        public ColisBuilder villeDestination(String ville) {
+            colis.setVilleDestination(ville);
+            return this;
+        }
+
+        public ColisBuilder description(String description) {
+            colis.setDescription(description);
+            return this;
+        }
+
+        public ColisBuilder dateLivraisonPrevue(LocalDateTime date) {
+            colis.setDateLivraisonPrevue(date);
+            return this;
+        }
+
+        public ColisBuilder destinataire(Destinataire destinataire) {
+            colis.setDestinataire(destinataire);
+            return this;
+        }
+
+        public Colis creer() {
+            return colisRepository.saveAndFlush(colis);
+        }
+    }
+}
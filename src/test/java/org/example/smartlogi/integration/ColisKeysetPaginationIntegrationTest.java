@@ -0,0 +1,120 @@
+package org.example.smartlogi.integration;
+
+import jakarta.persistence.EntityManager;
+import org.example.smartlogi.dto.ColisDTO;
+import org.example.smartlogi.dto.CursorPage;
+import org.example.smartlogi.dto.ZoneDTO;
+import org.example.smartlogi.entity.*;
+import org.example.smartlogi.repository.*;
+import org.example.smartlogi.service.ColisService;
+import org.example.smartlogi.service.ZoneService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@Import(ColisFixtures.class)
+public class ColisKeysetPaginationIntegrationTest {
+
+    private static final int NOMBRE_COLIS = 7;
+
+    @Autowired
+    private ColisService colisService;
+
+    @Autowired
+    private ZoneService zoneService;
+
+    @Autowired
+    private ColisRepository colisRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ZoneRepository zoneRepository;
+
+    @Autowired
+    private ColisFixtures fixtures;
+
+    @BeforeEach
+    void setUp() {
+        ColisFixtures.Expedition expedition = fixtures.expedition("Curseur", "30000", "Fès");
+        for (int i = 0; i < NOMBRE_COLIS; i++) {
+            expedition.colis("COL-CURSEUR" + i).creer();
+        }
+        entityManager.flush();
+
+        // Même date de création pour tous : l'id doit départager les ex-aequo
+        jdbcTemplate.update("UPDATE colis SET date_creation = ? WHERE numero_suivi LIKE 'COL-CURSEUR%'",
+                LocalDateTime.now().plusYears(1).withNano(0));
+        entityManager.clear();
+    }
+
+    @Test
+    public void findAllByCursor_shouldWalkEveryColisOnceInKeyOrder() {
+        List<ColisDTO> attendus = colisService.findAll().stream()
+                .sorted(Comparator.comparing(ColisDTO::getCreatedAt).thenComparing(ColisDTO::getId).reversed())
+                .toList();
+
+        List<Long> parcourus = new ArrayList<>();
+        String cursor = null;
+        CursorPage<ColisDTO> page;
+        do {
+            page = colisService.findAll(cursor, 3, cursor == null);
+            page.getContent().forEach(dto -> parcourus.add(dto.getId()));
+            cursor = page.getNextCursor();
+        } while (page.isHasNext());
+
+        assertEquals(attendus.stream().map(ColisDTO::getId).toList(), parcourus);
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    public void findAllByCursor_shouldReturnTotalOnlyWhenRequested() {
+        CursorPage<ColisDTO> avecTotal = colisService.findAll(null, 5, true);
+        CursorPage<ColisDTO> sansTotal = colisService.findAll(null, 5, false);
+
+        assertEquals(colisRepository.count(), avecTotal.getApproximateTotal());
+        assertNull(sansTotal.getApproximateTotal());
+        assertTrue(avecTotal.isHasNext());
+        assertEquals(5, avecTotal.getSize());
+    }
+
+    @Test
+    public void findAllByCursor_shouldRejectInvalidCursorOrSize() {
+        assertThrows(IllegalArgumentException.class, () -> colisService.findAll("pas-un-curseur", 10, false));
+        assertThrows(IllegalArgumentException.class, () -> colisService.findAll(null, 0, false));
+        assertThrows(IllegalArgumentException.class, () -> colisService.findAll(null, 1000, false));
+    }
+
+    @Test
+    public void zonesByCursor_shouldFollowIdOrder() {
+        List<Long> parcourus = new ArrayList<>();
+        String cursor = null;
+        CursorPage<ZoneDTO> page;
+        do {
+            page = zoneService.findAll(cursor, 2, false);
+            page.getContent().forEach(dto -> parcourus.add(dto.getId()));
+            cursor = page.getNextCursor();
+        } while (page.isHasNext());
+
+        assertEquals(zoneRepository.findAll().stream().map(Zone::getId).sorted().toList(), parcourus);
+    }
+}
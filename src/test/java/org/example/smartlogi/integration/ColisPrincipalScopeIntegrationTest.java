@@ -0,0 +1,166 @@
+package org.example.smartlogi.integration;
+
+import org.example.smartlogi.entity.Colis;
+import org.example.smartlogi.entity.Livreur;
+import org.example.smartlogi.entity.User;
+import org.example.smartlogi.enums.StatutColis;
+import org.example.smartlogi.repository.RoleRepository;
+import org.example.smartlogi.repository.UserRepository;
+import org.example.smartlogi.security.jwt.JwtUtil;
+import org.example.smartlogi.security.service.PrincipalIdentityResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Listes et accès aux colis restreints à l'identité métier du livreur / client authentifié.
+ * Les requêtes passent par un vrai token JWT (le secret du profil test n'est pas du Base64).
+ */
+@SpringBootTest(properties = "jwt.secret=404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+@Import(ColisFixtures.class)
+public class ColisPrincipalScopeIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private PrincipalIdentityResolver identityResolver;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private ColisFixtures fixtures;
+
+    private ColisFixtures.Expedition expedition;
+    private Livreur livreur;
+    private Colis colisLivreur;
+    private Colis colisSansLivreur;
+    private Colis colisAutreClient;
+
+    @BeforeEach
+    void setUp() {
+        expedition = fixtures.expedition("Scope", "40000", "Marrakech");
+        livreur = fixtures.livreur("0644400001", expedition.zone());
+        Livreur autreLivreur = fixtures.livreur("0644400002", expedition.zone());
+
+        colisLivreur = expedition.colis("COL-SCOPE-1").statut(StatutColis.EN_TRANSIT).livreur(livreur).creer();
+        colisSansLivreur = expedition.colis("COL-SCOPE-2").creer();
+        colisAutreClient = expedition.colis("COL-SCOPE-3")
+                .statut(StatutColis.EN_TRANSIT)
+                .client(fixtures.client())
+                .livreur(autreLivreur)
+                .creer();
+    }
+
+    @Test
+    public void resolver_shouldPreferExplicitLinkThenFallBackToConvention() {
+        // Lien users.livreur_id : le username ne correspond à aucun téléphone
+        utilisateur("livreur.scope", "ROLE_DELIVERY_PERSON", livreur);
+
+        assertEquals(Optional.of(livreur.getId()), identityResolver.resolveLivreurId("livreur.scope"));
+        assertEquals(Optional.of(livreur.getId()), identityResolver.resolveLivreurId(livreur.getTelephone()));
+        assertEquals(Optional.of(expedition.client().getId()),
+                identityResolver.resolveClientExpediteurId(expedition.client().getEmail()));
+        assertTrue(identityResolver.resolveLivreurId("fantome").isEmpty());
+        assertTrue(identityResolver.resolveClientExpediteurId("fantome@test.com").isEmpty());
+    }
+
+    @Test
+    public void livreur_shouldOnlySeeAssignedColis() throws Exception {
+        User user = utilisateur("livreur.scope", "ROLE_DELIVERY_PERSON", livreur);
+
+        mockMvc.perform(authentifie(get("/api/colis"), user))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(colisLivreur.getId().intValue())));
+        mockMvc.perform(authentifie(get("/api/colis/page"), user))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].id", is(colisLivreur.getId().intValue())));
+        mockMvc.perform(authentifie(get("/api/colis/" + colisLivreur.getId()), user))
+                .andExpect(status().isOk());
+        mockMvc.perform(authentifie(get("/api/colis/" + colisAutreClient.getId()), user))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void client_shouldOnlySeeOwnColis() throws Exception {
+        // Pas de lien explicite : email du client comme username
+        User user = nonEnregistre(expedition.client().getEmail(), "ROLE_CLIENT");
+
+        mockMvc.perform(authentifie(get("/api/colis"), user))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", containsInAnyOrder(
+                        colisLivreur.getId().intValue(), colisSansLivreur.getId().intValue())));
+        mockMvc.perform(authentifie(get("/api/colis/page").param("size", "1"), user))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.totalElements", is(2)));
+        mockMvc.perform(authentifie(get("/api/colis/" + colisSansLivreur.getId()), user))
+                .andExpect(status().isOk());
+        mockMvc.perform(authentifie(get("/api/colis/" + colisAutreClient.getId()), user))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void unknownPrincipal_shouldGetEmptyListsAndForbiddenColis() throws Exception {
+        for (String role : new String[]{"ROLE_DELIVERY_PERSON", "ROLE_CLIENT"}) {
+            User user = nonEnregistre("fantome", role);
+
+            mockMvc.perform(authentifie(get("/api/colis"), user))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(0)));
+            mockMvc.perform(authentifie(get("/api/colis/page"), user))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content", hasSize(0)))
+                    .andExpect(jsonPath("$.totalElements", is(0)));
+            mockMvc.perform(authentifie(get("/api/colis/" + colisLivreur.getId()), user))
+                    .andExpect(status().isForbidden());
+        }
+    }
+
+    private MockHttpServletRequestBuilder authentifie(MockHttpServletRequestBuilder requete, User user) {
+        return requete.header("Authorization", "Bearer " + jwtUtil.generateToken(user));
+    }
+
+    private User utilisateur(String username, String role, Livreur livreur) {
+        User user = nonEnregistre(username, role);
+        user.setLivreur(livreur);
+        return userRepository.saveAndFlush(user);
+    }
+
+    private User nonEnregistre(String username, String role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("hash");
+        user.setEmail(username.contains("@") ? username : username + "@scope.test");
+        user.setRole(roleRepository.findByName(role).orElseThrow());
+        return user;
+    }
+}
@@ -0,0 +1,98 @@
+package org.example.smartlogi.integration;
+
+import org.example.smartlogi.dto.ColisRechercheResultat;
+import org.example.smartlogi.entity.*;
+import org.example.smartlogi.repository.*;
+import org.example.smartlogi.service.ColisRechercheIndex;
+import org.example.smartlogi.service.ColisRechercheService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@Import(ColisFixtures.class)
+public class ColisRechercheIntegrationTest {
+
+    @Autowired
+    private ColisRechercheService colisRechercheService;
+
+    @Autowired
+    private ColisRepository colisRepository;
+
+    @Autowired
+    private ColisRechercheIndex rechercheIndex;
+
+    private Colis ouarzazate;
+
+    private Colis tanger;
+
+    @Autowired
+    private ColisFixtures fixtures;
+
+    @BeforeEach
+    void setUp() {
+        ColisFixtures.Expedition expedition = fixtures.expedition("Recherche", "40000", "Marrakech");
+
+        ouarzazate = expedition.colis("COL-RECH4815162342").villeDestination("Ouarzazate")
+                .description("Téléviseur Samsung 55 pouces").creer();
+        tanger = expedition.colis("COL-RECH1123581321").villeDestination("Tanger")
+                .description("Livres scolaires").creer();
+    }
+
+    @Test
+    public void rechercher_shouldTolerateTyposOnCityAndDescription() {
+        Page<ColisRechercheResultat> parVille = colisRechercheService.rechercher("ouarzazat", PageRequest.of(0, 10));
+        Page<ColisRechercheResultat> parDescription = colisRechercheService.rechercher("televiseur samsumg", PageRequest.of(0, 10));
+
+        assertEquals(ouarzazate.getId(), parVille.getContent().get(0).getColis().getId());
+        assertEquals(ouarzazate.getId(), parDescription.getContent().get(0).getColis().getId());
+    }
+
+    @Test
+    public void rechercher_shouldRankTrackingNumberMatchFirst() {
+        Page<ColisRechercheResultat> resultats = colisRechercheService.rechercher("rech1123581321", PageRequest.of(0, 10));
+
+        assertFalse(resultats.isEmpty());
+        assertEquals(tanger.getId(), resultats.getContent().get(0).getColis().getId());
+        for (int i = 1; i < resultats.getContent().size(); i++) {
+            assertTrue(resultats.getContent().get(i - 1).getScore() >= resultats.getContent().get(i).getScore());
+        }
+    }
+
+    @Test
+    public void rechercher_shouldPaginate() {
+        Page<ColisRechercheResultat> premiere = colisRechercheService.rechercher("col rech", PageRequest.of(0, 1));
+
+        assertEquals(1, premiere.getContent().size());
+        assertTrue(premiere.getTotalElements() >= 2);
+    }
+
+    @Test
+    public void retirer_shouldDropColisFromResultsAndTotals() {
+        long total = rechercheIndex.rechercher("col rech", PageRequest.of(0, 10)).getTotalElements();
+        assertTrue(rechercheIndex.rechercher("ouarzazat", PageRequest.of(0, 10)).getContent().stream()
+                .anyMatch(r -> r.colisId().equals(ouarzazate.getId())));
+
+        rechercheIndex.retirer(ouarzazate.getId());
+
+        assertEquals(total - 1, rechercheIndex.rechercher("col rech", PageRequest.of(0, 10)).getTotalElements());
+        assertTrue(rechercheIndex.rechercher("ouarzazat", PageRequest.of(0, 10)).getContent().stream()
+                .noneMatch(r -> r.colisId().equals(ouarzazate.getId())));
+    }
+
+    @Test
+    public void rechercher_shouldRejectTooShortKeyword() {
+        assertThrows(IllegalArgumentException.class, () -> colisRechercheService.rechercher(" a ", PageRequest.of(0, 10)));
+    }
+}
@@ -0,0 +1,114 @@
+package org.example.smartlogi.integration;
+
+import jakarta.persistence.EntityManager;
+import org.example.smartlogi.dto.ColisResume;
+import org.example.smartlogi.entity.Colis;
+import org.example.smartlogi.entity.Livreur;
+import org.example.smartlogi.enums.PrioriteColis;
+import org.example.smartlogi.enums.StatutColis;
+import org.example.smartlogi.mapper.ColisMapper;
+import org.example.smartlogi.repository.ColisRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Les projections SELECT_RESUME doivent rendre les mêmes DTO que l'ancien mapping des entités.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@Import(ColisFixtures.class)
+public class ColisResumeProjectionIntegrationTest {
+
+    @Autowired
+    private ColisRepository colisRepository;
+
+    @Autowired
+    private ColisMapper colisMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ColisFixtures fixtures;
+
+    private ColisFixtures.Expedition expedition;
+    private Livreur livreur;
+    private Colis assigne;
+    private Colis sansLivreur;
+
+    @BeforeEach
+    void setUp() {
+        expedition = fixtures.expedition("Resume", "30000", "Fes");
+        livreur = fixtures.livreur("0633300001", expedition.zone());
+        assigne = expedition.colis("COL-RESUME-1")
+                .statut(StatutColis.EN_TRANSIT)
+                .priorite(PrioriteColis.URGENTE)
+                .poids("3.75")
+                .livreur(livreur)
+                .dateLivraisonPrevue(LocalDateTime.now().plusDays(2))
+                .creer();
+        sansLivreur = expedition.colis("COL-RESUME-2").creer();
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    public void unassignedColis_shouldStillBeReturnedByLeftJoin() {
+        List<ColisResume> parZone = colisRepository.findResumesByZoneId(expedition.zone().getId());
+        ColisResume resume = parZone.stream()
+                .filter(r -> r.id().equals(sansLivreur.getId()))
+                .findFirst()
+                .orElseThrow();
+
+        assertEquals(2, parZone.size());
+        assertNull(resume.livreurId());
+        assertNull(resume.livreurNom());
+        assertEquals(expedition.zone().getNom(), resume.zoneNom());
+        assertTrue(colisRepository.findResumesByStatut(StatutColis.CREE).stream()
+                .anyMatch(r -> r.id().equals(sansLivreur.getId())));
+        assertEquals(2, colisRepository.findResumesByClientExpediteurId(expedition.client().getId()).size());
+        assertTrue(colisRepository.findAllResumes().stream().anyMatch(r -> r.id().equals(sansLivreur.getId())));
+        assertTrue(colisRepository.findAllResumes(Pageable.unpaged()).stream()
+                .anyMatch(r -> r.id().equals(sansLivreur.getId())));
+    }
+
+    @Test
+    public void resumeMapping_shouldMatchEntityMapping() {
+        for (Colis colis : List.of(assigne, sansLivreur)) {
+            Colis entite = colisRepository.findById(colis.getId()).orElseThrow();
+            ColisResume resume = colisRepository.findResumeById(colis.getId()).orElseThrow();
+
+            assertEquals(colisMapper.toDTO(entite), colisMapper.toDTO(resume));
+        }
+    }
+
+    @Test
+    public void resumesByLivreurAndIds_shouldMatchEntityMapping() {
+        List<ColisResume> parLivreur = colisRepository.findResumesByLivreurId(livreur.getId());
+
+        assertEquals(1, parLivreur.size());
+        assertEquals(colisMapper.toDTO(colisRepository.findById(assigne.getId()).orElseThrow()),
+                colisMapper.toDTO(parLivreur.get(0)));
+        assertEquals(livreur.getNom(), parLivreur.get(0).livreurNom());
+
+        List<ColisResume> parIds = colisRepository.findResumesByIdIn(List.of(assigne.getId(), sansLivreur.getId()));
+        assertEquals(2, parIds.size());
+        for (ColisResume resume : parIds) {
+            assertEquals(colisMapper.toDTO(colisRepository.findById(resume.id()).orElseThrow()),
+                    colisMapper.toDTO(resume));
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package org.example.smartlogi.integration;
+
+import org.example.smartlogi.dto.ColisDTO;
+import org.example.smartlogi.dto.ColisDetailDTO;
+import org.example.smartlogi.dto.CreateColisProduitRequest;
+import org.example.smartlogi.dto.CreateColisRequest;
+import org.example.smartlogi.entity.*;
+import org.example.smartlogi.enums.StatutColis;
+import org.example.smartlogi.repository.*;
+import org.example.smartlogi.service.ColisRetardTracker;
+import org.example.smartlogi.service.ColisService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.transaction.TestTransaction;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@Import(ColisFixtures.class)
+public class ColisRetardIntegrationTest {
+
+    @Autowired
+    private ColisService colisService;
+
+    @Autowired
+    private ColisRetardTracker retardTracker;
+
+    @Autowired
+    private ColisRepository colisRepository;
+
+    @Autowired
+    private HistoriqueLivraisonRepository historiqueRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ColisFixtures fixtures;
+
+    private ColisFixtures.Expedition expedition;
+    private Produit produit;
+
+    @BeforeEach
+    void setUp() {
+        expedition = fixtures.expedition("Retard", "50000", "Meknès");
+        produit = fixtures.produit("Colis test", BigDecimal.ONE, BigDecimal.TEN);
+    }
+
+    @Test
+    public void findColisEnRetard_shouldFollowCreationAndDeliveryOnceCommitted() {
+        ColisDetailDTO enRetard = colisService.create(request(LocalDateTime.now().minusHours(2)));
+        ColisDetailDTO aLHeure = colisService.create(request(LocalDateTime.now().plusDays(2)));
+
+        // Le suivi n'est mis à jour qu'au commit
+        assertFalse(idsEnRetard().contains(enRetard.getId()));
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        try {
+            List<Long> ids = idsEnRetard();
+            assertTrue(ids.contains(enRetard.getId()));
+            assertFalse(ids.contains(aLHeure.getId()));
+
+            colisService.changerStatut(enRetard.getId(), "EN_TRANSIT", null);
+            colisService.changerStatut(enRetard.getId(), "LIVRE", "Livré");
+
+            assertFalse(idsEnRetard().contains(enRetard.getId()));
+        } finally {
+            colisService.delete(enRetard.getId());
+            colisService.delete(aLHeure.getId());
+            fixtures.supprimer(expedition, produit);
+        }
+    }
+
+    @Test
+    public void reconcilier_shouldPickUpColisWrittenOutsideTheService() {
+        Colis colis = expedition.colis("COL-RETARD-EXT")
+                .statut(StatutColis.EN_STOCK)
+                .dateLivraisonPrevue(LocalDateTime.now().minusDays(1))
+                .creer();
+
+        HistoriqueLivraison historique = new HistoriqueLivraison();
+        historique.setColis(colis);
+        historique.setStatut(StatutColis.EN_STOCK);
+        historiqueRepository.saveAndFlush(historique);
+
+        retardTracker.reconcilier();
+
+        assertTrue(idsEnRetard().contains(colis.getId()));
+    }
+
+    @Test
+    public void reconcilier_shouldPickUpHistoryCommittedLateWithLowerIdAndEarlierDate() {
+        Colis premier = expedition.colis("COL-RETARD-TOT")
+                .statut(StatutColis.EN_STOCK)
+                .dateLivraisonPrevue(LocalDateTime.now().minusDays(1))
+                .creer();
+        HistoriqueLivraison historique = new HistoriqueLivraison();
+        historique.setColis(premier);
+        historique.setStatut(StatutColis.EN_STOCK);
+        historiqueRepository.saveAndFlush(historique);
+        retardTracker.reconcilier();
+
+        // Ligne d'une transaction plus ancienne commitée après le passage : id et date inférieurs
+        Colis tardif = expedition.colis("COL-RETARD-TARDIF")
+                .statut(StatutColis.EN_STOCK)
+                .dateLivraisonPrevue(LocalDateTime.now().minusDays(1))
+                .creer();
+        jdbcTemplate.update("INSERT INTO historique_livraison (id, colis_id, statut, date_changement) VALUES (?, ?, ?, ?)",
+                -tardif.getId(), tardif.getId(), StatutColis.EN_STOCK.name(),
+                Timestamp.valueOf(LocalDateTime.now().minusMinutes(1)));
+        retardTracker.reconcilier();
+
+        List<Long> ids = idsEnRetard();
+        assertTrue(ids.contains(premier.getId()));
+        assertTrue(ids.contains(tardif.getId()));
+    }
+
+    private List<Long> idsEnRetard() {
+        return colisService.findColisEnRetard().stream().map(ColisDTO::getId).toList();
+    }
+
+    private CreateColisRequest request(LocalDateTime dateLivraisonPrevue) {
+        CreateColisRequest request = new CreateColisRequest();
+        request.setClientExpediteurId(expedition.client().getId());
+        request.setDestinataireId(expedition.destinataire().getId());
+        request.setZoneDestinationId(expedition.zone().getId());
+        request.setPriorite("NORMALE");
+        request.setDateLivraisonPrevue(dateLivraisonPrevue);
+        request.setProduits(List.of(new CreateColisProduitRequest(produit.getId(), 1)));
+        return request;
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.smartlogi.integration;
+
+import org.example.smartlogi.dto.ColisBatchItemResult;
+import org.example.smartlogi.dto.ColisBatchResponse;
+import org.example.smartlogi.dto.ScanStatutRequest;
+import org.example.smartlogi.entity.Colis;
+import org.example.smartlogi.enums.StatutColis;
+import org.example.smartlogi.repository.*;
+import org.example.smartlogi.service.ColisScanService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@Import(ColisFixtures.class)
+public class ColisScanIntegrationTest {
+
+    @Autowired
+    private ColisScanService colisScanService;
+
+    @Autowired
+    private ColisRepository colisRepository;
+
+    @Autowired
+    private HistoriqueLivraisonRepository historiqueRepository;
+
+    @Autowired
+    private ColisFixtures fixtures;
+
+    private ColisFixtures.Expedition expedition;
+
+    @BeforeEach
+    void setUp() {
+        expedition = fixtures.expedition("Hub", "60000", "Oujda");
+    }
+
+    @Test
+    public void scanner_shouldApplyValidTransitionsAndReportEachItem() {
+        Colis collecte = colis("COL-HUB-1", StatutColis.COLLECTE);
+        Colis enTransit = colis("COL-HUB-2", StatutColis.EN_TRANSIT);
+        Colis cree = colis("COL-HUB-3", StatutColis.CREE);
+        Colis enStock = colis("COL-HUB-4", StatutColis.EN_STOCK);
+
+        ColisBatchResponse response = colisScanService.scanner(new ScanStatutRequest(
+                List.of("COL-HUB-1", " COL-HUB-2 ", "COL-HUB-3", "COL-HUB-4", "COL-INCONNU", "COL-HUB-1"),
+                "EN_STOCK", null));
+
+        assertEquals(6, response.getTotal());
+        assertEquals(2, response.getSucces());
+        assertEquals(4, response.getEchecs());
+
+        List<ColisBatchItemResult> resultats = response.getResultats();
+        assertTrue(resultats.get(0).isSucces());
+        assertTrue(resultats.get(1).isSucces());
+        assertEquals("Transition de statut invalide: CREE -> EN_STOCK", resultats.get(2).getErreur());
+        assertEquals("Colis déjà au statut EN_STOCK", resultats.get(3).getErreur());
+        assertEquals("Colis non trouvé", resultats.get(4).getErreur());
+        assertEquals("Numéro en double dans le scan", resultats.get(5).getErreur());
+
+        assertEquals(StatutColis.EN_STOCK, colisRepository.findStatutById(collecte.getId()).orElseThrow());
+        assertEquals(StatutColis.EN_STOCK, colisRepository.findStatutById(enTransit.getId()).orElseThrow());
+        assertEquals(StatutColis.CREE, colisRepository.findStatutById(cree.getId()).orElseThrow());
+        assertEquals(1, historiqueRepository.findByColisIdOrderByDateChangementAscIdAsc(collecte.getId()).size());
+        assertTrue(historiqueRepository.findByColisIdOrderByDateChangementAscIdAsc(enStock.getId()).isEmpty());
+    }
+
+    @Test
+    public void scanner_shouldRejectDeliveredAsTarget() {
+        colis("COL-HUB-5", StatutColis.EN_TRANSIT);
+
+        assertThrows(IllegalArgumentException.class, () -> colisScanService.scanner(
+                new ScanStatutRequest(List.of("COL-HUB-5"), "LIVRE", null)));
+    }
+
+    private Colis colis(String numero, StatutColis statut) {
+        return expedition.colis(numero).statut(statut).creer();
+    }
+}
@@ -0,0 +1,97 @@
+package org.example.smartlogi.integration;
+
+import org.example.smartlogi.dto.ColisDTO;
+import org.example.smartlogi.entity.*;
+import org.example.smartlogi.enums.StatutColis;
+import org.example.smartlogi.exception.BusinessException;
+import org.example.smartlogi.repository.*;
+import org.example.smartlogi.service.ColisService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@Import(ColisFixtures.class)
+public class ColisStatutTransitionIntegrationTest {
+
+    @Autowired
+    private ColisService colisService;
+
+    @Autowired
+    private ColisRepository colisRepository;
+
+    @Autowired
+    private HistoriqueLivraisonRepository historiqueRepository;
+
+    @Autowired
+    private ColisFixtures fixtures;
+
+    private Colis colis;
+
+    private Livreur livreur;
+
+    @BeforeEach
+    void setUp() {
+        ColisFixtures.Expedition expedition = fixtures.expedition("Transition", "60000", "Oujda");
+        livreur = fixtures.livreur("0500000066", expedition.zone());
+        colis = expedition.colis("COL-TRANSITION").creer();
+    }
+
+    @Test
+    public void changerStatut_shouldFollowTransitionTableAndBumpVersion() {
+        ColisDTO collecte = colisService.changerStatut(colis.getId(), "COLLECTE", "Ramassé");
+        ColisDTO enTransit = colisService.assignerLivreur(colis.getId(), livreur.getId());
+        ColisDTO livre = colisService.changerStatut(colis.getId(), "LIVRE", "Remis");
+
+        assertEquals("COLLECTE", collecte.getStatut());
+        assertEquals("EN_TRANSIT", enTransit.getStatut());
+        assertEquals(livreur.getId(), enTransit.getLivreurAssigneId());
+        assertEquals("LIVRE", livre.getStatut());
+        assertNotNull(livre.getDateLivraisonReelle());
+        assertEquals(colis.getVersion() + 3, livre.getVersion());
+        assertEquals(3, historiqueRepository.countByColis(colisRepository.getReferenceById(colis.getId())));
+    }
+
+    @Test
+    public void changerStatut_shouldRejectInvalidTransition() {
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> colisService.changerStatut(colis.getId(), "LIVRE", null));
+
+        assertTrue(exception.getMessage().contains("CREE -> LIVRE"));
+        assertEquals(StatutColis.CREE, colisRepository.findStatutById(colis.getId()).orElseThrow());
+    }
+
+    @Test
+    public void changerStatut_twice_shouldLetOnlyFirstScanWin() {
+        colisService.changerStatut(colis.getId(), "EN_TRANSIT", null);
+        colisService.changerStatut(colis.getId(), "LIVRE", null);
+
+        assertThrows(BusinessException.class, () -> colisService.changerStatut(colis.getId(), "LIVRE", null));
+    }
+
+    @Test
+    public void changerStatut_withStaleVersion_shouldFail() {
+        Long versionLue = colis.getVersion();
+        colisService.changerStatut(colis.getId(), "EN_PREPARATION", null, versionLue);
+
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> colisService.changerStatut(colis.getId(), "COLLECTE", null, versionLue));
+        assertTrue(exception.getMessage().contains("modifié"));
+    }
+
+    @Test
+    public void changerStatut_onUnknownColis_shouldFail() {
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> colisService.changerStatut(-1L, "COLLECTE", null));
+        assertEquals("Colis non trouvé", exception.getMessage());
+    }
+}
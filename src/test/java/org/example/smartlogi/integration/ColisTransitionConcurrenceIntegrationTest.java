@@ -0,0 +1,110 @@
+package org.example.smartlogi.integration;
+
+import org.example.smartlogi.config.DatabasePlatform;
+import org.example.smartlogi.enums.StatutColis;
+import org.example.smartlogi.repository.ColisTransitionRepository;
+import org.example.smartlogi.repository.ColisTransitionRepository.EtatPrecedent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Deux transitions valides sur le même colis dans deux transactions concurrentes (base H2 dédiée).
+ */
+public class ColisTransitionConcurrenceIntegrationTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private ColisTransitionRepository transitions;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:transitions;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE colis (id BIGINT PRIMARY KEY, statut VARCHAR(20), version BIGINT, " +
+                "livreur_id BIGINT, poids_total DECIMAL(10, 2), date_livraison_effective TIMESTAMP)");
+        jdbcTemplate.update("INSERT INTO colis (id, statut, version, poids_total) VALUES (1, 'CREE', 0, 2.50)");
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transitions = new ColisTransitionRepository(jdbcTemplate, new DatabasePlatform(jdbcTemplate));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    public void concurrentValidTransitions_shouldBothApplyAndReportReplacedStatus() throws Exception {
+        CountDownLatch premiereAppliquee = new CountDownLatch(1);
+
+        CompletableFuture<Optional<EtatPrecedent>> premiere = CompletableFuture.supplyAsync(() ->
+                transactionTemplate.execute(status -> {
+                    Optional<EtatPrecedent> etat = transitions.changerStatut(1L, StatutColis.EN_PREPARATION,
+                            StatutColis.EN_PREPARATION.predecesseurs(), null);
+                    premiereAppliquee.countDown();
+                    pause(300);
+                    return etat;
+                }));
+
+        assertTrue(premiereAppliquee.await(5, TimeUnit.SECONDS));
+        // Lue avant le commit de la première, la ligne est CREE ; la seconde attend le verrou
+        Optional<EtatPrecedent> seconde = transactionTemplate.execute(status ->
+                transitions.changerStatut(1L, StatutColis.COLLECTE, StatutColis.COLLECTE.predecesseurs(), null));
+
+        assertEquals(StatutColis.CREE, premiere.get(5, TimeUnit.SECONDS).orElseThrow().statut());
+        assertEquals(StatutColis.EN_PREPARATION, seconde.orElseThrow().statut());
+        assertEquals("COLLECTE", jdbcTemplate.queryForObject("SELECT statut FROM colis WHERE id = 1", String.class));
+        assertEquals(2L, jdbcTemplate.queryForObject("SELECT version FROM colis WHERE id = 1", Long.class));
+    }
+
+    @Test
+    public void assignerLivreur_shouldReturnPreviousDriverAndRejectStaleVersion() {
+        jdbcTemplate.update("UPDATE colis SET statut = 'EN_TRANSIT', livreur_id = 7 WHERE id = 1");
+
+        EtatPrecedent avant = transitions.assignerLivreur(1L, 8L, Set.of(StatutColis.EN_TRANSIT), 0L).orElseThrow();
+
+        assertEquals(7L, avant.livreurId());
+        assertEquals(0, avant.poidsTotal().compareTo(new BigDecimal("2.50")));
+        assertTrue(transitions.assignerLivreur(1L, 9L, Set.of(StatutColis.EN_TRANSIT), 0L).isEmpty());
+        assertEquals(8L, jdbcTemplate.queryForObject("SELECT livreur_id FROM colis WHERE id = 1", Long.class));
+    }
+
+    @Test
+    public void assignerLot_shouldAssignColisThatMovedBetweenAssignableStatuses() {
+        // Lu CREE par le dispatch puis passé COLLECTE : toujours assignable, statut remplacé exact
+        jdbcTemplate.update("UPDATE colis SET statut = 'COLLECTE' WHERE id = 1");
+        jdbcTemplate.update("INSERT INTO colis (id, statut, version, livreur_id, poids_total) " +
+                "VALUES (2, 'CREE', 0, 5, 1.00)");
+
+        Map<Long, StatutColis> anciens = transitions.assignerLot(Map.of(1L, 8L, 2L, 8L),
+                StatutColis.EN_TRANSIT.predecesseurs());
+
+        assertEquals(Map.of(1L, StatutColis.COLLECTE), anciens);
+        assertEquals(8L, jdbcTemplate.queryForObject("SELECT livreur_id FROM colis WHERE id = 1", Long.class));
+        assertEquals(5L, jdbcTemplate.queryForObject("SELECT livreur_id FROM colis WHERE id = 2", Long.class));
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.smartlogi.integration;
+
+import org.example.smartlogi.dto.DashboardCellule;
+import org.example.smartlogi.entity.Zone;
+import org.example.smartlogi.enums.PrioriteColis;
+import org.example.smartlogi.enums.StatutColis;
+import org.example.smartlogi.repository.ColisRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@Import(ColisFixtures.class)
+public class DashboardIntegrationTest {
+
+    @Autowired
+    private ColisRepository colisRepository;
+
+    @Autowired
+    private ColisFixtures fixtures;
+
+    private ColisFixtures.Expedition expedition;
+
+    private Zone zone;
+
+    @BeforeEach
+    void setUp() {
+        expedition = fixtures.expedition("Dashboard", "80000", "Agadir");
+        zone = expedition.zone();
+    }
+
+    @Test
+    public void agreger_shouldGroupByStatutZoneAndPriorite() {
+        colis("COL-DASH-1", StatutColis.CREE, PrioriteColis.NORMALE, "2.50");
+        colis("COL-DASH-2", StatutColis.CREE, PrioriteColis.NORMALE, "1.50");
+        colis("COL-DASH-3", StatutColis.CREE, PrioriteColis.URGENTE, "5.00");
+        colis("COL-DASH-4", StatutColis.EN_STOCK, PrioriteColis.NORMALE, "1.00");
+
+        List<DashboardCellule> cellules = colisRepository.agregerParStatutZonePriorite().stream()
+                .filter(c -> zone.getId().equals(c.zoneId()))
+                .toList();
+
+        assertEquals(3, cellules.size());
+        DashboardCellule creeNormale = cellules.stream()
+                .filter(c -> c.statut() == StatutColis.CREE && c.priorite() == PrioriteColis.NORMALE)
+                .findFirst()
+                .orElseThrow();
+        assertEquals(2L, creeNormale.nombre());
+        assertEquals(0, new BigDecimal("4.00").compareTo(creeNormale.poids()));
+        assertEquals("Zone Dashboard", creeNormale.zoneNom());
+    }
+
+    private void colis(String numero, StatutColis statut, PrioriteColis priorite, String poids) {
+        expedition.colis(numero).statut(statut).priorite(priorite).poids(poids).creer();
+    }
+}
@@ -0,0 +1,206 @@
+package org.example.smartlogi.integration;
+
+import org.example.smartlogi.dto.DispatchResultat;
+import org.example.smartlogi.entity.*;
+import org.example.smartlogi.enums.PrioriteColis;
+import org.example.smartlogi.enums.StatutColis;
+import org.example.smartlogi.enums.TypeVehicule;
+import org.example.smartlogi.repository.*;
+import org.example.smartlogi.service.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@Import(ColisFixtures.class)
+public class DispatchIntegrationTest {
+
+    @Autowired
+    private DispatchService dispatchService;
+
+    @Autowired
+    private ColisRepository colisRepository;
+
+    @Autowired
+    private HistoriqueLivraisonRepository historiqueRepository;
+
+    @Autowired
+    private ColisService colisService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ColisTransitionRepository colisTransitionRepository;
+
+    @Autowired
+    private ColisRetardTracker retardTracker;
+
+    @Autowired
+    private SuiviPublicService suiviPublicService;
+
+    @Autowired
+    private ColisEvenementService evenementService;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private ColisFixtures fixtures;
+
+    private ColisFixtures.Expedition expedition;
+
+    private Zone zone;
+
+    private Zone zoneSansLivreur;
+
+    private Livreur premier;
+
+    private Livreur second;
+
+    @BeforeEach
+    void setUp() {
+        expedition = fixtures.expedition("Dispatch", "70000", "Safi");
+        zone = expedition.zone();
+        zoneSansLivreur = fixtures.zone("Zone Vide", "70001", "Safi");
+
+        premier = fixtures.livreur("0500000081", zone);
+        second = fixtures.livreur("0500000082", zone);
+    }
+
+    @Test
+    public void executer_shouldSpreadColisAcrossLivreursOfTheirZone() {
+        List<Colis> colis = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            colis.add(colis("COL-DISPATCH-" + i, zone, i == 0 ? PrioriteColis.TRES_URGENTE : PrioriteColis.NORMALE));
+        }
+        Colis isole = colis("COL-DISPATCH-VIDE", zoneSansLivreur, PrioriteColis.URGENTE);
+
+        DispatchResultat resultat = dispatchService.executer();
+
+        assertTrue(resultat.getAssignations() >= 4);
+        long pourPremier = colisRepository.findResumesByLivreurId(premier.getId()).size();
+        long pourSecond = colisRepository.findResumesByLivreurId(second.getId()).size();
+        assertEquals(2, pourPremier);
+        assertEquals(2, pourSecond);
+
+        for (Colis c : colis) {
+            assertEquals(StatutColis.EN_TRANSIT, colisRepository.findStatutById(c.getId()).orElseThrow());
+            assertEquals(1, historiqueRepository.countByColis(colisRepository.getReferenceById(c.getId())));
+        }
+        assertEquals(StatutColis.CREE, colisRepository.findStatutById(isole.getId()).orElseThrow());
+        assertTrue(dispatchService.stats().getExecutions() >= 1);
+    }
+
+    @Test
+    public void executer_shouldSkipAlreadyAssignedColis() {
+        Colis colis = colis("COL-DISPATCH-PRIS", zone, PrioriteColis.URGENTE);
+        colis.setLivreur(premier);
+        colis.setStatut(StatutColis.EN_TRANSIT);
+        colisRepository.saveAndFlush(colis);
+
+        dispatchService.executer();
+
+        assertEquals(premier.getId(), colisRepository.findResumeById(colis.getId()).orElseThrow().livreurId());
+        assertEquals(0, historiqueRepository.countByColis(colisRepository.getReferenceById(colis.getId())));
+    }
+
+    @Test
+    public void executer_shouldRespectVehicleCapacityAndMaintainCharge() {
+        Colis lourd = colis("COL-DISPATCH-LOURD", zone, PrioriteColis.TRES_URGENTE);
+        lourd.setPoidsTotal(new BigDecimal("45.00"));
+        colisRepository.saveAndFlush(lourd);
+        Colis leger = colis("COL-DISPATCH-LEGER", zone, PrioriteColis.NORMALE);
+
+        dispatchService.executer();
+
+        // Deux motos (30 kg max) : le colis de 45 kg reste en attente, le suivant passe quand même
+        assertNull(colisRepository.findResumeById(lourd.getId()).orElseThrow().livreurId());
+        Long livreurId = colisRepository.findResumeById(leger.getId()).orElseThrow().livreurId();
+        assertNotNull(livreurId);
+        assertEquals(1, chargeColis(livreurId));
+
+        colisService.changerStatut(leger.getId(), "LIVRE", null);
+
+        assertEquals(0, chargeColis(livreurId));
+    }
+
+    @Test
+    public void remplissage_shouldFillOneLivreurBeforeTheNext() {
+        for (int i = 0; i < 3; i++) {
+            colis("COL-REMPLISSAGE-" + i, zone, PrioriteColis.NORMALE);
+        }
+        DispatchService remplissage = dispatchService(500, "remplissage");
+
+        DispatchResultat resultat = remplissage.executer();
+
+        assertEquals("REMPLISSAGE", resultat.getMode());
+        assertEquals(3, chargeColis(premier.getId()));
+        assertEquals(0, chargeColis(second.getId()));
+    }
+
+    @Test
+    public void saturatedZone_shouldNotStarveOtherZones() {
+        // Zone dont l'unique moto est pleine, avec plus de colis prioritaires que la fenêtre de lecture
+        Zone saturee = fixtures.zone("Zone Saturée", "70002", "Safi");
+        Livreur plein = fixtures.livreur("0500000083", saturee);
+        jdbcTemplate.update("UPDATE livreur SET charge_colis = ? WHERE id = ?",
+                TypeVehicule.MOTO.getColisMax(), plein.getId());
+        for (int i = 0; i < 10; i++) {
+            expedition.colis("COL-SATURE-" + i).zone(saturee).priorite(PrioriteColis.TRES_URGENTE)
+                    .dateLivraisonPrevue(LocalDateTime.now().minusYears(20)).creer();
+        }
+        Colis attendu = expedition.colis("COL-NON-AFFAME").priorite(PrioriteColis.TRES_URGENTE)
+                .dateLivraisonPrevue(LocalDateTime.now().minusYears(10)).creer();
+
+        dispatchService(2, "equilibrage").executer();
+
+        assertNotNull(colisRepository.findResumeById(attendu.getId()).orElseThrow().livreurId());
+    }
+
+    @Test
+    public void assignerLivreur_shouldMoveChargeToNewLivreur() {
+        Colis colis = colis("COL-REASSIGNATION", zone, PrioriteColis.NORMALE);
+
+        colisService.assignerLivreur(colis.getId(), premier.getId());
+        colisService.assignerLivreur(colis.getId(), second.getId());
+
+        assertEquals(0, chargeColis(premier.getId()));
+        assertEquals(1, chargeColis(second.getId()));
+    }
+
+    private DispatchService dispatchService(int tailleLot, String mode) {
+        return new DispatchService(jdbcTemplate, transactionManager, colisRepository, colisTransitionRepository,
+                retardTracker, suiviPublicService, evenementService, dashboardService, tailleLot, mode);
+    }
+
+    private int chargeColis(Long livreurId) {
+        return jdbcTemplate.queryForObject("SELECT charge_colis FROM livreur WHERE id = ?", Integer.class, livreurId);
+    }
+
+    private Colis colis(String numero, Zone zoneDestination, PrioriteColis priorite) {
+        return expedition.colis(numero)
+                .zone(zoneDestination)
+                .priorite(priorite)
+                .dateLivraisonPrevue(LocalDateTime.now().plusDays(1))
+                .creer();
+    }
+}
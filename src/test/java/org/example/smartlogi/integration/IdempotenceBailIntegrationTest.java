@@ -0,0 +1,93 @@
+package org.example.smartlogi.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.smartlogi.service.IdempotenceService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Deux instances partageant la table idempotence (base H2 dédiée) : une action plus longue
+ * que le bail ne doit pas être rejouée par l'autre instance.
+ */
+public class IdempotenceBailIntegrationTest {
+
+    private static final long BAIL_MS = 300;
+
+    private JdbcTemplate jdbcTemplate;
+    private IdempotenceService premiereInstance;
+    private IdempotenceService secondeInstance;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:idempotence-bail;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE idempotence (cle VARCHAR(255) PRIMARY KEY, empreinte VARCHAR(64) NOT NULL, " +
+                "statut_http INT, corps TEXT, date_creation TIMESTAMP NOT NULL, expire_a TIMESTAMP NOT NULL)");
+        premiereInstance = instance(dataSource);
+        secondeInstance = instance(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        premiereInstance.arreter();
+        secondeInstance.arreter();
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    public void actionLongerThanLease_shouldNotRunTwiceAcrossInstances() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch demarree = new CountDownLatch(1);
+
+        CompletableFuture<ResponseEntity<String>> longue = CompletableFuture.supplyAsync(() ->
+                premiereInstance.executer("cle-longue", "test", "requete", String.class, () -> {
+                    executions.incrementAndGet();
+                    demarree.countDown();
+                    pause(4 * BAIL_MS);
+                    return ResponseEntity.status(HttpStatus.CREATED).body("colis-1");
+                }));
+        assertTrue(demarree.await(2, TimeUnit.SECONDS));
+        pause(2 * BAIL_MS);
+
+        // Bail initial dépassé : renouvelé, la réservation n'est ni expirée ni supprimée
+        ResponseEntity<String> doublon = secondeInstance.executer("cle-longue", "test", "requete", String.class,
+                () -> {
+                    executions.incrementAndGet();
+                    return ResponseEntity.ok("doublon");
+                });
+
+        assertEquals(HttpStatus.CREATED, longue.get(5, TimeUnit.SECONDS).getStatusCode());
+        assertEquals(1, executions.get());
+        assertNotEquals("doublon", doublon.getBody());
+        assertEquals(201, jdbcTemplate.queryForObject(
+                "SELECT statut_http FROM idempotence WHERE cle = 'test:cle-longue'", Integer.class));
+    }
+
+    private static IdempotenceService instance(DataSource dataSource) {
+        return new IdempotenceService(new JdbcTemplate(dataSource), new DataSourceTransactionManager(dataSource),
+                new ObjectMapper(), 100, 24, BAIL_MS / 2, BAIL_MS);
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.smartlogi.integration;
+
+import org.example.smartlogi.dto.ColisDTO;
+import org.example.smartlogi.dto.ColisDetailDTO;
+import org.example.smartlogi.dto.CreateColisProduitRequest;
+import org.example.smartlogi.dto.CreateColisRequest;
+import org.example.smartlogi.entity.Produit;
+import org.example.smartlogi.repository.*;
+import org.example.smartlogi.service.ColisService;
+import org.example.smartlogi.service.IdempotenceService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@Import(ColisFixtures.class)
+public class IdempotenceIntegrationTest {
+
+    @Autowired
+    private IdempotenceService idempotenceService;
+
+    @Autowired
+    private ColisService colisService;
+
+    @Autowired
+    private ColisRepository colisRepository;
+
+    @Autowired
+    private HistoriqueLivraisonRepository historiqueRepository;
+
+    @Autowired
+    private ColisFixtures fixtures;
+
+    private ColisFixtures.Expedition expedition;
+    private Produit produit;
+
+    @BeforeEach
+    void setUp() {
+        expedition = fixtures.expedition("Idempotence", "70000", "Laâyoune");
+        produit = fixtures.produit("Colis idempotent", BigDecimal.ONE, BigDecimal.TEN);
+    }
+
+    @Test
+    public void create_withSameKey_shouldCreateOnceAndReplay() {
+        String cle = UUID.randomUUID().toString();
+        CreateColisRequest request = request();
+
+        ResponseEntity<ColisDetailDTO> premiere = creer(cle, request);
+        ResponseEntity<ColisDetailDTO> reprise = creer(cle, request);
+
+        assertEquals(HttpStatus.CREATED, reprise.getStatusCode());
+        assertEquals("true", reprise.getHeaders().getFirst(IdempotenceService.EN_TETE_REJEU));
+        assertEquals(premiere.getBody().getId(), reprise.getBody().getId());
+        assertEquals(premiere.getBody().getNumeroSuivi(), reprise.getBody().getNumeroSuivi());
+        assertEquals(1, colisRepository.findByClientExpediteurId(expedition.client().getId()).size());
+    }
+
+    @Test
+    public void changerStatut_withSameKey_shouldWriteHistoryOnce() {
+        Long id = expedition.colis("COL-IDEMPOTENT").creer().getId();
+        String cle = UUID.randomUUID().toString();
+
+        changerStatut(cle, id, "COLLECTE");
+        ResponseEntity<ColisDTO> reprise = changerStatut(cle, id, "COLLECTE");
+
+        assertEquals(HttpStatus.OK, reprise.getStatusCode());
+        assertEquals("COLLECTE", reprise.getBody().getStatut());
+        assertEquals(1, historiqueRepository.findByColisIdOrderByDateChangementAscIdAsc(id).size());
+    }
+
+    @Test
+    public void sameKey_withDifferentRequest_shouldBeRejected() {
+        String cle = UUID.randomUUID().toString();
+        creer(cle, request());
+
+        CreateColisRequest autre = request();
+        autre.setPriorite("URGENTE");
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, creer(cle, autre).getStatusCode());
+        assertEquals(1, colisRepository.findByClientExpediteurId(expedition.client().getId()).size());
+    }
+
+    private ResponseEntity<ColisDetailDTO> creer(String cle, CreateColisRequest request) {
+        return idempotenceService.executer(cle, "test-creation", request, ColisDetailDTO.class,
+                () -> ResponseEntity.status(HttpStatus.CREATED).body(colisService.create(request)));
+    }
+
+    private ResponseEntity<ColisDTO> changerStatut(String cle, Long id, String statut) {
+        return idempotenceService.executer(cle, "test-statut", List.of(id, statut), ColisDTO.class,
+                () -> ResponseEntity.ok(colisService.changerStatut(id, statut, null)));
+    }
+
+    private CreateColisRequest request() {
+        CreateColisRequest request = new CreateColisRequest();
+        request.setClientExpediteurId(expedition.client().getId());
+        request.setDestinataireId(expedition.destinataire().getId());
+        request.setZoneDestinationId(expedition.zone().getId());
+        request.setPriorite("NORMALE");
+        request.setProduits(List.of(new CreateColisProduitRequest(produit.getId(), 1)));
+        return request;
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.smartlogi.integration;
+
+import jakarta.persistence.EntityManager;
+import org.example.smartlogi.config.ReferenceCacheRegionFactory;
+import org.example.smartlogi.dto.CacheRegionStats;
+import org.example.smartlogi.entity.Role;
+import org.example.smartlogi.entity.Zone;
+import org.example.smartlogi.repository.RoleRepository;
+import org.example.smartlogi.repository.ZoneRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class ReferenceCacheIntegrationTest {
+
+    @Autowired
+    private ZoneRepository zoneRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ReferenceCacheRegionFactory regionFactory;
+
+    /**
+     * Hors transaction de test : une entrée READ_WRITE mise en cache après le début de la session
+     * n'est pas lisible par cette même session.
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void zone_shouldBeServedFromSecondLevelCache() {
+        Long id = zoneRepository.findByNom("Rabat Agdal").orElseThrow().getId();
+        entityManager.clear();
+        zoneRepository.findById(id).orElseThrow();
+        long hitsAvant = stats("zone").hits();
+
+        entityManager.clear();
+        Zone zone = zoneRepository.findById(id).orElseThrow();
+
+        assertEquals("Rabat Agdal", zone.getNom());
+        assertEquals(hitsAvant + 1, stats("zone").hits());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void findByCodePostal_shouldUseQueryCache() {
+        zoneRepository.findByCodePostal("40000").orElseThrow();
+        long hitsAvant = stats(ZoneRepository.REGION_REQUETES).hits();
+
+        entityManager.clear();
+        assertEquals("Marrakech Médina", zoneRepository.findByCodePostal("40000").orElseThrow().getNom());
+
+        assertEquals(hitsAvant + 1, stats(ZoneRepository.REGION_REQUETES).hits());
+    }
+
+    @Test
+    public void rolePermissions_shouldBeCachedAsCollection() {
+        Long id = roleRepository.findAll().get(0).getId();
+        entityManager.clear();
+        roleRepository.findById(id).orElseThrow().getPermissions().size();
+        long hitsAvant = stats("role-permissions").hits();
+
+        entityManager.clear();
+        Role role = roleRepository.findById(id).orElseThrow();
+        role.getPermissions().size();
+
+        assertTrue(stats("role-permissions").hits() > hitsAvant);
+    }
+
+    private CacheRegionStats stats(String region) {
+        return regionFactory.statistiques().stream()
+                .filter(s -> s.region().equals(region))
+                .findFirst()
+                .orElseThrow();
+    }
+}
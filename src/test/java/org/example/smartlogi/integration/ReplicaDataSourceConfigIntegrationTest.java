@@ -0,0 +1,47 @@
+package org.example.smartlogi.integration;
+
+import org.example.smartlogi.config.ReplicaRoutingDataSource;
+import org.example.smartlogi.dto.ZoneDTO;
+import org.example.smartlogi.service.ZoneService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Câblage complet avec un réplica déclaré (ici la même base H2 que le primaire) :
+ * Liquibase, JPA et les services passent par la DataSource de routage.
+ */
+@SpringBootTest(properties = "spring.datasource.replica.url=jdbc:h2:mem:testdb")
+@ActiveProfiles("test")
+public class ReplicaDataSourceConfigIntegrationTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Autowired
+    private ZoneService zoneService;
+
+    @Test
+    public void readOnlyAndWriteServices_shouldWorkThroughRouting() {
+        assertInstanceOf(LazyConnectionDataSourceProxy.class, dataSource);
+        assertSame(routingDataSource, ((LazyConnectionDataSourceProxy) dataSource).getTargetDataSource());
+
+        ZoneDTO zone = new ZoneDTO();
+        zone.setNom("Zone Réplica");
+        zone.setCodePostal("90000");
+        zone.setVille("Tanger");
+        ZoneDTO creee = zoneService.create(zone);
+
+        assertTrue(zoneService.findAll().stream().anyMatch(z -> z.getId().equals(creee.getId())));
+        zoneService.delete(creee.getId());
+    }
+}
@@ -0,0 +1,112 @@
+package org.example.smartlogi.integration;
+
+import org.example.smartlogi.config.ReplicaRoutingDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Deux bases H2 distinctes jouent le primaire et le réplica : chacune répond par son propre nom.
+ */
+public class ReplicaRoutingIntegrationTest {
+
+    private DataSource primaire;
+    private DataSource replica;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate ecriture;
+    private TransactionTemplate lecture;
+
+    @BeforeEach
+    void setUp() {
+        primaire = base("routage_primaire");
+        replica = base("routage_replica");
+        DataSource routage = new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primaire, replica, 60_000, 10_000, null));
+
+        jdbcTemplate = new JdbcTemplate(routage);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routage);
+        ecriture = new TransactionTemplate(transactionManager);
+        lecture = new TransactionTemplate(transactionManager);
+        lecture.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        new JdbcTemplate(primaire).execute("DROP ALL OBJECTS");
+        new JdbcTemplate(replica).execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    public void readOnlyTransactions_shouldGoToReplica() {
+        assertEquals("routage_replica", lecture.execute(status -> origine()));
+        assertEquals("routage_primaire", ecriture.execute(status -> origine()));
+    }
+
+    @Test
+    public void writerShouldReadOwnWritesFromPrimary() {
+        connecter("livreur");
+        ecriture.executeWithoutResult(status -> jdbcTemplate.update("UPDATE origine SET nom = nom"));
+
+        assertEquals("routage_primaire", lecture.execute(status -> origine()));
+
+        connecter("manager");
+        assertEquals("routage_replica", lecture.execute(status -> origine()));
+    }
+
+    @Test
+    public void rolledBackWrite_shouldNotPinReadsToPrimary() {
+        connecter("livreur");
+        ecriture.executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE origine SET nom = nom");
+            status.setRollbackOnly();
+        });
+
+        assertEquals("routage_replica", lecture.execute(status -> origine()));
+    }
+
+    @Test
+    public void laggingReplica_shouldBeBypassed() {
+        ReplicaRoutingDataSource routage = new ReplicaRoutingDataSource(primaire, replica, 0, 1_000,
+                "SELECT 5000");
+        routage.mesurerRetard();
+        TransactionTemplate lectureRetard = new TransactionTemplate(
+                new DataSourceTransactionManager(new LazyConnectionDataSourceProxy(routage)));
+        lectureRetard.setReadOnly(true);
+        JdbcTemplate jdbc = new JdbcTemplate(new LazyConnectionDataSourceProxy(routage));
+
+        assertEquals(5000, routage.retardMillis());
+        assertEquals("routage_primaire", lectureRetard.execute(status ->
+                jdbc.queryForObject("SELECT nom FROM origine", String.class)));
+    }
+
+    private String origine() {
+        return jdbcTemplate.queryForObject("SELECT nom FROM origine", String.class);
+    }
+
+    private static void connecter(String username) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                username, null, List.of(new SimpleGrantedAuthority("ROLE_MANAGER"))));
+    }
+
+    private static DataSource base(String nom) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + nom + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE origine (nom VARCHAR(50))");
+        jdbc.update("INSERT INTO origine (nom) VALUES (?)", nom);
+        return dataSource;
+    }
+}
@@ -0,0 +1,104 @@
+package org.example.smartlogi.integration;
+
+import org.example.smartlogi.entity.*;
+import org.example.smartlogi.enums.StatutColis;
+import org.example.smartlogi.repository.*;
+import org.example.smartlogi.security.service.PublicRateLimiter;
+import org.example.smartlogi.service.ColisService;
+import org.example.smartlogi.service.SuiviPublicService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@Import(ColisFixtures.class)
+public class SuiviPublicIntegrationTest {
+
+    @Autowired
+    private SuiviPublicService suiviPublicService;
+
+    @Autowired
+    private ColisService colisService;
+
+    @Autowired
+    private ColisRepository colisRepository;
+
+    @Autowired
+    private HistoriqueLivraisonRepository historiqueRepository;
+
+    @Autowired
+    private ColisFixtures fixtures;
+
+    private Colis colis;
+
+    @BeforeEach
+    void setUp() {
+        colis = fixtures.expedition("Suivi", "30000", "Fès").colis("COL-SUIVI-PUBLIC").creer();
+    }
+
+    @Test
+    public void trouver_shouldServeSecondReadFromCache() {
+        SuiviPublicService.Entree premiere = suiviPublicService.trouver("COL-SUIVI-PUBLIC").orElseThrow();
+        SuiviPublicService.Entree seconde = suiviPublicService.trouver("COL-SUIVI-PUBLIC").orElseThrow();
+
+        assertSame(premiere, seconde);
+        assertEquals("CREE", premiere.vue().statut());
+        assertEquals("Zone Suivi", premiere.vue().zone());
+    }
+
+    @Test
+    public void changerStatut_shouldInvalidateEntryAndChangeEtag() {
+        SuiviPublicService.Entree avant = suiviPublicService.trouver("COL-SUIVI-PUBLIC").orElseThrow();
+
+        colisService.changerStatut(colis.getId(), "EN_TRANSIT", "Départ hub");
+
+        SuiviPublicService.Entree apres = suiviPublicService.trouver("COL-SUIVI-PUBLIC").orElseThrow();
+        assertEquals("EN_TRANSIT", apres.vue().statut());
+        assertNotEquals(avant.etag(), apres.etag());
+        assertEquals("EN_TRANSIT", apres.vue().etapes().get(apres.vue().etapes().size() - 1).statut());
+    }
+
+    @Test
+    public void lateHistoryStep_shouldChangeEtagWithoutVersionChange() {
+        SuiviPublicService.Entree avant = suiviPublicService.trouver("COL-SUIVI-PUBLIC").orElseThrow();
+
+        // Étape écrite après coup, comme par le writer d'historique différé
+        HistoriqueLivraison etape = new HistoriqueLivraison();
+        etape.setColis(colis);
+        etape.setStatut(StatutColis.CREE);
+        etape.setDateChangement(LocalDateTime.now());
+        historiqueRepository.saveAndFlush(etape);
+        suiviPublicService.invalider("COL-SUIVI-PUBLIC");
+
+        SuiviPublicService.Entree apres = suiviPublicService.trouver("COL-SUIVI-PUBLIC").orElseThrow();
+        assertEquals(avant.vue().etapes().size() + 1, apres.vue().etapes().size());
+        assertNotEquals(avant.etag(), apres.etag());
+    }
+
+    @Test
+    public void trouver_shouldRejectUnknownOrMalformedNumbers() {
+        assertTrue(suiviPublicService.trouver("COL-INCONNU").isEmpty());
+        assertTrue(suiviPublicService.trouver("COL-00000000010").isEmpty());
+        assertTrue(suiviPublicService.trouver("' OR 1=1 --").isEmpty());
+    }
+
+    @Test
+    public void rateLimiter_shouldRefuseOnceBucketIsEmpty() {
+        PublicRateLimiter limiter = new PublicRateLimiter(2);
+
+        assertTrue(limiter.autoriser("10.0.0.1"));
+        assertTrue(limiter.autoriser("10.0.0.1"));
+        assertFalse(limiter.autoriser("10.0.0.1"));
+        assertTrue(limiter.autoriser("10.0.0.2"));
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.smartlogi.integration;
+
+import org.example.smartlogi.dto.ArretTourneeDTO;
+import org.example.smartlogi.dto.TourneeDTO;
+import org.example.smartlogi.entity.*;
+import org.example.smartlogi.service.ColisService;
+import org.example.smartlogi.service.TourneeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@Import(ColisFixtures.class)
+public class TourneeIntegrationTest {
+
+    @Autowired
+    private TourneeService tourneeService;
+
+    @Autowired
+    private ColisService colisService;
+
+    @Autowired
+    private ColisFixtures fixtures;
+
+    private ColisFixtures.Expedition expedition;
+
+    private Zone zone;
+
+    private Livreur livreur;
+
+    @BeforeEach
+    void setUp() {
+        zone = fixtures.zone("Zone Tournée", "20250", "Casablanca", 33.5731, -7.5898);
+        expedition = fixtures.expedition(zone);
+        livreur = fixtures.livreur("0500000099", zone, "VOITURE");
+    }
+
+    @Test
+    public void calculer_shouldOrderStopsByDistanceAndAppendUnlocatedOnes() {
+        Zone zoneSansCoordonnees = fixtures.zone("Zone Tournée Inconnue", "20251", "Casablanca");
+
+        Colis loin = colisAssigne("COL-TOURNEE-LOIN", 33.60, -7.50, zone);
+        Colis proche = colisAssigne("COL-TOURNEE-PROCHE", 33.58, -7.58, zone);
+        // Ni destinataire ni zone géolocalisés : l'arrêt ne peut pas être placé
+        Colis inconnu = colisAssigne("COL-TOURNEE-INCONNU", null, null, zoneSansCoordonnees);
+
+        TourneeDTO tournee = tourneeService.calculer(livreur.getId());
+
+        List<Long> ordre = tournee.getArrets().stream().map(ArretTourneeDTO::getColisId).toList();
+        assertEquals(List.of(proche.getId(), loin.getId(), inconnu.getId()), ordre);
+        assertEquals(1, tournee.getArretsSansCoordonnees());
+        assertNull(tournee.getArrets().get(2).getArriveeEstimee());
+        assertTrue(tournee.getDistanceKm() > 0);
+    }
+
+    @Test
+    public void calculerVague_shouldIncludeLivreursWithActiveColis() {
+        colisAssigne("COL-TOURNEE-VAGUE", 33.59, -7.60, zone);
+
+        List<TourneeDTO> tournees = tourneeService.calculerVague();
+
+        assertTrue(tournees.stream().anyMatch(t -> t.getLivreurId().equals(livreur.getId())
+                && t.getArrets().size() == 1));
+    }
+
+    private Colis colisAssigne(String numero, Double latitude, Double longitude, Zone zoneColis) {
+        Colis colis = expedition.colis(numero)
+                .zone(zoneColis)
+                .destinataire(fixtures.destinataire(latitude, longitude))
+                .creer();
+
+        colisService.assignerLivreur(colis.getId(), livreur.getId());
+        return colis;
+    }
+}
@@ -0,0 +1,150 @@
+package org.example.smartlogi.security.jwt;
+
+import org.example.smartlogi.repository.UserRepository;
+import org.example.smartlogi.security.service.JwtUserStatusCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    @Mock
+    private UserRepository userRepository;
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3_600_000L);
+        SecurityContextHolder.clearContext();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void validToken_shouldAuthenticateFromClaimsWithoutDatabase() throws Exception {
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtUtil,
+                new JwtUserStatusCache(userRepository, false, 100, 60));
+
+        filter.doFilter(requete(token("manager", "ROLE_MANAGER", "COLIS_READ", "COLIS_WRITE")),
+                new MockHttpServletResponse(), new MockFilterChain());
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        assertEquals("manager", authentication.getName());
+        // Le rôle vient en premier : les contrôleurs lisent la première authority
+        assertEquals("ROLE_MANAGER", authentication.getAuthorities().iterator().next().getAuthority());
+        assertEquals(3, authentication.getAuthorities().size());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    public void invalidToken_shouldContinueUnauthenticated() throws Exception {
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtUtil,
+                new JwtUserStatusCache(userRepository, false, 100, 60));
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(requete(token("manager", "ROLE_MANAGER") + "x"), new MockHttpServletResponse(), chain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertNotNull(chain.getRequest());
+    }
+
+    @Test
+    public void databaseCheck_shouldBeCachedAndRejectChangedRole() throws Exception {
+        JwtUserStatusCache cache = new JwtUserStatusCache(userRepository, true, 100, 60);
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtUtil, cache);
+        when(userRepository.findRoleActifByUsername("livreur")).thenReturn(Optional.of("ROLE_LIVREUR"));
+        when(userRepository.findPermissionsActivesByUsername("livreur")).thenReturn(List.of());
+        String token = token("livreur", "ROLE_LIVREUR");
+
+        for (int i = 0; i < 3; i++) {
+            SecurityContextHolder.clearContext();
+            filter.doFilter(requete(token), new MockHttpServletResponse(), new MockFilterChain());
+            assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        }
+        verify(userRepository, times(1)).findRoleActifByUsername("livreur");
+
+        // Rôle retiré puis cache invalidé : le token n'est plus accepté
+        when(userRepository.findRoleActifByUsername("livreur")).thenReturn(Optional.of("ROLE_CLIENT"));
+        cache.invalider("livreur");
+        SecurityContextHolder.clearContext();
+        filter.doFilter(requete(token), new MockHttpServletResponse(), new MockFilterChain());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    public void databaseCheck_shouldRejectRevokedPermissionOnceRolesInvalidated() throws Exception {
+        JwtUserStatusCache cache = new JwtUserStatusCache(userRepository, true, 100, 60);
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtUtil, cache);
+        when(userRepository.findRoleActifByUsername("livreur")).thenReturn(Optional.of("ROLE_LIVREUR"));
+        when(userRepository.findPermissionsActivesByUsername("livreur"))
+                .thenReturn(List.of("COLIS_UPDATE_STATUS", "COLIS_READ"));
+        String token = token("livreur", "ROLE_LIVREUR", "COLIS_READ", "COLIS_UPDATE_STATUS");
+
+        filter.doFilter(requete(token), new MockHttpServletResponse(), new MockFilterChain());
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+
+        // Permission retirée du rôle (RoleService.removePermission) : invaliderTout() au commit
+        when(userRepository.findPermissionsActivesByUsername("livreur")).thenReturn(List.of("COLIS_READ"));
+        cache.invaliderTout();
+        SecurityContextHolder.clearContext();
+        filter.doFilter(requete(token), new MockHttpServletResponse(), new MockFilterChain());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    public void databaseCheck_shouldRejectDeletedUser() throws Exception {
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtUtil,
+                new JwtUserStatusCache(userRepository, true, 100, 60));
+        when(userRepository.findRoleActifByUsername("supprime")).thenReturn(Optional.empty());
+
+        filter.doFilter(requete(token("supprime", "ROLE_CLIENT")), new MockHttpServletResponse(),
+                new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(userRepository, never()).findPermissionsActivesByUsername("supprime");
+    }
+
+    private String token(String username, String role, String... permissions) {
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        authorities.add(new SimpleGrantedAuthority(role));
+        for (String permission : permissions) {
+            authorities.add(new SimpleGrantedAuthority(permission));
+        }
+        return jwtUtil.generateToken(new User(username, "secret", authorities));
+    }
+
+    private static MockHttpServletRequest requete(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/colis");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
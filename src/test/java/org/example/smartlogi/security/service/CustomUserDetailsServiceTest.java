@@ -0,0 +1,143 @@
+package org.example.smartlogi.security.service;
+
+import org.example.smartlogi.entity.Permission;
+import org.example.smartlogi.entity.Role;
+import org.example.smartlogi.entity.User;
+import org.example.smartlogi.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CustomUserDetailsServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private JwtUserStatusCache jwtUserStatusCache;
+
+    private AuthorityCache authorityCache;
+    private CustomUserDetailsService userDetailsService;
+    private Role manager;
+
+    @BeforeEach
+    void setUp() {
+        authorityCache = new AuthorityCache(jwtUserStatusCache, 100, 300);
+        userDetailsService = new CustomUserDetailsService(userRepository, authorityCache);
+        manager = role(1L, "ROLE_MANAGER", permission(10L, "COLIS_WRITE"), permission(11L, "COLIS_READ"));
+    }
+
+    @Test
+    public void loadUser_shouldBeCachedWithRoleFirst() {
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user(1L, "alice", manager)));
+
+        UserDetails premier = userDetailsService.loadUserByUsername("alice");
+        UserDetails second = userDetailsService.loadUserByUsername("alice");
+
+        assertSame(premier, second);
+        assertEquals(List.of("ROLE_MANAGER", "COLIS_READ", "COLIS_WRITE"), noms(second));
+        verify(userRepository, times(1)).findByUsername("alice");
+    }
+
+    @Test
+    public void usersOfSameRole_shouldShareAuthorities() {
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user(1L, "alice", manager)));
+        when(userRepository.findByUsername("bob")).thenReturn(Optional.of(user(2L, "bob", manager)));
+
+        assertSame(userDetailsService.loadUserByUsername("alice").getAuthorities(),
+                userDetailsService.loadUserByUsername("bob").getAuthorities());
+    }
+
+    @Test
+    public void roleInvalidation_shouldRefreshAuthorities() {
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user(1L, "alice", manager)));
+        userDetailsService.loadUserByUsername("alice");
+
+        manager.getPermissions().add(permission(12L, "ZONE_WRITE"));
+        authorityCache.invaliderRole(1L);
+
+        assertTrue(noms(userDetailsService.loadUserByUsername("alice")).contains("ZONE_WRITE"));
+        verify(userRepository, times(2)).findByUsername("alice");
+        // Empreintes des tokens JWT à recalculer
+        verify(jwtUserStatusCache).invaliderTout();
+    }
+
+    @Test
+    public void userInvalidation_shouldReloadOnlyThatUser() {
+        User alice = user(1L, "alice", manager);
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(alice));
+        when(userRepository.findByUsername("bob")).thenReturn(Optional.of(user(2L, "bob", manager)));
+        userDetailsService.loadUserByUsername("alice");
+        userDetailsService.loadUserByUsername("bob");
+
+        alice.setEnabled(false);
+        authorityCache.invaliderUtilisateur("alice");
+
+        assertFalse(userDetailsService.loadUserByUsername("alice").isEnabled());
+        userDetailsService.loadUserByUsername("bob");
+        verify(userRepository, times(2)).findByUsername("alice");
+        verify(userRepository, times(1)).findByUsername("bob");
+        verify(jwtUserStatusCache).invalider("alice");
+    }
+
+    @Test
+    public void loadRacingWithInvalidation_shouldNotBeCached() {
+        when(userRepository.findByUsername("alice")).thenAnswer(invocation -> {
+            // Invalidation commitée pendant le chargement : la valeur lue est peut-être périmée
+            authorityCache.invaliderUtilisateur("alice");
+            return Optional.of(user(1L, "alice", manager));
+        });
+
+        userDetailsService.loadUserByUsername("alice");
+        userDetailsService.loadUserByUsername("alice");
+
+        verify(userRepository, times(2)).findByUsername("alice");
+    }
+
+    @Test
+    public void unknownUser_shouldThrow() {
+        when(userRepository.findByUsername("inconnu")).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("inconnu"));
+    }
+
+    private static List<String> noms(UserDetails user) {
+        return user.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+    }
+
+    private static User user(Long id, String username, Role role) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setPassword("hash");
+        user.setRole(role);
+        return user;
+    }
+
+    private static Role role(Long id, String name, Permission... permissions) {
+        Role role = new Role();
+        role.setId(id);
+        role.setName(name);
+        role.getPermissions().addAll(List.of(permissions));
+        return role;
+    }
+
+    private static Permission permission(Long id, String name) {
+        Permission permission = new Permission();
+        permission.setId(id);
+        permission.setName(name);
+        return permission;
+    }
+}
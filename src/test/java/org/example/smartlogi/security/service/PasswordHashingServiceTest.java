@@ -0,0 +1,123 @@
+package org.example.smartlogi.security.service;
+
+import org.example.smartlogi.dto.PasswordHashingStats;
+import org.example.smartlogi.entity.Role;
+import org.example.smartlogi.entity.User;
+import org.example.smartlogi.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PasswordHashingServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private JwtUserStatusCache jwtUserStatusCache;
+
+    private PasswordHashingService service;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (service != null) {
+            service.arreter();
+        }
+    }
+
+    @Test
+    public void fullQueue_shouldRejectAndCountRejection() throws Exception {
+        service = new PasswordHashingService(4, 250, 4, 14, 1, 1);
+        CountDownLatch demarree = new CountDownLatch(1);
+        CountDownLatch liberee = new CountDownLatch(1);
+
+        CompletableFuture<String> enCours = service.soumettre(() -> {
+            demarree.countDown();
+            attendre(liberee);
+            return "premier";
+        });
+        assertTrue(demarree.await(2, TimeUnit.SECONDS));
+        CompletableFuture<String> enFile = service.soumettre(() -> "second");
+
+        assertThrows(RejectedExecutionException.class, () -> service.soumettre(() -> "refuse"));
+        assertEquals(1, service.stats().getRejets());
+        assertEquals(1, service.stats().getProfondeurFile());
+        assertTrue(service.retryAfterSecondes() >= 1);
+
+        liberee.countDown();
+        assertEquals("premier", enCours.get(2, TimeUnit.SECONDS));
+        assertEquals("second", enFile.get(2, TimeUnit.SECONDS));
+        assertTrue(service.stats().getAttenteFileMaxMs() > 0);
+    }
+
+    @Test
+    public void encoder_shouldMeasureHashLatency() {
+        service = new PasswordHashingService(4, 250, 4, 14, 1, 10);
+
+        String hash = service.encoder().encode("secret");
+        assertTrue(service.encoder().matches("secret", hash));
+
+        PasswordHashingStats stats = service.stats();
+        assertEquals(4, stats.getCoutBcrypt());
+        assertEquals(2, stats.getHachages());
+        assertTrue(stats.getLatenceHachageMoyenneMs() > 0);
+        assertTrue(hash.startsWith("$2a$04$"));
+    }
+
+    @Test
+    public void calibration_shouldStayWithinBounds() {
+        assertEquals(4, PasswordHashingService.calibrer(0, 4, 6));
+        assertEquals(5, PasswordHashingService.calibrer(60_000, 4, 5));
+        assertThrows(IllegalArgumentException.class, () -> new PasswordHashingService(0, 250, 3, 14, 1, 10));
+    }
+
+    @Test
+    public void login_withLowerCostHash_shouldRehashWithCurrentCost() {
+        service = new PasswordHashingService(5, 250, 4, 14, 1, 10);
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("livreur");
+        user.setPassword(new BCryptPasswordEncoder(4).encode("secret"));
+        Role role = new Role();
+        role.setId(2L);
+        role.setName("ROLE_DELIVERY_PERSON");
+        user.setRole(role);
+        when(userRepository.findByUsername("livreur")).thenReturn(Optional.of(user));
+
+        CustomUserDetailsService userDetailsService = new CustomUserDetailsService(userRepository,
+                new AuthorityCache(jwtUserStatusCache, 100, 300));
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(userDetailsService);
+        provider.setPasswordEncoder(service.encoder());
+        provider.setUserDetailsPasswordService(userDetailsService);
+
+        provider.authenticate(new UsernamePasswordAuthenticationToken("livreur", "secret"));
+
+        assertTrue(user.getPassword().startsWith("$2a$05$"));
+        assertTrue(service.encoder().matches("secret", user.getPassword()));
+        assertFalse(service.encoder().upgradeEncoding(user.getPassword()));
+    }
+
+    private static void attendre(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package org.example.smartlogi.service;
+
+import org.example.smartlogi.controller.ColisController;
+import org.example.smartlogi.dto.ColisResume;
+import org.example.smartlogi.enums.PrioriteColis;
+import org.example.smartlogi.enums.StatutColis;
+import org.example.smartlogi.enums.TypeEvenementColis;
+import org.example.smartlogi.security.service.PrincipalIdentityResolver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@ExtendWith(MockitoExtension.class)
+public class ColisEvenementServiceTest {
+
+    @Mock
+    private PrincipalIdentityResolver identityResolver;
+
+    @Mock
+    private ColisService colisService;
+
+    private ColisEvenementService evenementService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        evenementService = new ColisEvenementService(identityResolver, 100, 10, 60_000, 2, 2);
+        ColisController controller = new ColisController(colisService, null, null, null, evenementService, null, null);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        evenementService.arreter();
+    }
+
+    @Test
+    public void livreur_shouldOnlyReceiveOwnEvents() throws Exception {
+        when(identityResolver.resolveLivreurId("livreur")).thenReturn(Optional.of(7L));
+        MvcResult result = abonner("livreur", "ROLE_DELIVERY_PERSON", null);
+
+        evenementService.publier(TypeEvenementColis.ASSIGNATION, resume(1L, 7L), "Assigné");
+        evenementService.publier(TypeEvenementColis.ASSIGNATION, resume(2L, 8L), "Assigné");
+        String flux = attendre(result, "COL-1");
+
+        assertTrue(flux.contains("event:ASSIGNATION"));
+        assertFalse(flux.contains("COL-2"));
+    }
+
+    @Test
+    public void reassignment_shouldAlsoNotifyPreviousLivreur() throws Exception {
+        when(identityResolver.resolveLivreurId("livreur")).thenReturn(Optional.of(7L));
+        MvcResult result = abonner("livreur", "ROLE_DELIVERY_PERSON", null);
+
+        evenementService.publier(TypeEvenementColis.ASSIGNATION, resume(1L, 8L), "Réassigné", 7L);
+        String flux = attendre(result, "COL-1");
+
+        assertTrue(flux.contains("\"livreurPrecedentId\":7"));
+    }
+
+    @Test
+    public void slowSubscriber_shouldBeDroppedWithoutDelayingOthers() throws Exception {
+        CountDownLatch liberee = new CountDownLatch(1);
+        SseEmitter lent = new SseEmitter(60_000L) {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                // Fenêtre TCP pleine : l'écriture bloque
+                try {
+                    liberee.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        evenementService.abonnerTout(lent, null);
+        MvcResult rapide = abonner("manager", "ROLE_MANAGER", null);
+        attendreAbonnes(2);
+
+        // Un événement à la fois : l'abonné rapide n'a jamais plus d'un envoi en attente
+        for (long id = 1; id <= 5; id++) {
+            evenementService.publier(TypeEvenementColis.CHANGEMENT_STATUT, resume(id, null), null);
+            attendre(rapide, "COL-" + id);
+        }
+
+        // File de 2 envois dépassée pendant que le premier bloque : abonné lent déconnecté
+        attendreAbonnes(1);
+        liberee.countDown();
+    }
+
+    @Test
+    public void lastEventId_shouldReplayOnlyMissedEvents() throws Exception {
+        MvcResult premier = abonner("manager", "ROLE_MANAGER", null);
+        evenementService.publier(TypeEvenementColis.CHANGEMENT_STATUT, resume(1L, null), null);
+        String dernierId = identifiants(attendre(premier, "COL-1")).get(0);
+
+        evenementService.publier(TypeEvenementColis.CHANGEMENT_STATUT, resume(2L, null), null);
+        evenementService.publier(TypeEvenementColis.CHANGEMENT_STATUT, resume(3L, null), null);
+
+        MvcResult repris = abonner("manager", "ROLE_MANAGER", dernierId);
+        String flux = attendre(repris, "COL-3");
+
+        assertFalse(flux.contains("COL-1"));
+        assertTrue(flux.contains("COL-2"));
+    }
+
+    @Test
+    public void lastEventId_fromAnotherInstance_shouldAskForReset() throws Exception {
+        MvcResult result = abonner("manager", "ROLE_MANAGER", "inconnu-42");
+
+        assertTrue(attendre(result, "reinitialisation").contains("event:reinitialisation"));
+    }
+
+    @Test
+    public void unknownLivreur_shouldBeForbidden() throws Exception {
+        when(identityResolver.resolveLivreurId("fantome")).thenReturn(Optional.empty());
+
+        MvcResult result = mockMvc.perform(get("/api/colis/events")
+                        .principal(authentification("fantome", "ROLE_DELIVERY_PERSON")))
+                .andReturn();
+
+        assertEquals(403, result.getResponse().getStatus());
+    }
+
+    private MvcResult abonner(String username, String role, String lastEventId) throws Exception {
+        var requete = get("/api/colis/events").principal(authentification(username, role));
+        if (lastEventId != null) {
+            requete.header("Last-Event-ID", lastEventId);
+        }
+        return mockMvc.perform(requete).andExpect(request().asyncStarted()).andReturn();
+    }
+
+    private static UsernamePasswordAuthenticationToken authentification(String username, String role) {
+        return new UsernamePasswordAuthenticationToken(username, null, List.of(new SimpleGrantedAuthority(role)));
+    }
+
+    private static String attendre(MvcResult result, String attendu) throws Exception {
+        long limite = System.currentTimeMillis() + 2000;
+        String contenu = result.getResponse().getContentAsString();
+        while (!contenu.contains(attendu) && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+            contenu = result.getResponse().getContentAsString();
+        }
+        assertTrue(contenu.contains(attendu), "Événement non reçu: " + attendu);
+        return contenu;
+    }
+
+    private void attendreAbonnes(int attendus) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 2000;
+        while (evenementService.nombreAbonnes() != attendus && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+        }
+        assertEquals(attendus, evenementService.nombreAbonnes());
+    }
+
+    private static List<String> identifiants(String flux) {
+        Matcher matcher = Pattern.compile("id:(\\S+)").matcher(flux);
+        List<String> ids = new ArrayList<>();
+        while (matcher.find()) {
+            ids.add(matcher.group(1));
+        }
+        return ids;
+    }
+
+    private static ColisResume resume(Long id, Long livreurId) {
+        return new ColisResume(id, "COL-" + id, StatutColis.EN_TRANSIT, PrioriteColis.NORMALE, BigDecimal.ONE,
+                null, null, LocalDateTime.now(), 1L, "Client", 1L, "Dest", 1L, "Zone",
+                livreurId, null, 1L);
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.smartlogi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.smartlogi.dto.ColisDTO;
+import org.example.smartlogi.dto.ColisResume;
+import org.example.smartlogi.enums.FormatExport;
+import org.example.smartlogi.enums.StatutColis;
+import org.example.smartlogi.mapper.ColisMapper;
+import org.example.smartlogi.repository.ColisRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ColisExportServiceTest {
+
+    @Mock
+    private ColisRepository colisRepository;
+
+    @Mock
+    private ColisMapper colisMapper;
+
+    private ColisExportService colisExportService;
+
+    @BeforeEach
+    void setUp() {
+        colisExportService = new ColisExportService(colisRepository, colisMapper,
+                new ObjectMapper().findAndRegisterModules());
+    }
+
+    @Test
+    public void exportNdjson_withoutColis_shouldWriteNothing() throws Exception {
+        when(colisRepository.streamAllResumes()).thenReturn(Stream.empty());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        colisExportService.exporter(FormatExport.NDJSON, out);
+
+        assertEquals(0, out.size());
+    }
+
+    @Test
+    public void exportNdjson_shouldEndEachObjectWithSingleNewline() throws Exception {
+        ColisResume premier = resume(1L);
+        ColisResume second = resume(2L);
+        when(colisRepository.streamAllResumes()).thenReturn(Stream.of(premier, second));
+        when(colisMapper.toDTO(premier)).thenReturn(dto(1L));
+        when(colisMapper.toDTO(second)).thenReturn(dto(2L));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        colisExportService.exporter(FormatExport.NDJSON, out);
+
+        String contenu = out.toString(StandardCharsets.UTF_8);
+        assertTrue(contenu.endsWith("}\n"));
+        assertEquals(2, contenu.lines().count());
+        assertFalse(contenu.contains("\n\n"));
+    }
+
+    private static ColisResume resume(Long id) {
+        return new ColisResume(id, "SL-" + id, StatutColis.CREE, null, null, null, null, null,
+                null, null, null, null, null, null, null, null, 0L);
+    }
+
+    private static ColisDTO dto(Long id) {
+        ColisDTO dto = new ColisDTO();
+        dto.setId(id);
+        dto.setNumeroSuivi("SL-" + id);
+        return dto;
+    }
+}
@@ -0,0 +1,119 @@
+package org.example.smartlogi.service;
+
+import org.example.smartlogi.dto.ColisResume;
+import org.example.smartlogi.dto.DashboardCellule;
+import org.example.smartlogi.dto.DashboardDTO;
+import org.example.smartlogi.enums.PrioriteColis;
+import org.example.smartlogi.enums.StatutColis;
+import org.example.smartlogi.repository.ColisRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DashboardServiceTest {
+
+    @Mock
+    private ColisRepository colisRepository;
+
+    private DashboardService dashboardService;
+
+    @BeforeEach
+    void setUp() {
+        dashboardService = new DashboardService(colisRepository);
+        when(colisRepository.agregerParStatutZonePriorite()).thenReturn(List.of(
+                new DashboardCellule(StatutColis.CREE, 1L, "Nord", PrioriteColis.NORMALE, 2L, new BigDecimal("3.50")),
+                new DashboardCellule(StatutColis.EN_TRANSIT, 1L, "Nord", PrioriteColis.URGENTE, 1L, BigDecimal.TEN)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void tableauDeBord_shouldQueryDatabaseOnlyOnce() {
+        dashboardService.tableauDeBord();
+        DashboardDTO dashboard = dashboardService.tableauDeBord();
+
+        verify(colisRepository, times(1)).agregerParStatutZonePriorite();
+        assertEquals("memoire", dashboard.getSource());
+        assertEquals(3, dashboard.getTotalColis());
+        assertEquals(0, new BigDecimal("13.50").compareTo(dashboard.getPoidsTotal()));
+        assertEquals(2L, dashboard.getParStatut().get("CREE"));
+        assertEquals(0L, dashboard.getParStatut().get("LIVRE"));
+    }
+
+    @Test
+    public void deltas_shouldMoveCountsBetweenCells() {
+        dashboardService.tableauDeBord();
+
+        dashboardService.enregistrerCreation(2L, "Sud", PrioriteColis.NORMALE, new BigDecimal("1.25"));
+        dashboardService.enregistrerTransition(StatutColis.CREE,
+                resume(StatutColis.EN_TRANSIT, PrioriteColis.NORMALE, new BigDecimal("1.75")));
+        dashboardService.enregistrerSuppression(resume(StatutColis.EN_TRANSIT, PrioriteColis.URGENTE, BigDecimal.TEN));
+
+        DashboardDTO dashboard = dashboardService.tableauDeBord();
+
+        assertEquals(3, dashboard.getTotalColis());
+        assertEquals(0, new BigDecimal("4.75").compareTo(dashboard.getPoidsTotal()));
+        assertEquals(2L, dashboard.getParStatut().get("CREE"));
+        assertEquals(1L, dashboard.getParStatut().get("EN_TRANSIT"));
+        DashboardCellule transit = cellule(dashboard, StatutColis.EN_TRANSIT);
+        assertEquals(PrioriteColis.NORMALE, transit.priorite());
+        assertEquals(0, new BigDecimal("1.75").compareTo(transit.poids()));
+        verify(colisRepository, times(1)).agregerParStatutZonePriorite();
+    }
+
+    @Test
+    public void deltas_shouldWaitForCommit() {
+        dashboardService.tableauDeBord();
+        TransactionSynchronizationManager.initSynchronization();
+
+        dashboardService.enregistrerCreation(1L, "Nord", PrioriteColis.NORMALE, BigDecimal.ONE);
+        assertEquals(3, dashboardService.tableauDeBord().getTotalColis());
+
+        List<TransactionSynchronization> synchronisations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronisations.forEach(TransactionSynchronization::afterCommit);
+
+        assertEquals(4, dashboardService.tableauDeBord().getTotalColis());
+    }
+
+    @Test
+    public void reconcilier_shouldReloadFromDatabase() {
+        dashboardService.tableauDeBord();
+        dashboardService.enregistrerCreation(1L, "Nord", PrioriteColis.NORMALE, BigDecimal.ONE);
+
+        dashboardService.reconcilier();
+
+        assertEquals(3, dashboardService.tableauDeBord().getTotalColis());
+        verify(colisRepository, times(2)).agregerParStatutZonePriorite();
+    }
+
+    private static DashboardCellule cellule(DashboardDTO dashboard, StatutColis statut) {
+        return dashboard.getCellules().stream()
+                .filter(c -> c.statut() == statut)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static ColisResume resume(StatutColis statut, PrioriteColis priorite, BigDecimal poids) {
+        return new ColisResume(1L, "COL-1", statut, priorite, poids, null, null, LocalDateTime.now(),
+                1L, "Client", 1L, "Dest", 1L, "Nord", null, null, 1L);
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.smartlogi.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class HiLoNumeroSuiviGeneratorTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private HiLoNumeroSuiviGenerator generator;
+
+    @BeforeEach
+    void setup() {
+        generator = new HiLoNumeroSuiviGenerator(jdbcTemplate, 3);
+    }
+
+    @Test
+    public void next_shouldReserveOneBlockPerBlockSize() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(1000L, 5000L);
+
+        List<String> numeros = generator.next(5);
+
+        assertEquals(List.of(
+                NumeroSuivi.formater(1000),
+                NumeroSuivi.formater(1001),
+                NumeroSuivi.formater(1002),
+                NumeroSuivi.formater(5000),
+                NumeroSuivi.formater(5001)), numeros);
+        verify(jdbcTemplate, times(2)).queryForObject(anyString(), eq(Long.class));
+    }
+
+    @Test
+    public void verifierSequence_shouldFailWhenIncrementDiffersFromBlockSize() {
+        when(jdbcTemplate.queryForObject(HiLoNumeroSuiviGenerator.INCREMENT_SQL, Long.class)).thenReturn(1000L);
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, generator::verifierSequence);
+
+        assertTrue(exception.getMessage().contains("(3)"));
+    }
+
+    @Test
+    public void verifierSequence_shouldAcceptMatchingIncrement() {
+        when(jdbcTemplate.queryForObject(HiLoNumeroSuiviGenerator.INCREMENT_SQL, Long.class)).thenReturn(3L);
+
+        assertDoesNotThrow(generator::verifierSequence);
+    }
+
+    @Test
+    public void formater_shouldProduceValidCheckDigit() {
+        String numero = NumeroSuivi.formater(1234567);
+
+        assertEquals("COL-0001234567", numero.substring(0, 14));
+        assertEquals(15, numero.length());
+        assertTrue(NumeroSuivi.estValide(numero));
+    }
+
+    @Test
+    public void estValide_shouldRejectAlteredNumber() {
+        String numero = NumeroSuivi.formater(1234567);
+        char dernier = numero.charAt(numero.length() - 1);
+        String altere = numero.substring(0, numero.length() - 1) + (char) ('0' + (dernier - '0' + 1) % 10);
+
+        assertFalse(NumeroSuivi.estValide(altere));
+        assertFalse(NumeroSuivi.estValide("COL-12345ABC"));
+        assertFalse(NumeroSuivi.estValide(null));
+    }
+}
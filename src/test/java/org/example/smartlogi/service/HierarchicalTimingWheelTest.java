@@ -0,0 +1,69 @@
+package org.example.smartlogi.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HierarchicalTimingWheelTest {
+
+    // 4 cases x 2 niveaux : capacité de 16 ticks, au-delà débordement
+    private final HierarchicalTimingWheel roue = new HierarchicalTimingWheel(4, 2, 0);
+
+    @Test
+    void avancer_shouldExpireEachEntryExactlyAtItsTick() {
+        long[] echeances = {1, 3, 4, 5, 15, 16, 17, 40};
+        for (int i = 0; i < echeances.length; i++) {
+            assertTrue(roue.planifier(i, echeances[i]));
+        }
+
+        Map<Long, Long> expirations = new HashMap<>();
+        for (long tick = 1; tick <= 50; tick++) {
+            long courant = tick;
+            roue.avancer(tick, id -> expirations.put(id, courant));
+        }
+
+        for (int i = 0; i < echeances.length; i++) {
+            assertEquals(echeances[i], expirations.get((long) i), "entrée " + i);
+        }
+        assertEquals(0, roue.taille());
+    }
+
+    @Test
+    void annuler_shouldPreventExpiration() {
+        roue.planifier(1, 10);
+        roue.planifier(2, 10);
+        roue.annuler(1);
+
+        List<Long> expires = new ArrayList<>();
+        roue.avancer(20, expires::add);
+
+        assertEquals(List.of(2L), expires);
+    }
+
+    @Test
+    void planifier_again_shouldKeepOnlyLatestDeadline() {
+        roue.planifier(1, 5);
+        roue.planifier(1, 30);
+
+        List<Long> expires = new ArrayList<>();
+        roue.avancer(29, expires::add);
+        assertTrue(expires.isEmpty());
+
+        roue.avancer(30, expires::add);
+        assertEquals(List.of(1L), expires);
+    }
+
+    @Test
+    void planifier_shouldRejectPastDeadline() {
+        roue.avancer(10, id -> fail("aucune entrée attendue"));
+
+        assertFalse(roue.planifier(1, 10));
+        assertFalse(roue.planifier(2, 3));
+        assertTrue(roue.planifier(3, 11));
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.smartlogi.service;
+
+import org.example.smartlogi.config.DatabasePlatform;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class HistoriquePartitionServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private DatabasePlatform databasePlatform;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void nomPartition_shouldUseYearAndMonthSuffix() {
+        assertEquals("historique_livraison_p2025_03", HistoriquePartitionService.nomPartition(YearMonth.of(2025, 3)));
+    }
+
+    @Test
+    public void partitionsAArchiver_shouldKeepOnlyMonthsBeforeLimit() {
+        List<String> partitions = List.of(
+                "historique_livraison_p2024_12",
+                "historique_livraison_defaut",
+                "historique_livraison_p2025_02",
+                "historique_livraison_p2024_11",
+                "historique_livraison_p2025_01",
+                "autre_table_p2020_01");
+
+        List<String> resultat = HistoriquePartitionService.partitionsAArchiver(partitions, YearMonth.of(2025, 1));
+
+        assertEquals(List.of("historique_livraison_p2024_11", "historique_livraison_p2024_12"), resultat);
+    }
+
+    @Test
+    public void maintenir_shouldCreateUpcomingPartitionsAndArchiveExpiredOnes() {
+        YearMonth courant = YearMonth.now();
+        String expiree = HistoriquePartitionService.nomPartition(courant.minusMonths(13));
+        String conservee = HistoriquePartitionService.nomPartition(courant.minusMonths(12));
+        when(databasePlatform.isPostgres()).thenReturn(true);
+        when(jdbcTemplate.queryForList(HistoriquePartitionService.SELECT_PARTITIONS, String.class))
+                .thenReturn(List.of(conservee, expiree, "historique_livraison_defaut"));
+        // Partition du mois suivant impossible à créer : la maintenance continue
+        lenient().doThrow(new DataIntegrityViolationException("lignes dans la partition par défaut"))
+                .when(jdbcTemplate).execute(startsWith("CREATE TABLE IF NOT EXISTS "
+                        + HistoriquePartitionService.nomPartition(courant.plusMonths(1))));
+
+        new HistoriquePartitionService(jdbcTemplate, databasePlatform, transactionManager, 2, 12).maintenir();
+
+        for (int i = 0; i <= 2; i++) {
+            verify(jdbcTemplate).execute(startsWith("CREATE TABLE IF NOT EXISTS "
+                    + HistoriquePartitionService.nomPartition(courant.plusMonths(i)) + " PARTITION OF"));
+        }
+        InOrder archivage = inOrder(jdbcTemplate, transactionManager);
+        archivage.verify(jdbcTemplate).execute("ALTER TABLE historique_livraison DETACH PARTITION " + expiree);
+        archivage.verify(jdbcTemplate).update(startsWith("INSERT INTO historique_livraison_archive"));
+        archivage.verify(jdbcTemplate).execute("DROP TABLE " + expiree);
+        archivage.verify(transactionManager).commit(any());
+        verify(jdbcTemplate, never()).execute(contains("DETACH PARTITION " + conservee));
+    }
+
+    @Test
+    public void maintenir_onOtherDatabase_shouldDoNothing() {
+        when(databasePlatform.isPostgres()).thenReturn(false);
+
+        new HistoriquePartitionService(jdbcTemplate, databasePlatform, transactionManager, 3, 12).maintenir();
+
+        verifyNoInteractions(jdbcTemplate);
+        verifyNoInteractions(transactionManager);
+    }
+}
@@ -0,0 +1,112 @@
+package org.example.smartlogi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class IdempotenceServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private IdempotenceService idempotenceService;
+
+    @BeforeEach
+    void setUp() {
+        idempotenceService = new IdempotenceService(jdbcTemplate, transactionManager,
+                new ObjectMapper().findAndRegisterModules(), 100, 24, 2000, 60_000);
+    }
+
+    @Test
+    public void withoutKey_shouldAlwaysExecute() {
+        AtomicInteger executions = new AtomicInteger();
+
+        idempotenceService.executer(null, "test", "requete", String.class,
+                () -> ResponseEntity.ok("r" + executions.incrementAndGet()));
+        idempotenceService.executer(" ", "test", "requete", String.class,
+                () -> ResponseEntity.ok("r" + executions.incrementAndGet()));
+
+        assertEquals(2, executions.get());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    public void inFlightDuplicate_shouldWaitAndReplayFirstResponse() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch demarree = new CountDownLatch(1);
+        CountDownLatch liberee = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ResponseEntity<String>> premiere = executor.submit(() -> idempotenceService.executer("cle-1",
+                    "test", "requete", String.class, () -> {
+                        executions.incrementAndGet();
+                        demarree.countDown();
+                        attendre(liberee);
+                        return ResponseEntity.status(HttpStatus.CREATED).body("colis-42");
+                    }));
+            assertTrue(demarree.await(2, TimeUnit.SECONDS));
+
+            Future<ResponseEntity<String>> doublon = executor.submit(() -> idempotenceService.executer("cle-1",
+                    "test", "requete", String.class, () -> {
+                        executions.incrementAndGet();
+                        return ResponseEntity.ok("doublon");
+                    }));
+            Thread.sleep(100);
+            assertFalse(doublon.isDone());
+
+            liberee.countDown();
+
+            assertEquals("colis-42", premiere.get(2, TimeUnit.SECONDS).getBody());
+            ResponseEntity<String> rejouee = doublon.get(2, TimeUnit.SECONDS);
+            assertEquals(HttpStatus.CREATED, rejouee.getStatusCode());
+            assertEquals("colis-42", rejouee.getBody());
+            assertEquals("true", rejouee.getHeaders().getFirst(IdempotenceService.EN_TETE_REJEU));
+            assertEquals(1, executions.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void failedFirstRequest_shouldReleaseKey() {
+        assertThrows(IllegalStateException.class, () -> idempotenceService.executer("cle-2", "test", "requete",
+                String.class, () -> {
+                    throw new IllegalStateException("panne");
+                }));
+
+        ResponseEntity<String> reprise = idempotenceService.executer("cle-2", "test", "requete", String.class,
+                () -> ResponseEntity.ok("ok"));
+
+        assertEquals("ok", reprise.getBody());
+        assertNull(reprise.getHeaders().getFirst(IdempotenceService.EN_TETE_REJEU));
+        verify(jdbcTemplate).update(startsWith("DELETE FROM idempotence WHERE cle = ? AND statut_http IS NULL"),
+                any(Object[].class));
+    }
+
+    private static void attendre(CountDownLatch latch) {
+        try {
+            latch.await(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
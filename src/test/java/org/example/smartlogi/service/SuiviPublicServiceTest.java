@@ -0,0 +1,72 @@
+package org.example.smartlogi.service;
+
+import org.example.smartlogi.dto.ColisResume;
+import org.example.smartlogi.enums.PrioriteColis;
+import org.example.smartlogi.enums.StatutColis;
+import org.example.smartlogi.repository.ColisRepository;
+import org.example.smartlogi.repository.HistoriqueLivraisonRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SuiviPublicServiceTest {
+
+    private static final String NUMERO = "COL-SUIVI-1";
+
+    @Mock
+    private ColisRepository colisRepository;
+
+    @Mock
+    private HistoriqueLivraisonRepository historiqueLivraisonRepository;
+
+    private SuiviPublicService suiviPublicService;
+
+    @BeforeEach
+    void setUp() {
+        suiviPublicService = new SuiviPublicService(colisRepository, historiqueLivraisonRepository, 100, 60);
+        when(historiqueLivraisonRepository.findByColisIdOrderByDateChangementAscIdAsc(anyLong())).thenReturn(List.of());
+    }
+
+    @Test
+    public void trouver_shouldServeSecondReadFromCache() {
+        when(colisRepository.findResumeByNumeroSuivi(NUMERO)).thenReturn(Optional.of(resume(StatutColis.CREE, 0L)));
+
+        suiviPublicService.trouver(NUMERO);
+        suiviPublicService.trouver(NUMERO);
+
+        verify(colisRepository, times(1)).findResumeByNumeroSuivi(NUMERO);
+    }
+
+    @Test
+    public void loadRacingWithInvalidation_shouldNotBeCached() {
+        when(colisRepository.findResumeByNumeroSuivi(NUMERO))
+                .thenAnswer(invocation -> {
+                    // Changement de statut commité pendant la lecture : la vue lue est périmée
+                    suiviPublicService.invalider(NUMERO);
+                    return Optional.of(resume(StatutColis.CREE, 0L));
+                })
+                .thenReturn(Optional.of(resume(StatutColis.COLLECTE, 1L)));
+
+        assertEquals("CREE", suiviPublicService.trouver(NUMERO).orElseThrow().vue().statut());
+        assertEquals("COLLECTE", suiviPublicService.trouver(NUMERO).orElseThrow().vue().statut());
+        verify(colisRepository, times(2)).findResumeByNumeroSuivi(NUMERO);
+    }
+
+    private static ColisResume resume(StatutColis statut, Long version) {
+        return new ColisResume(1L, NUMERO, statut, PrioriteColis.NORMALE, BigDecimal.ONE,
+                null, null, LocalDateTime.now(), 1L, "Client", 1L, "Dest", 1L, "Zone",
+                null, null, version);
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.smartlogi.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TourneeOptimiseurTest {
+
+    private static final long BUDGET = TimeUnit.MILLISECONDS.toNanos(500);
+
+    @Test
+    void optimiser_shouldVisitAlignedStopsInOrder() {
+        // Dépôt en 0, arrêts aux abscisses 3, 1, 4, 2
+        double[] x = {0, 3, 1, 4, 2};
+        TourneeOptimiseur optimiseur = new TourneeOptimiseur(distances(x, new double[x.length]),
+                sansEcheance(x.length), poidsUniformes(x.length), 0);
+
+        int[] ordre = optimiseur.optimiser(BUDGET);
+
+        assertArrayEquals(new int[]{2, 4, 1, 3}, ordre);
+    }
+
+    @Test
+    void optimiser_shouldServeUrgentDeadlineFirstEvenIfFarther() {
+        // Arrêt 1 proche sans échéance, arrêt 2 à l'opposé avec une échéance serrée et une forte priorité
+        double[] x = {0, 1, -5};
+        double[] echeances = sansEcheance(x.length);
+        echeances[2] = 6;
+        double[] poids = poidsUniformes(x.length);
+        poids[2] = 6;
+        TourneeOptimiseur optimiseur = new TourneeOptimiseur(distances(x, new double[x.length]), echeances, poids, 0);
+
+        int[] ordre = optimiseur.optimiser(BUDGET);
+
+        assertEquals(2, ordre[0]);
+    }
+
+    @Test
+    void optimiser_shouldReturnPermutationNotWorseThanIdentity() {
+        Random random = new Random(42);
+        int n = 40;
+        double[] x = new double[n + 1];
+        double[] y = new double[n + 1];
+        for (int i = 1; i <= n; i++) {
+            x[i] = random.nextDouble() * 100;
+            y[i] = random.nextDouble() * 100;
+        }
+        TourneeOptimiseur optimiseur = new TourneeOptimiseur(distances(x, y), sansEcheance(n + 1),
+                poidsUniformes(n + 1), 5);
+
+        int[] ordre = optimiseur.optimiser(BUDGET);
+
+        int[] trie = ordre.clone();
+        Arrays.sort(trie);
+        for (int i = 0; i < n; i++) {
+            assertEquals(i + 1, trie[i]);
+        }
+        int[] identite = new int[n];
+        for (int i = 0; i < n; i++) {
+            identite[i] = i + 1;
+        }
+        assertTrue(optimiseur.cout(ordre) < optimiseur.cout(identite));
+    }
+
+    @Test
+    void optimiser_withoutStops_shouldReturnEmptyTour() {
+        TourneeOptimiseur optimiseur = new TourneeOptimiseur(new double[1][1], sansEcheance(1), poidsUniformes(1), 5);
+
+        assertEquals(0, optimiseur.optimiser(BUDGET).length);
+    }
+
+    @Test
+    void distanceKm_shouldMatchKnownDistance() {
+        // Casablanca - Rabat : environ 87 km à vol d'oiseau
+        double km = TourneeOptimiseur.distanceKm(33.5731, -7.5898, 34.0209, -6.8416);
+
+        assertEquals(87, km, 3);
+    }
+
+    private static double[][] distances(double[] x, double[] y) {
+        double[][] d = new double[x.length][x.length];
+        for (int i = 0; i < x.length; i++) {
+            for (int j = 0; j < x.length; j++) {
+                d[i][j] = Math.hypot(x[i] - x[j], y[i] - y[j]);
+            }
+        }
+        return d;
+    }
+
+    private static double[] sansEcheance(int taille) {
+        double[] echeances = new double[taille];
+        Arrays.fill(echeances, TourneeOptimiseur.SANS_ECHEANCE);
+        return echeances;
+    }
+
+    private static double[] poidsUniformes(int taille) {
+        double[] poids = new double[taille];
+        Arrays.fill(poids, 1);
+        return poids;
+    }
+}
@@ -0,0 +1,138 @@
+package org.example.smartlogi.service;
+
+import org.example.smartlogi.dto.HistoriqueWriterStats;
+import org.example.smartlogi.enums.StatutColis;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class WriteBehindHistoriqueWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private WriteBehindHistoriqueWriter writer;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (writer != null) {
+            writer.arreter();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void enregistrer_shouldGroupRowsIntoBatchesOfConfiguredSize() {
+        writer = new WriteBehindHistoriqueWriter(jdbcTemplate, transactionManager, 100, 5, 10_000);
+        writer.demarrer();
+
+        for (long i = 0; i < 10; i++) {
+            writer.enregistrer(i, StatutColis.EN_TRANSIT, null);
+        }
+
+        ArgumentCaptor<List<Object[]>> lots = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, timeout(2000).times(2)).batchUpdate(anyString(), lots.capture());
+        assertTrue(lots.getAllValues().stream().allMatch(lot -> lot.size() == 5));
+        verify(transactionManager, timeout(2000).times(2)).commit(any());
+    }
+
+    @Test
+    public void arreter_shouldDrainPendingRows() throws InterruptedException {
+        writer = new WriteBehindHistoriqueWriter(jdbcTemplate, transactionManager, 100, 50, 60_000);
+        writer.demarrer();
+
+        for (long i = 0; i < 3; i++) {
+            writer.enregistrer(i, StatutColis.LIVRE, "Livré");
+        }
+        writer.arreter();
+        writer = null;
+
+        verify(jdbcTemplate).batchUpdate(anyString(), argThat((List<Object[]> lot) -> lot.size() == 3));
+    }
+
+    @Test
+    public void enregistrer_whenQueueIsFull_shouldWriteDirectly() throws InterruptedException {
+        writer = new WriteBehindHistoriqueWriter(jdbcTemplate, transactionManager, 2, 50, 60_000);
+        writer.demarrer();
+
+        for (long i = 0; i < 5; i++) {
+            writer.enregistrer(i, StatutColis.EN_STOCK, null);
+        }
+        HistoriqueWriterStats stats = writer.stats();
+        writer.arreter();
+        writer = null;
+
+        assertEquals(3, stats.getEcrituresDirectes());
+        assertEquals(2, stats.getProfondeurFile());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void batchFailure_shouldRetryRowByRowAndCountFailures() throws InterruptedException {
+        writer = new WriteBehindHistoriqueWriter(jdbcTemplate, transactionManager, 100, 2, 60_000);
+        when(jdbcTemplate.batchUpdate(anyString(), any(List.class))).thenThrow(new RuntimeException("FK"));
+        when(jdbcTemplate.update(anyString(), any(Object[].class)))
+                .thenReturn(1)
+                .thenThrow(new RuntimeException("FK"));
+        writer.demarrer();
+
+        writer.enregistrer(1L, StatutColis.COLLECTE, null);
+        writer.enregistrer(2L, StatutColis.COLLECTE, null);
+        writer.arreter();
+
+        HistoriqueWriterStats stats = writer.stats();
+        writer = null;
+        assertEquals(1, stats.getLignesEcrites());
+        assertEquals(1, stats.getEchecs());
+    }
+
+    @Test
+    public void enregistrer_whenWriterIsStopped_shouldCommitDirectWriteAfterRequestCommit() {
+        // Connexions sans auto-commit, comme un pool configuré auto-commit=false :
+        // une écriture qui rejoint la transaction déjà validée serait perdue à la fermeture.
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:historique-writer;DB_CLOSE_DELAY=-1", "sa", "") {
+            @Override
+            protected Connection getConnectionFromDriver(Properties props) throws SQLException {
+                Connection connection = super.getConnectionFromDriver(props);
+                connection.setAutoCommit(false);
+                return connection;
+            }
+        };
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager reelManager = new DataSourceTransactionManager(dataSource);
+        TransactionTemplate requete = new TransactionTemplate(reelManager);
+        requete.executeWithoutResult(status -> jdbc.execute("CREATE TABLE historique_livraison (colis_id BIGINT, " +
+                "statut VARCHAR(30), date_changement TIMESTAMP, commentaire VARCHAR(255))"));
+
+        WriteBehindHistoriqueWriter direct = new WriteBehindHistoriqueWriter(jdbc, reelManager, 100, 10, 60_000);
+        requete.executeWithoutResult(status -> direct.enregistrer(42L, StatutColis.LIVRE, "Livré"));
+
+        Integer lignes = requete.execute(status ->
+                jdbc.queryForObject("SELECT COUNT(*) FROM historique_livraison WHERE colis_id = 42", Integer.class));
+        assertEquals(1, lignes);
+        assertEquals(1, direct.stats().getEcrituresDirectes());
+        assertEquals(1, direct.stats().getLignesEcrites());
+    }
+}